@@ -0,0 +1,147 @@
+package com.juubsouza.jsdrugstore.benchmark;
+
+import com.juubsouza.jsdrugstore.JsDrugstoreApplication;
+import com.juubsouza.jsdrugstore.model.Customer;
+import com.juubsouza.jsdrugstore.model.Price;
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Seller;
+import com.juubsouza.jsdrugstore.model.Stock;
+import com.juubsouza.jsdrugstore.repository.CustomerRepository;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import com.juubsouza.jsdrugstore.repository.SellerRepository;
+import com.juubsouza.jsdrugstore.search.ProductFacetIndex;
+import com.juubsouza.jsdrugstore.search.ProductSearchIndex;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Starts the application without a web server against a fresh in-memory H2 database in SQL Server mode, and
+ * seeds it with generated data, so benchmarks run the real services, queries and transactions.
+ */
+public final class BenchmarkApplication {
+
+    private static final int SEED_CHUNK = 1000;
+
+    private static final String[] PREFIXES = {"ami", "bro", "cef", "dex", "flu", "gli", "hydro", "ibu", "keto", "lor",
+            "met", "nap", "oxa", "pred", "quin", "ran", "sul", "tra", "val", "zol"};
+
+    private static final String[] INFIXES = {"ba", "ce", "di", "fo", "ga", "li", "mo", "ne", "pa", "ri",
+            "sa", "te", "vo", "xa", "zi", "lu", "ro", "ta", "mi", "co"};
+
+    private static final String[] SUFFIXES = {"pril", "statin", "profen", "cillin", "azole", "olol", "sartan", "mycin", "done", "pine"};
+
+    private static final String[] FORMS = {"Tablets", "Capsules", "Syrup", "Drops", "Cream", "Injection"};
+
+    private static final String[] MANUFACTURERS = {"Medley", "EMS", "Eurofarma", "Ache", "Hypera", "Cristalia",
+            "Biolab", "Libbs", "Sanofi", "Pfizer", "Bayer", "Novartis"};
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(JsDrugstoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MSSQLServer",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Saves {@code count} products with a price and stock, then rebuilds the search and facet indexes, and returns their ids
+     * in insertion order. Names are generated from a fixed seed, so every run sees the same catalogue.
+     */
+    public static List<Long> seedProducts(ConfigurableApplicationContext context, int count, int stock) {
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Random random = new Random(42);
+        List<Long> ids = new ArrayList<>(count);
+
+        for (int from = 0; from < count; from += SEED_CHUNK) {
+            List<Product> products = new ArrayList<>();
+
+            for (int i = from; i < Math.min(from + SEED_CHUNK, count); i++)
+                products.add(newProduct(random, stock));
+
+            transactionTemplate.executeWithoutResult(status -> productRepository.saveAll(products));
+            products.forEach(product -> ids.add(product.getId()));
+        }
+
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(ProductFacetIndex.class).rebuild();
+
+        return ids;
+    }
+
+    public static Long seedCustomer(ConfigurableApplicationContext context) {
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@email.com");
+
+        return context.getBean(CustomerRepository.class).save(customer).getId();
+    }
+
+    public static Long seedSeller(ConfigurableApplicationContext context) {
+        Seller seller = new Seller();
+        seller.setFirstName("Jane");
+        seller.setLastName("Doe");
+        seller.setAdmissionDate(new Date());
+
+        return context.getBean(SellerRepository.class).save(seller).getId();
+    }
+
+    /**
+     * Returns substance names drawn the same way as the seeded product names, for use as search queries.
+     */
+    public static List<String> substanceQueries(int count) {
+        Random random = new Random(7);
+        List<String> queries = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++)
+            queries.add(newSubstance(random));
+
+        return queries;
+    }
+
+    public static Product newProduct(Random random, int stock) {
+        Product product = new Product();
+        product.setName(newSubstance(random) + " " + (random.nextInt(20) + 1) * 25 + "mg " + FORMS[random.nextInt(FORMS.length)]);
+        product.setManufacturer(MANUFACTURERS[random.nextInt(MANUFACTURERS.length)]);
+
+        Price price = new Price();
+        price.setPrice(BigDecimal.valueOf(100 + random.nextInt(20_000), 2));
+        price.setProduct(product);
+        product.setPrice(price);
+
+        Stock productStock = new Stock();
+        productStock.setStock(stock);
+        productStock.setProduct(product);
+        product.setStock(productStock);
+
+        return product;
+    }
+
+    private static String newSubstance(Random random) {
+        String prefix = PREFIXES[random.nextInt(PREFIXES.length)];
+
+        return Character.toUpperCase(prefix.charAt(0)) + prefix.substring(1)
+                + INFIXES[random.nextInt(INFIXES.length)]
+                + SUFFIXES[random.nextInt(SUFFIXES.length)];
+    }
+}
@@ -0,0 +1,33 @@
+package com.juubsouza.jsdrugstore.benchmark;
+
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Sale;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Copy of {@link com.juubsouza.jsdrugstore.model.SaleProduct} that keeps the old {@code IDENTITY} ids, as the
+ * baseline for insert batching benchmarks. It only exists on the benchmark classpath.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class IdentitySaleProduct {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Integer quantity;
+
+    @ManyToOne
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    @ManyToOne
+    @JoinColumn(name = "sale_id")
+    private Sale sale;
+}
@@ -0,0 +1,8 @@
+package com.juubsouza.jsdrugstore.benchmark;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdentitySaleProductRepository extends JpaRepository<IdentitySaleProduct, Long> {
+}
@@ -0,0 +1,121 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juubsouza.jsdrugstore.benchmark.BenchmarkApplication;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import com.juubsouza.jsdrugstore.service.SaleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the read path of a page: the JPQL constructor projection against loading entities and mapping
+ * them, and the JSON serialisation of the resulting DTOs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class DtoProjectionBenchmark {
+
+    private static final int CATALOGUE_SIZE = 10_000;
+
+    private static final int PAGE_SIZE = 500;
+
+    private static final int SALES = 200;
+
+    private static final int SALE_PAGE_SIZE = 50;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private SaleService saleService;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ObjectMapper objectMapper;
+
+    private Long customerId;
+
+    private List<ProductDTO> productsPage;
+
+    private PageDTO<SaleDTO> salesPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        productRepository = context.getBean(ProductRepository.class);
+        saleService = context.getBean(SaleService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<Long> productIds = BenchmarkApplication.seedProducts(context, CATALOGUE_SIZE, Integer.MAX_VALUE / 2);
+        customerId = BenchmarkApplication.seedCustomer(context);
+        Long sellerId = BenchmarkApplication.seedSeller(context);
+
+        List<SaleDTOAdd> sales = new ArrayList<>();
+
+        for (int i = 0; i < SALES; i++) {
+            SaleDTOAdd saleDTOAdd = new SaleDTOAdd();
+            saleDTOAdd.setPaymentMethod("CASH");
+            saleDTOAdd.setCustomerId(customerId);
+            saleDTOAdd.setSellerId(sellerId);
+            saleDTOAdd.setSaleProducts(productIds.subList(i * 5, i * 5 + 5).stream()
+                    .map(productId -> new SaleProductDTOAdd(2, productId))
+                    .collect(Collectors.toList()));
+            sales.add(saleDTOAdd);
+        }
+
+        saleService.addSales(sales);
+
+        productsPage = findProductsPageProjection();
+        salesPage = findSalesPage();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> findProductsPageProjection() {
+        return productRepository.findDTOsAfterId(0L, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<ProductDTO> findProductsPageEntities() {
+        return transactionTemplate.execute(status -> productRepository.findAll(PageRequest.of(0, PAGE_SIZE)).stream()
+                .map(product -> new ProductDTO(product.getId(), product.getName(), product.getManufacturer(),
+                        product.getPrice().getPrice(), product.getStock().getStock()))
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public PageDTO<SaleDTO> findSalesPage() {
+        return saleService.findSalesPageForCustomer(customerId, null, SALE_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public byte[] serializeProductsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productsPage);
+    }
+
+    @Benchmark
+    public byte[] serializeSalesPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(salesPage);
+    }
+}
@@ -0,0 +1,80 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.benchmark.BenchmarkApplication;
+import com.juubsouza.jsdrugstore.benchmark.IdentitySaleProduct;
+import com.juubsouza.jsdrugstore.benchmark.IdentitySaleProductRepository;
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Sale;
+import com.juubsouza.jsdrugstore.model.SaleProduct;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code saveAll} on sale lines with pooled sequence ids, which Hibernate inserts in JDBC batches,
+ * against the same table shape with {@code IDENTITY} ids, which it inserts one row at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SaleProductSaveAllBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int lines;
+
+    private ConfigurableApplicationContext context;
+
+    private SaleProductRepository saleProductRepository;
+
+    private IdentitySaleProductRepository identitySaleProductRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Product product;
+
+    private Sale sale;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        saleProductRepository = context.getBean(SaleProductRepository.class);
+        identitySaleProductRepository = context.getBean(IdentitySaleProductRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        Long productId = BenchmarkApplication.seedProducts(context, 1, 0).get(0);
+        product = context.getBean(ProductRepository.class).findById(productId).orElseThrow();
+        sale = context.getBean(SaleRepository.class).save(new Sale());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<SaleProduct> saveAllSequence() {
+        List<SaleProduct> saleProducts = new ArrayList<>(lines);
+
+        for (int i = 0; i < lines; i++)
+            saleProducts.add(new SaleProduct(null, 1, product, sale));
+
+        return transactionTemplate.execute(status -> saleProductRepository.saveAll(saleProducts));
+    }
+
+    @Benchmark
+    public List<IdentitySaleProduct> saveAllIdentity() {
+        List<IdentitySaleProduct> saleProducts = new ArrayList<>(lines);
+
+        for (int i = 0; i < lines; i++)
+            saleProducts.add(new IdentitySaleProduct(null, 1, product, sale));
+
+        return transactionTemplate.execute(status -> identitySaleProductRepository.saveAll(saleProducts));
+    }
+}
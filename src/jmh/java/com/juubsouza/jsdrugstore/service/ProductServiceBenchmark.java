@@ -0,0 +1,94 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.benchmark.BenchmarkApplication;
+import com.juubsouza.jsdrugstore.model.dto.FacetCountDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductFacetsDTO;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import com.juubsouza.jsdrugstore.search.ProductFacetIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares name lookups answered from the trigram index with the {@code LIKE '%name%'} query they replace, and
+ * times facet filtering with and without loading the matching products, for catalogues of up to a million products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class ProductServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogueSize;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductService productService;
+
+    private ProductRepository productRepository;
+
+    private ProductFacetIndex productFacetIndex;
+
+    private List<String> queries;
+
+    private List<String> manufacturers;
+
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+
+        productFacetIndex = context.getBean(ProductFacetIndex.class);
+
+        BenchmarkApplication.seedProducts(context, catalogueSize, 100);
+        queries = BenchmarkApplication.substanceQueries(256);
+        manufacturers = productFacetIndex.filter(null, null, null, 1).getManufacturers().stream()
+                .limit(2)
+                .map(FacetCountDTO::getValue)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> findProductsByName() {
+        return productService.findProductsByName(nextQuery());
+    }
+
+    @Benchmark
+    public List<ProductDTO> findProductsByNameLike() {
+        return productRepository.findDTOsByName(nextQuery());
+    }
+
+    @Benchmark
+    public List<ProductDTO> searchProducts() {
+        return productService.searchProducts(nextQuery(), 20);
+    }
+
+    @Benchmark
+    public ProductFacetIndex.Result filterProductFacets() {
+        return productFacetIndex.filter(manufacturers, List.of("5-10", "10-20"), true, 20);
+    }
+
+    @Benchmark
+    public ProductFacetsDTO filterProducts() {
+        return productService.filterProducts(manufacturers, List.of("5-10", "10-20"), true, 20);
+    }
+
+    private String nextQuery() {
+        nextQuery = (nextQuery + 1) & (queries.size() - 1);
+        return queries.get(nextQuery);
+    }
+}
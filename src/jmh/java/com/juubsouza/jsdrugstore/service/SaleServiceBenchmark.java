@@ -0,0 +1,140 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.benchmark.BenchmarkApplication;
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Sale;
+import com.juubsouza.jsdrugstore.model.dto.BasketProductDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleBatchResultDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import com.juubsouza.jsdrugstore.utils.LongObjectMap;
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times adding sales through the service, and compares pricing a basket against the fetched products indexed by
+ * id with the linear scan per line it replaced, at 1 to 1,000 lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SaleServiceBenchmark {
+
+    private static final int CATALOGUE_SIZE = 2000;
+
+    private static final int SALES_PER_BATCH = 50;
+
+    @Param({"1", "10", "100", "1000"})
+    private int basketSize;
+
+    private ConfigurableApplicationContext context;
+
+    private SaleService saleService;
+
+    private SaleDTOAdd sale;
+
+    private List<SaleDTOAdd> sales;
+
+    private LongObjectMap<BasketProductDTO> basketProducts;
+
+    private List<BasketProductDTO> basketProductList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        saleService = context.getBean(SaleService.class);
+
+        List<Long> productIds = BenchmarkApplication.seedProducts(context, CATALOGUE_SIZE, Integer.MAX_VALUE / 2);
+        Long customerId = BenchmarkApplication.seedCustomer(context);
+        Long sellerId = BenchmarkApplication.seedSeller(context);
+
+        sale = newSale(customerId, sellerId, productIds.subList(0, basketSize));
+        sales = new ArrayList<>();
+
+        for (int i = 0; i < SALES_PER_BATCH; i++)
+            sales.add(newSale(customerId, sellerId, productIds.subList(i, i + basketSize)));
+
+        basketProducts = new LongObjectMap<>(basketSize);
+        basketProductList = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (SaleProductDTOAdd saleProduct : sale.getSaleProducts()) {
+            Product product = BenchmarkApplication.newProduct(random, 0);
+            BasketProductDTO basketProduct = new BasketProductDTO(saleProduct.getProductId(), product.getName(),
+                    product.getPrice().getPrice(), product.getStock().getStock(), saleProduct.getQuantity());
+
+            basketProducts.put(basketProduct.getId(), basketProduct);
+            basketProductList.add(basketProduct);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SaleDTO addSale() {
+        return saleService.addSale(sale);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SALES_PER_BATCH)
+    public List<SaleBatchResultDTO> addSales() {
+        return saleService.addSales(sales);
+    }
+
+    @Benchmark
+    public Sale calculateTotal() {
+        Sale detachedSale = new Sale();
+        SaleService.calculateTotal(sale.getSaleProducts(), basketProducts, detachedSale);
+        return detachedSale;
+    }
+
+    @Benchmark
+    public Sale calculateTotalLinearScan() {
+        Sale detachedSale = new Sale();
+        BigDecimal total = BigDecimal.ZERO;
+
+        for (SaleProductDTOAdd saleProduct : sale.getSaleProducts()) {
+            BasketProductDTO product = fetchProductForIteration(basketProductList, saleProduct.getProductId());
+            total = total.add(product.getPrice().multiply(BigDecimal.valueOf(saleProduct.getQuantity())));
+        }
+
+        detachedSale.setTotal(total);
+        return detachedSale;
+    }
+
+    private static BasketProductDTO fetchProductForIteration(List<BasketProductDTO> products, Long productId) {
+        return products.stream()
+                .filter(p -> p.getId().equals(productId))
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Product not found."));
+    }
+
+    private static SaleDTOAdd newSale(Long customerId, Long sellerId, List<Long> productIds) {
+        SaleDTOAdd saleDTOAdd = new SaleDTOAdd();
+        saleDTOAdd.setPaymentMethod("CASH");
+        saleDTOAdd.setCustomerId(customerId);
+        saleDTOAdd.setSellerId(sellerId);
+
+        List<SaleProductDTOAdd> saleProducts = new ArrayList<>();
+
+        for (Long productId : productIds)
+            saleProducts.add(new SaleProductDTOAdd(1, productId));
+
+        saleDTOAdd.setSaleProducts(saleProducts);
+
+        return saleDTOAdd;
+    }
+}
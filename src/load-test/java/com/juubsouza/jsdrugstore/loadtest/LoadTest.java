@@ -0,0 +1,126 @@
+package com.juubsouza.jsdrugstore.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juubsouza.jsdrugstore.JsDrugstoreApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Boots the application on a random port against a fresh in-memory H2 database in SQL Server mode, seeds it,
+ * and drives it over HTTP with a closed-loop workload: each virtual user sends a request, waits for the
+ * response and the optional think time, and sends the next one. Application properties such as
+ * {@code jsdrugstore.threads.virtual.enabled} can be passed as system properties. The run fails after writing
+ * the report when an operation's p99 latency is above its {@code loadtest.max-p99-ms} limit.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JsDrugstoreApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MSSQLServer",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.apache.catalina.loader=ERROR")
+                .run(args)) {
+            System.out.println("Seeding dataset...");
+            LoadTestDataset dataset = LoadTestDataset.seed(context, settings);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            TrafficGenerator traffic = new TrafficGenerator("http://localhost:" + port, dataset, context.getBean(ObjectMapper.class), settings.getMix());
+
+            run(settings, traffic);
+        }
+    }
+
+    private static void run(LoadTestSettings settings, TrafficGenerator traffic) throws InterruptedException, IOException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        LoadTestReport report = new LoadTestReport(settings.getMix().keySet());
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService users = Executors.newFixedThreadPool(settings.getUsers());
+
+        for (int i = 0; i < settings.getUsers(); i++)
+            users.execute(() -> drive(client, traffic, report, running, settings.getThinkTimeMillis()));
+
+        System.out.printf("Warming up with %d users for %ds...%n", settings.getUsers(), settings.getWarmupSeconds());
+        TimeUnit.SECONDS.sleep(settings.getWarmupSeconds());
+        report.reset();
+
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+
+        System.out.printf("Measuring for %ds...%n", settings.getDurationSeconds());
+        TimeUnit.SECONDS.sleep(settings.getDurationSeconds());
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        String summary = report.write(settings.getReport(), settings, startedAt, elapsedSeconds);
+
+        running.set(false);
+        users.shutdown();
+        users.awaitTermination(1, TimeUnit.MINUTES);
+
+        System.out.print(summary);
+        System.out.println("Report written to " + settings.getReport().toAbsolutePath());
+
+        List<String> violations = report.findP99Violations(settings.getMaxP99Millis());
+
+        if (!violations.isEmpty())
+            throw new IllegalStateException("Latency limits exceeded:" + System.lineSeparator() + String.join(System.lineSeparator(), violations));
+    }
+
+    private static void drive(HttpClient client, TrafficGenerator traffic, LoadTestReport report, AtomicBoolean running, int thinkTimeMillis) {
+        Random random = ThreadLocalRandom.current();
+
+        while (running.get()) {
+            Operation operation = traffic.nextOperation(random);
+            long start = System.nanoTime();
+            int status;
+
+            try {
+                HttpRequest request = traffic.newRequest(operation, random);
+                start = System.nanoTime();
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                status = -1;
+            }
+
+            report.record(operation, status, System.nanoTime() - start);
+
+            if (thinkTimeMillis > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(thinkTimeMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
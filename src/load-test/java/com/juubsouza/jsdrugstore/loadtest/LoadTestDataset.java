@@ -0,0 +1,250 @@
+package com.juubsouza.jsdrugstore.loadtest;
+
+import com.juubsouza.jsdrugstore.model.*;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import com.juubsouza.jsdrugstore.repository.*;
+import com.juubsouza.jsdrugstore.search.CustomerNameIndex;
+import com.juubsouza.jsdrugstore.search.ProductSearchIndex;
+import com.juubsouza.jsdrugstore.search.SellerNameIndex;
+import com.juubsouza.jsdrugstore.service.SaleService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Synthetic customers with a shipping address, sellers, products and historic sales, generated from a fixed
+ * seed. Historic sales go through {@link SaleService#addSales}, so stock and totals are consistent with what
+ * the API would have produced.
+ */
+public class LoadTestDataset {
+
+    private static final int SEED_CHUNK = 1000;
+
+    private static final int SALES_CHUNK = 500;
+
+    private static final int PRODUCT_STOCK = 1_000_000_000;
+
+    private static final String[] FIRST_NAMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Hugo",
+            "Isabela", "Joao", "Karen", "Lucas", "Mariana", "Nicolas", "Olivia", "Pedro", "Rafaela", "Samuel", "Tatiana", "Vitor"};
+
+    private static final String[] LAST_NAMES = {"Almeida", "Barbosa", "Cardoso", "Dias", "Esteves", "Ferreira", "Gomes",
+            "Henriques", "Lima", "Martins", "Nunes", "Oliveira", "Pereira", "Ribeiro", "Santos", "Teixeira", "Vieira"};
+
+    private static final String CONSONANTS = "bcdfglmnprstvz";
+
+    private static final String VOWELS = "aeiou";
+
+    private static final int PERSON_QUERIES = 1000;
+
+    private static final String[] CITIES = {"Sao Paulo", "Rio de Janeiro", "Curitiba", "Recife", "Salvador", "Porto Alegre"};
+
+    private static final String[] PREFIXES = {"ami", "bro", "cef", "dex", "flu", "gli", "hydro", "ibu", "keto", "lor",
+            "met", "nap", "oxa", "pred", "quin", "ran", "sul", "tra", "val", "zol"};
+
+    private static final String[] SUFFIXES = {"pril", "statin", "profen", "cillin", "azole", "olol", "sartan", "mycin", "done", "pine"};
+
+    private static final String[] FORMS = {"Tablets", "Capsules", "Syrup", "Drops", "Cream", "Injection"};
+
+    private static final String[] MANUFACTURERS = {"Medley", "EMS", "Eurofarma", "Ache", "Hypera", "Cristalia", "Biolab", "Libbs"};
+
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<Long> sellerIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<String> productQueries = new ArrayList<>();
+    private final List<String> personQueries = new ArrayList<>();
+    private int lastNames;
+
+    public static LoadTestDataset seed(ConfigurableApplicationContext context, LoadTestSettings settings) {
+        LoadTestDataset dataset = new LoadTestDataset();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Random random = new Random(42);
+        dataset.lastNames = settings.getLastNames();
+
+        dataset.seedCustomers(context, transactionTemplate, random, settings.getCustomers());
+        dataset.seedSellers(context, transactionTemplate, random, settings.getSellers());
+        dataset.seedProducts(context, transactionTemplate, random, settings.getProducts());
+        dataset.seedSales(context.getBean(SaleService.class), random, settings.getSales());
+
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(CustomerNameIndex.class).rebuild();
+        context.getBean(SellerNameIndex.class).rebuild();
+
+        if (dataset.lastNames > 0) {
+            for (int i = 0; i < PERSON_QUERIES; i++)
+                dataset.personQueries.add(generatedLastName(random.nextInt(dataset.lastNames)));
+        } else {
+            dataset.personQueries.addAll(Arrays.asList(FIRST_NAMES));
+            dataset.personQueries.addAll(Arrays.asList(LAST_NAMES));
+        }
+
+        return dataset;
+    }
+
+    public List<Long> getCustomerIds() {
+        return customerIds;
+    }
+
+    public List<Long> getSellerIds() {
+        return sellerIds;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+
+    public List<String> getProductQueries() {
+        return productQueries;
+    }
+
+    public List<String> getPersonQueries() {
+        return personQueries;
+    }
+
+    private void seedCustomers(ConfigurableApplicationContext context, TransactionTemplate transactionTemplate, Random random, int count) {
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        AddressRepository addressRepository = context.getBean(AddressRepository.class);
+        CustomerAddressRepository customerAddressRepository = context.getBean(CustomerAddressRepository.class);
+
+        for (int from = 0; from < count; from += SEED_CHUNK) {
+            List<Customer> customers = new ArrayList<>();
+            List<Address> addresses = new ArrayList<>();
+            List<CustomerAddress> customerAddresses = new ArrayList<>();
+
+            for (int i = from; i < Math.min(from + SEED_CHUNK, count); i++) {
+                Customer customer = new Customer();
+                customer.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                customer.setLastName(lastName(random));
+                customer.setEmail("customer" + i + "@email.com");
+                customers.add(customer);
+
+                Address address = new Address();
+                address.setDetails(random.nextInt(2000) + " Main Street");
+                address.setCity(CITIES[random.nextInt(CITIES.length)]);
+                address.setState("SP");
+                address.setCountry("Brazil");
+                addresses.add(address);
+
+                customerAddresses.add(new CustomerAddress(null, true, address, customer));
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                customerRepository.saveAll(customers);
+                addressRepository.saveAll(addresses);
+                customerAddressRepository.saveAll(customerAddresses);
+            });
+
+            customers.forEach(customer -> customerIds.add(customer.getId()));
+        }
+    }
+
+    private void seedSellers(ConfigurableApplicationContext context, TransactionTemplate transactionTemplate, Random random, int count) {
+        SellerRepository sellerRepository = context.getBean(SellerRepository.class);
+        List<Seller> sellers = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Seller seller = new Seller();
+            seller.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            seller.setLastName(lastName(random));
+            seller.setAdmissionDate(new Date());
+            sellers.add(seller);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> sellerRepository.saveAll(sellers));
+        sellers.forEach(seller -> sellerIds.add(seller.getId()));
+    }
+
+    private void seedProducts(ConfigurableApplicationContext context, TransactionTemplate transactionTemplate, Random random, int count) {
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        Set<String> substances = new LinkedHashSet<>();
+
+        for (int from = 0; from < count; from += SEED_CHUNK) {
+            List<Product> products = new ArrayList<>();
+
+            for (int i = from; i < Math.min(from + SEED_CHUNK, count); i++) {
+                String prefix = PREFIXES[random.nextInt(PREFIXES.length)];
+                String substance = Character.toUpperCase(prefix.charAt(0)) + prefix.substring(1) + SUFFIXES[random.nextInt(SUFFIXES.length)];
+                substances.add(substance);
+
+                Product product = new Product();
+                product.setName(substance + " " + (random.nextInt(20) + 1) * 25 + "mg " + FORMS[random.nextInt(FORMS.length)]);
+                product.setManufacturer(MANUFACTURERS[random.nextInt(MANUFACTURERS.length)]);
+
+                Price price = new Price();
+                price.setPrice(BigDecimal.valueOf(100 + random.nextInt(20_000), 2));
+                price.setProduct(product);
+                product.setPrice(price);
+
+                Stock stock = new Stock();
+                stock.setStock(PRODUCT_STOCK);
+                stock.setProduct(product);
+                product.setStock(stock);
+
+                products.add(product);
+            }
+
+            transactionTemplate.executeWithoutResult(status -> productRepository.saveAll(products));
+            products.forEach(product -> productIds.add(product.getId()));
+        }
+
+        productQueries.addAll(substances);
+    }
+
+    private void seedSales(SaleService saleService, Random random, int count) {
+        for (int from = 0; from < count; from += SALES_CHUNK) {
+            List<SaleDTOAdd> sales = new ArrayList<>();
+
+            for (int i = from; i < Math.min(from + SALES_CHUNK, count); i++)
+                sales.add(newSale(random));
+
+            saleService.addSales(sales);
+        }
+    }
+
+    private String lastName(Random random) {
+        return lastNames > 0 ? generatedLastName(random.nextInt(lastNames)) : LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    /**
+     * Builds a distinct name of at least four consonant-vowel syllables for every index, so large datasets can
+     * have as many different last names as real ones and a lookup matches a handful of people.
+     */
+    static String generatedLastName(int index) {
+        StringBuilder name = new StringBuilder();
+        int syllables = CONSONANTS.length() * VOWELS.length();
+
+        for (int i = 0; i < 4 || index > 0; i++) {
+            int syllable = index % syllables;
+            name.append(CONSONANTS.charAt(syllable / VOWELS.length())).append(VOWELS.charAt(syllable % VOWELS.length()));
+            index /= syllables;
+        }
+
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    SaleDTOAdd newSale(Random random) {
+        SaleDTOAdd sale = new SaleDTOAdd();
+        sale.setPaymentMethod(random.nextBoolean() ? "CASH" : "CREDIT_CARD");
+        sale.setCustomerId(customerIds.get(random.nextInt(customerIds.size())));
+        sale.setSellerId(sellerIds.get(random.nextInt(sellerIds.size())));
+
+        Set<Long> basket = new LinkedHashSet<>();
+        int basketSize = 1 + random.nextInt(Math.min(5, productIds.size()));
+
+        while (basket.size() < basketSize)
+            basket.add(productIds.get(random.nextInt(productIds.size())));
+
+        List<SaleProductDTOAdd> saleProducts = new ArrayList<>();
+
+        for (Long productId : basket)
+            saleProducts.add(new SaleProductDTOAdd(1 + random.nextInt(3), productId));
+
+        sale.setSaleProducts(saleProducts);
+
+        return sale;
+    }
+}
@@ -0,0 +1,207 @@
+package com.juubsouza.jsdrugstore.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Collects per-operation latencies in HdrHistograms, in microseconds, and response status counts. Recording
+ * goes into the current window under a shared lock; {@link #reset()} and {@link #write} swap the window under
+ * the exclusive lock, so latencies and status counts always cover exactly the same requests. Responses with a
+ * status of 400 or above and requests that failed without a response (status {@code -1}) count as errors.
+ */
+public class LoadTestReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+
+    private static final double[] PERCENTILES = {50.0, 75.0, 90.0, 95.0, 99.0, 99.9};
+
+    private final Collection<Operation> operations;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Operation, OperationStats> window;
+
+    private Map<Operation, OperationStats> written = new EnumMap<>(Operation.class);
+
+    public LoadTestReport(Collection<Operation> operations) {
+        this.operations = operations;
+        this.window = newWindow();
+    }
+
+    public void record(Operation operation, int status, long latencyNanos) {
+        lock.readLock().lock();
+
+        try {
+            OperationStats stats = window.get(operation);
+            stats.histogram.recordValue(Math.min(latencyNanos / 1000, HIGHEST_TRACKABLE_MICROS));
+            stats.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void reset() {
+        swapWindow();
+    }
+
+    /**
+     * Writes the report as JSON and returns a one line per operation summary for the console.
+     */
+    public String write(Path file, LoadTestSettings settings, Instant startedAt, double elapsedSeconds) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        StringBuilder summary = new StringBuilder(String.format("%-16s %10s %8s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+
+        written = swapWindow();
+
+        for (Map.Entry<Operation, OperationStats> entry : written.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            Map<String, Long> statusCounts = new TreeMap<>();
+            long errors = 0;
+
+            for (Map.Entry<Integer, LongAdder> status : entry.getValue().statuses.entrySet()) {
+                statusCounts.put(String.valueOf(status.getKey()), status.getValue().sum());
+
+                if (status.getKey() < 0 || status.getKey() >= 400)
+                    errors += status.getValue().sum();
+            }
+
+            total.add(histogram);
+            totalErrors += errors;
+
+            Map<String, Object> operation = summarize(histogram, errors, elapsedSeconds);
+            operation.put("statuses", statusCounts);
+            operation.put("histogram", distribution(histogram));
+            operations.put(entry.getKey().getKey(), operation);
+
+            summary.append(summaryLine(entry.getKey().getKey(), histogram, errors, elapsedSeconds));
+        }
+
+        summary.append(summaryLine("total", total, totalErrors, elapsedSeconds));
+
+        report.put("startedAt", startedAt.toString());
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("settings", settings.toReport());
+        report.put("total", summarize(total, totalErrors, elapsedSeconds));
+        report.put("operations", operations);
+
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+
+        return summary.toString();
+    }
+
+    /**
+     * Returns a message for every operation of the last written window whose p99 latency is above its limit.
+     */
+    public List<String> findP99Violations(Map<Operation, Double> maxP99Millis) {
+        List<String> violations = new ArrayList<>();
+
+        maxP99Millis.forEach((operation, limit) -> {
+            OperationStats stats = written.get(operation);
+
+            if (stats == null || stats.histogram.getTotalCount() == 0) {
+                violations.add(String.format(Locale.ROOT, "%s: no requests measured, limit is %.2f ms", operation.getKey(), limit));
+                return;
+            }
+
+            double p99 = stats.histogram.getValueAtPercentile(99) / 1000.0;
+
+            if (p99 > limit)
+                violations.add(String.format(Locale.ROOT, "%s: p99 %.2f ms is above the %.2f ms limit", operation.getKey(), p99, limit));
+        });
+
+        return violations;
+    }
+
+    private Map<Operation, OperationStats> swapWindow() {
+        lock.writeLock().lock();
+
+        try {
+            Map<Operation, OperationStats> previous = window;
+            window = newWindow();
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Operation, OperationStats> newWindow() {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+        for (Operation operation : operations)
+            stats.put(operation, new OperationStats());
+
+        return stats;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram, long errors, double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long requests = histogram.getTotalCount();
+
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0.0 : (double) errors / requests);
+        summary.put("throughputPerSecond", requests / elapsedSeconds);
+
+        Map<String, Double> latency = new LinkedHashMap<>();
+        latency.put("mean", histogram.getMean() / 1000.0);
+
+        for (double percentile : PERCENTILES)
+            latency.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    histogram.getValueAtPercentile(percentile) / 1000.0);
+
+        latency.put("max", histogram.getMaxValue() / 1000.0);
+        summary.put("latencyMillis", latency);
+
+        return summary;
+    }
+
+    private static List<Map<String, Object>> distribution(Histogram histogram) {
+        List<Map<String, Object>> buckets = new ArrayList<>();
+
+        if (histogram.getTotalCount() == 0)
+            return buckets;
+
+        for (HistogramIterationValue value : histogram.percentiles(5)) {
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("valueMillis", value.getValueIteratedTo() / 1000.0);
+            bucket.put("percentile", value.getPercentileLevelIteratedTo());
+            bucket.put("totalCount", value.getTotalCountToThisValue());
+            buckets.add(bucket);
+        }
+
+        return buckets;
+    }
+
+    private static String summaryLine(String name, Histogram histogram, long errors, double elapsedSeconds) {
+        return String.format(Locale.ROOT, "%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / elapsedSeconds, histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0);
+    }
+
+    private static class OperationStats {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+}
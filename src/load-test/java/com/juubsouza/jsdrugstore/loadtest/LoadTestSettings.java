@@ -0,0 +1,219 @@
+package com.juubsouza.jsdrugstore.loadtest;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties. The traffic mix is a comma separated
+ * list of {@code operation=weight} pairs; operations left out of it are not sent. Limits on p99 latency use the
+ * same format with milliseconds, and the run fails when an operation exceeds its limit.
+ * <p>
+ * {@code loadtest.preset} picks defaults for a named scenario, and properties set explicitly still override them.
+ * {@value #NAME_LOOKUP_5M} seeds 5,000,000 customers and 50,000 sellers with about a million distinct generated
+ * last names, sends only customer and seller name lookups, and requires both to answer within 5 ms at p99.
+ */
+public class LoadTestSettings {
+
+    public static final String DEFAULT_MIX = "browse=20,product=15,search=15,product-name=5,customer-search=5,seller-search=2,"
+            + "history=10,history-page=5,addresses=8,checkout=15";
+
+    public static final String NAME_LOOKUP_5M = "name-lookup-5m";
+
+    private static final Map<String, Map<String, String>> PRESETS = Map.of(
+            NAME_LOOKUP_5M, Map.of(
+                    "loadtest.customers", "5000000",
+                    "loadtest.sellers", "50000",
+                    "loadtest.products", "1000",
+                    "loadtest.sales", "0",
+                    "loadtest.last-names", "1000000",
+                    "loadtest.mix", "customer-search=3,seller-search=1",
+                    "loadtest.max-p99-ms", "customer-search=5,seller-search=5"));
+
+    private final String preset;
+    private final int users;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int thinkTimeMillis;
+    private final int customers;
+    private final int sellers;
+    private final int products;
+    private final int sales;
+    private final int lastNames;
+    private final Path report;
+    private final Map<Operation, Integer> mix;
+    private final Map<Operation, Double> maxP99Millis;
+
+    private LoadTestSettings(String preset, int users, int warmupSeconds, int durationSeconds, int thinkTimeMillis, int customers,
+                             int sellers, int products, int sales, int lastNames, Path report, Map<Operation, Integer> mix,
+                             Map<Operation, Double> maxP99Millis) {
+        this.preset = preset;
+        this.users = users;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.customers = customers;
+        this.sellers = sellers;
+        this.products = products;
+        this.sales = sales;
+        this.lastNames = lastNames;
+        this.report = report;
+        this.mix = mix;
+        this.maxP99Millis = maxP99Millis;
+    }
+
+    public static LoadTestSettings fromSystemProperties() throws IllegalArgumentException {
+        String preset = System.getProperty("loadtest.preset", "").trim();
+
+        if (!preset.isEmpty() && !PRESETS.containsKey(preset))
+            throw new IllegalArgumentException("Unknown load test preset: " + preset);
+
+        Map<String, String> defaults = PRESETS.getOrDefault(preset, Map.of());
+
+        return new LoadTestSettings(
+                preset,
+                Integer.parseInt(property(defaults, "loadtest.users", "32")),
+                Integer.parseInt(property(defaults, "loadtest.warmup-seconds", "15")),
+                Integer.parseInt(property(defaults, "loadtest.duration-seconds", "60")),
+                Integer.parseInt(property(defaults, "loadtest.think-time-ms", "0")),
+                Integer.parseInt(property(defaults, "loadtest.customers", "2000")),
+                Integer.parseInt(property(defaults, "loadtest.sellers", "50")),
+                Integer.parseInt(property(defaults, "loadtest.products", "5000")),
+                Integer.parseInt(property(defaults, "loadtest.sales", "10000")),
+                Integer.parseInt(property(defaults, "loadtest.last-names", "0")),
+                Path.of(property(defaults, "loadtest.report", "target/load-test-report.json")),
+                parseMix(property(defaults, "loadtest.mix", DEFAULT_MIX)),
+                parseLimits(property(defaults, "loadtest.max-p99-ms", "")));
+    }
+
+    private static String property(Map<String, String> defaults, String name, String defaultValue) {
+        String value = System.getProperty(name, "").trim();
+        return !value.isEmpty() ? value : defaults.getOrDefault(name, defaultValue);
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) throws IllegalArgumentException {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Invalid traffic mix entry: " + entry);
+
+            int weight = Integer.parseInt(parts[1].trim());
+
+            if (weight < 0)
+                throw new IllegalArgumentException("Traffic mix weights cannot be negative: " + entry);
+
+            if (weight > 0)
+                weights.put(Operation.fromKey(parts[0].trim()), weight);
+        }
+
+        if (weights.isEmpty())
+            throw new IllegalArgumentException("Traffic mix must have at least one operation.");
+
+        return weights;
+    }
+
+    static Map<Operation, Double> parseLimits(String limits) throws IllegalArgumentException {
+        Map<Operation, Double> limitsMillis = new LinkedHashMap<>();
+
+        if (limits.isBlank())
+            return limitsMillis;
+
+        for (String entry : limits.split(",")) {
+            String[] parts = entry.trim().split("=");
+
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Invalid latency limit entry: " + entry);
+
+            double limit = Double.parseDouble(parts[1].trim());
+
+            if (limit <= 0)
+                throw new IllegalArgumentException("Latency limits must be positive: " + entry);
+
+            limitsMillis.put(Operation.fromKey(parts[0].trim()), limit);
+        }
+
+        return limitsMillis;
+    }
+
+    public String getPreset() {
+        return preset;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getThinkTimeMillis() {
+        return thinkTimeMillis;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getSellers() {
+        return sellers;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public int getSales() {
+        return sales;
+    }
+
+    /**
+     * Number of distinct generated last names, or 0 to draw names from a short fixed list.
+     */
+    public int getLastNames() {
+        return lastNames;
+    }
+
+    public Path getReport() {
+        return report;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public Map<Operation, Double> getMaxP99Millis() {
+        return maxP99Millis;
+    }
+
+    public Map<String, Object> toReport() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("preset", preset);
+        settings.put("users", users);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("thinkTimeMillis", thinkTimeMillis);
+        settings.put("customers", customers);
+        settings.put("sellers", sellers);
+        settings.put("products", products);
+        settings.put("sales", sales);
+        settings.put("lastNames", lastNames);
+
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.getKey(), weight));
+        settings.put("mix", weights);
+
+        Map<String, Double> limits = new LinkedHashMap<>();
+        maxP99Millis.forEach((operation, limit) -> limits.put(operation.getKey(), limit));
+        settings.put("maxP99Millis", limits);
+
+        return settings;
+    }
+}
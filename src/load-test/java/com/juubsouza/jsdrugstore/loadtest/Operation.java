@@ -0,0 +1,34 @@
+package com.juubsouza.jsdrugstore.loadtest;
+
+import java.util.Arrays;
+
+public enum Operation {
+
+    BROWSE("browse"),
+    PRODUCT("product"),
+    SEARCH("search"),
+    PRODUCT_NAME("product-name"),
+    CUSTOMER_SEARCH("customer-search"),
+    SELLER_SEARCH("seller-search"),
+    HISTORY("history"),
+    HISTORY_PAGE("history-page"),
+    ADDRESSES("addresses"),
+    CHECKOUT("checkout");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) throws IllegalArgumentException {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load test operation: " + key));
+    }
+}
@@ -0,0 +1,86 @@
+package com.juubsouza.jsdrugstore.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Picks operations according to the weighted traffic mix and builds the matching API request against ids and
+ * names that exist in the seeded dataset.
+ */
+public class TrafficGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LoadTestDataset dataset;
+    private final ObjectMapper objectMapper;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    public TrafficGenerator(String baseUrl, LoadTestDataset dataset, ObjectMapper objectMapper, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.objectMapper = objectMapper;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+
+        int total = 0;
+
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public Operation nextOperation(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i])
+                return operations[i];
+        }
+
+        return operations[operations.length - 1];
+    }
+
+    public HttpRequest newRequest(Operation operation, Random random) throws JsonProcessingException {
+        return switch (operation) {
+            case BROWSE -> get("/product/page?size=50&cursor=" + CursorPagination.encodeCursor(pick(dataset.getProductIds(), random) - 1));
+            case PRODUCT -> get("/product/by-id=" + pick(dataset.getProductIds(), random));
+            case SEARCH -> get("/product/search?limit=20&query=" + encode(pick(dataset.getProductQueries(), random).toLowerCase()));
+            case PRODUCT_NAME -> get("/product/by-name=" + encode(pick(dataset.getProductQueries(), random)));
+            case CUSTOMER_SEARCH -> get("/customer/by-name=" + encode(pick(dataset.getPersonQueries(), random)));
+            case SELLER_SEARCH -> get("/seller/by-name=" + encode(pick(dataset.getPersonQueries(), random)));
+            case HISTORY -> get("/sale/all-for-customer=" + pick(dataset.getCustomerIds(), random));
+            case HISTORY_PAGE -> get("/read/sale/page?size=20&customerId=" + pick(dataset.getCustomerIds(), random));
+            case ADDRESSES -> get("/address/all-for-customer=" + pick(dataset.getCustomerIds(), random));
+            case CHECKOUT -> HttpRequest.newBuilder(URI.create(baseUrl + "/sale/add"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(dataset.newSale(random))))
+                    .build();
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
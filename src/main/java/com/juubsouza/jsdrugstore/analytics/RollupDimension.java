@@ -0,0 +1,7 @@
+package com.juubsouza.jsdrugstore.analytics;
+
+public enum RollupDimension {
+    PRODUCT,
+    SELLER,
+    PAYMENT_METHOD
+}
@@ -0,0 +1,33 @@
+package com.juubsouza.jsdrugstore.analytics;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    HOUR(ChronoUnit.HOURS, 24 * 31),
+    DAY(ChronoUnit.DAYS, 366);
+
+    private final ChronoUnit unit;
+
+    private final int maxBuckets;
+
+    RollupGranularity(ChronoUnit unit, int maxBuckets) {
+        this.unit = unit;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * The largest number of buckets a single query may cover, which bounds its cost.
+     */
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(bucketOf(from), bucketOf(to));
+    }
+}
@@ -0,0 +1,43 @@
+package com.juubsouza.jsdrugstore.cache;
+
+import com.juubsouza.jsdrugstore.config.CacheConfig;
+import com.juubsouza.jsdrugstore.event.ProductChangedEvent;
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+
+@Component
+public class ProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public ProductCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        evict(event.getProductIds());
+    }
+
+    private void evict(Collection<Long> productIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+
+        if (cache == null)
+            return;
+
+        for (Long productId : productIds)
+            cache.evict(productId);
+    }
+}
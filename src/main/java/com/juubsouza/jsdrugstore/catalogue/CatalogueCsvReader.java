@@ -0,0 +1,240 @@
+package com.juubsouza.jsdrugstore.catalogue;
+
+import com.juubsouza.jsdrugstore.model.CatalogueImportRow;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Reads a catalogue feed as CSV one record at a time, so feeds of any size are never held in memory. The header
+ * names the columns in any order: {@code name}, {@code manufacturer} and {@code price} are required and
+ * {@code stock} is optional. Fields may be quoted, with {@code ""} for a quote inside a quoted field.
+ * <p>
+ * Rows are validated like products added through the API. Invalid rows are counted and skipped, and the reasons
+ * for the first {@code maxErrors} of them are kept for the import report. An empty stock leaves the stock of a
+ * product unchanged, or sets it to 0 if the product has none.
+ */
+public class CatalogueCsvReader implements Iterator<CatalogueImportRow> {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final int PRICE_SCALE = 2;
+
+    private final Reader reader;
+
+    private final String importId;
+
+    private final int maxErrors;
+
+    private final int nameColumn;
+
+    private final int manufacturerColumn;
+
+    private final int priceColumn;
+
+    private final int stockColumn;
+
+    @Getter
+    private final List<String> errors = new ArrayList<>();
+
+    @Getter
+    private long rowsRead;
+
+    @Getter
+    private long rowsRejected;
+
+    private long line = 1;
+
+    private CatalogueImportRow next;
+
+    private boolean finished;
+
+    public CatalogueCsvReader(Reader reader, String importId, int maxErrors) throws IOException {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader, 64 * 1024);
+        this.importId = importId;
+        this.maxErrors = maxErrors;
+
+        List<String> header = readRecord();
+
+        if (header == null)
+            throw new IllegalArgumentException("Catalogue feed is empty.");
+
+        Map<String, Integer> columns = new HashMap<>();
+
+        for (int i = 0; i < header.size(); i++)
+            columns.putIfAbsent(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+
+        nameColumn = requireColumn(columns, "name");
+        manufacturerColumn = requireColumn(columns, "manufacturer");
+        priceColumn = requireColumn(columns, "price");
+        stockColumn = columns.getOrDefault("stock", -1);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null && !finished)
+                readNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public CatalogueImportRow next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        CatalogueImportRow row = next;
+        next = null;
+
+        return row;
+    }
+
+    private void readNext() throws IOException {
+        long recordLine = line;
+        List<String> record = readRecord();
+
+        if (record == null) {
+            finished = true;
+            return;
+        }
+
+        if (record.size() == 1 && record.get(0).isBlank())
+            return;
+
+        rowsRead++;
+
+        try {
+            next = toRow(record, recordLine);
+        } catch (IllegalArgumentException e) {
+            rowsRejected++;
+
+            if (errors.size() < maxErrors)
+                errors.add("Line " + recordLine + ": " + e.getMessage());
+        }
+    }
+
+    private CatalogueImportRow toRow(List<String> record, long lineNumber) {
+        String name = field(record, nameColumn);
+        String manufacturer = field(record, manufacturerColumn);
+        String price = field(record, priceColumn);
+        String stock = stockColumn >= 0 ? field(record, stockColumn) : "";
+
+        if (name.isEmpty())
+            throw new IllegalArgumentException("Product name cannot be empty.");
+
+        if (name.length() > MAX_TEXT_LENGTH)
+            throw new IllegalArgumentException("Product name cannot be longer than " + MAX_TEXT_LENGTH + " characters.");
+
+        if (manufacturer.isEmpty())
+            throw new IllegalArgumentException("Product manufacturer cannot be empty.");
+
+        if (manufacturer.length() > MAX_TEXT_LENGTH)
+            throw new IllegalArgumentException("Product manufacturer cannot be longer than " + MAX_TEXT_LENGTH + " characters.");
+
+        return new CatalogueImportRow(importId, lineNumber, name, manufacturer, parsePrice(price),
+                stock.isEmpty() ? null : parseStock(stock), null, null, null);
+    }
+
+    private static BigDecimal parsePrice(String value) {
+        BigDecimal price;
+
+        try {
+            price = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Product price must be a number.");
+        }
+
+        if (price.compareTo(BigDecimal.ZERO) <= 0)
+            throw new IllegalArgumentException("Product price must be greater than 0.");
+
+        if (price.stripTrailingZeros().scale() > PRICE_SCALE)
+            throw new IllegalArgumentException("Product price cannot have more than " + PRICE_SCALE + " decimal places.");
+
+        return price.setScale(PRICE_SCALE);
+    }
+
+    private static Integer parseStock(String value) {
+        int stock;
+
+        try {
+            stock = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Product stock must be a whole number.");
+        }
+
+        if (stock < 0)
+            throw new IllegalArgumentException("Product stock must be greater than or equal to 0.");
+
+        return stock;
+    }
+
+    private static String field(List<String> record, int column) {
+        return column < record.size() ? record.get(column).trim() : "";
+    }
+
+    private static int requireColumn(Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+
+        if (index == null)
+            throw new IllegalArgumentException("Catalogue feed header must have a " + column + " column.");
+
+        return index;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+
+        if (c == -1)
+            return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+
+                if (c == '"') {
+                    c = reader.read();
+
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n')
+                    line++;
+
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+
+            c = reader.read();
+        }
+    }
+}
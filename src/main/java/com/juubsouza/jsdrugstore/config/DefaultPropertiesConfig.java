@@ -0,0 +1,9 @@
+package com.juubsouza.jsdrugstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@PropertySource("classpath:jsdrugstore-defaults.properties")
+public class DefaultPropertiesConfig {
+}
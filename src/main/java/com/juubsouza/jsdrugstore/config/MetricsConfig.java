@@ -0,0 +1,70 @@
+package com.juubsouza.jsdrugstore.config;
+
+import com.juubsouza.jsdrugstore.metrics.RepositoryMetricsTagsProvider;
+import com.juubsouza.jsdrugstore.metrics.ServiceMetricsInterceptor;
+import com.juubsouza.jsdrugstore.metrics.SqlStatementCounter;
+import com.juubsouza.jsdrugstore.metrics.SqlStatementMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Instruments the service and data layers with Micrometer. Public methods of {@code @Service} beans are timed by
+ * an advisor applied by the same auto-proxy creator as {@code @Transactional} and {@code @Cacheable}, ordered
+ * outermost so the timings include commits and cache hits. Repository timers come from Spring Boot's repository
+ * metrics, retagged to match, and Hibernate reports every statement it prepares to {@link SqlStatementCounter}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return AnnotatedElementUtils.hasAnnotation(targetClass, Service.class)
+                        && Modifier.isPublic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class;
+            }
+        }, new ServiceMetricsInterceptor(meterRegistry));
+
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public RepositoryTagsProvider repositoryMetricsTagsProvider() {
+        return new RepositoryMetricsTagsProvider();
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter(MeterRegistry meterRegistry) {
+        return new SqlStatementCounter(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public SqlStatementMetricsFilter sqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        return new SqlStatementMetricsFilter(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.juubsouza.jsdrugstore.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.Data;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query caches for the reference entities read on every sale: sellers, customers,
+ * addresses, products and prices. Each entity has its own Caffeine region, sized and expired through
+ * {@code jsdrugstore.second-level-cache.regions.<region>.*}. Regions are read-write, so changes made through
+ * JPA replace the cached entry when the transaction commits, and JPQL bulk updates evict the regions of the
+ * tables they touch. Writes made outside this application, including through other instances, are only picked
+ * up once the entry expires, so entries expire a fixed time after they were written rather than after their
+ * last read, which would keep a frequently read stale entry forever.
+ * <p>
+ * The caches are turned off with {@code spring.jpa.properties.hibernate.cache.use_second_level_cache=false} and
+ * {@code spring.jpa.properties.hibernate.cache.use_query_cache=false}. Region hit, miss and put counts are
+ * published as {@code hibernate.second.level.cache.*} metrics when Hibernate statistics are turned on with
+ * {@code spring.jpa.properties.hibernate.generate_statistics=true}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String REGIONS_PROPERTY = "jsdrugstore.second-level-cache.regions";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(Environment environment) {
+        Map<String, RegionSettings> regions = new LinkedHashMap<>();
+        regions.put(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, new RegionSettings());
+        regions.put(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new RegionSettings());
+        regions.putAll(Binder.get(environment)
+                .bind(REGIONS_PROPERTY, Bindable.mapOf(String.class, RegionSettings.class))
+                .orElse(Map.of()));
+
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("jsdrugstore:second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        regions.forEach((region, settings) -> cacheManager.createCache(region, settings.toConfiguration()));
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Data
+    public static class RegionSettings {
+
+        private Long maximumSize;
+
+        private Duration expireAfterWrite;
+
+        CaffeineConfiguration<Object, Object> toConfiguration() {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+
+            if (maximumSize != null)
+                configuration.setMaximumSize(OptionalLong.of(maximumSize));
+
+            if (expireAfterWrite != null)
+                configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+
+            return configuration;
+        }
+    }
+}
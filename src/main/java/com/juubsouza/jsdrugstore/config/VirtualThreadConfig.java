@@ -0,0 +1,101 @@
+package com.juubsouza.jsdrugstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs request handling on virtual threads when {@code jsdrugstore.threads.virtual.enabled=true}. Controllers
+ * call the services and JPA repositories on the request thread, so blocking JDBC calls park a virtual thread
+ * instead of holding one of Tomcat's 200 workers. MVC async work such as the product export uses the same
+ * executor.
+ * <p>
+ * Virtual threads need a Java 21 runtime. The project still compiles for 17, so the executor is looked up
+ * reflectively and startup fails when it is missing.
+ * <p>
+ * Without a worker pool the Hikari pool becomes what limits concurrent SQL Server work. Unless
+ * {@code spring.datasource.hikari.*} is set explicitly, the pool size and connection timeout are taken from
+ * {@code jsdrugstore.threads.virtual.hikari.*}, and the short timeout makes overload fail fast instead of
+ * queueing. Set {@code jsdrugstore.threads.virtual.trace-pinned} to {@code short} or {@code full} to log
+ * virtual threads pinned to their carrier while blocked, e.g. inside {@code synchronized} driver code.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jsdrugstore.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private final ExecutorService executor;
+
+    public VirtualThreadConfig(@Value("${jsdrugstore.threads.virtual.trace-pinned:}") String tracePinned) {
+        if (!tracePinned.isBlank())
+            System.setProperty("jdk.tracePinnedThreads", tracePinned);
+
+        this.executor = newVirtualThreadPerTaskExecutor();
+
+        logger.info("Handling requests on virtual threads");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(executor);
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadHikariPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource)
+                    configurePool(dataSource, environment);
+
+                return bean;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static void configurePool(HikariDataSource dataSource, Environment environment) {
+        if (!environment.containsProperty("spring.datasource.hikari.maximum-pool-size"))
+            dataSource.setMaximumPoolSize(environment.getProperty("jsdrugstore.threads.virtual.hikari.maximum-pool-size", Integer.class, 40));
+
+        if (!environment.containsProperty("spring.datasource.hikari.connection-timeout"))
+            dataSource.setConnectionTimeout(environment.getProperty("jsdrugstore.threads.virtual.hikari.connection-timeout", Long.class, 5000L));
+
+        logger.info("Hikari pool sized for virtual threads: maximumPoolSize={}, connectionTimeout={}ms",
+                dataSource.getMaximumPoolSize(), dataSource.getConnectionTimeout());
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("jsdrugstore.threads.virtual.enabled requires a Java 21 or newer runtime.", e);
+        }
+    }
+}
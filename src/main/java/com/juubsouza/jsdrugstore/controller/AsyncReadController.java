@@ -0,0 +1,155 @@
+package com.juubsouza.jsdrugstore.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import com.juubsouza.jsdrugstore.service.AsyncReadService;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
+import com.juubsouza.jsdrugstore.utils.ErrorResponse;
+import com.juubsouza.jsdrugstore.utils.ValidationResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/read")
+@Tag(name = "Async reads", description = "Non-blocking paged reads for mobile clients")
+public class AsyncReadController {
+
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private final AsyncReadService asyncReadService;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${jsdrugstore.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${jsdrugstore.pagination.max-size:500}")
+    private int maxPageSize;
+
+    @Autowired
+    public AsyncReadController(AsyncReadService asyncReadService, ObjectMapper objectMapper) {
+        this.asyncReadService = asyncReadService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/product/page")
+    @Operation(summary = "Find a page of products without holding a request thread", description = "Same result as /product/page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many pending reads",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public CompletableFuture<ResponseEntity<?>> findProductsPage(@Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+                                                                 @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+
+        return readPage(cursor, pageSize, () -> asyncReadService.findProductsPage(cursor, pageSize));
+    }
+
+    @GetMapping("/customer/page")
+    @Operation(summary = "Find a page of customers without holding a request thread", description = "Same result as /customer/page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many pending reads",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public CompletableFuture<ResponseEntity<?>> findCustomersPage(@Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+                                                                  @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+
+        return readPage(cursor, pageSize, () -> asyncReadService.findCustomersPage(cursor, pageSize));
+    }
+
+    @GetMapping("/sale/page")
+    @Operation(summary = "Find a page of a customer's sales without holding a request thread", description = "Returns the customer's sales with their products, ordered by id, starting after the provided cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many pending reads",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public CompletableFuture<ResponseEntity<?>> findSalesPageForCustomer(@Parameter(description = "Customer ID") @RequestParam Long customerId,
+                                                                         @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+                                                                         @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+
+        return readPage(cursor, pageSize, () -> asyncReadService.findSalesPageForCustomer(customerId, cursor, pageSize));
+    }
+
+    @GetMapping(value = "/product/export", produces = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Export all products without holding a request thread", description = "Streams every product as newline-delimited JSON, reading the next page only once the client has received the previous one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products streamed"),
+            @ApiResponse(responseCode = "503", description = "Too many pending reads",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public void exportProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamPages(request, response, cursor -> asyncReadService.findProductsPage(cursor, maxPageSize));
+    }
+
+    @GetMapping(value = "/customer/export", produces = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Export all customers without holding a request thread", description = "Streams every customer as newline-delimited JSON, reading the next page only once the client has received the previous one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Customers streamed"),
+            @ApiResponse(responseCode = "503", description = "Too many pending reads",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public void exportCustomers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamPages(request, response, cursor -> asyncReadService.findCustomersPage(cursor, maxPageSize));
+    }
+
+    private <T> void streamPages(HttpServletRequest request, HttpServletResponse response,
+                                 Function<String, CompletableFuture<? extends PageDTO<T>>> readPage) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON_MEDIA_TYPE);
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+
+        PagedNdjsonWriter<T> writer = new PagedNdjsonWriter<>(asyncContext, objectMapper, readPage);
+        asyncContext.addListener(writer);
+        response.getOutputStream().setWriteListener(writer);
+    }
+
+    private CompletableFuture<ResponseEntity<?>> readPage(String cursor, int pageSize, Supplier<CompletableFuture<? extends PageDTO<?>>> read) {
+        ValidationResponse validationResponse = CursorPagination.validatePageRequest(cursor, pageSize, maxPageSize);
+
+        if (validationResponse.getStatus() != HttpStatus.OK)
+            return CompletableFuture.completedFuture(ResponseEntity.status(validationResponse.getStatus())
+                    .body(new ErrorResponse(validationResponse.getStatus(), validationResponse.getMessage())));
+
+        try {
+            return read.get().thenApply(page -> ResponseEntity.status(HttpStatus.OK).body(page));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending reads, try again later.")));
+        }
+    }
+}
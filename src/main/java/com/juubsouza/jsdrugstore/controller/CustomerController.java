@@ -2,7 +2,9 @@ package com.juubsouza.jsdrugstore.controller;
 
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTO;
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.service.CustomerService;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
 import com.juubsouza.jsdrugstore.utils.EmailValidator;
 import com.juubsouza.jsdrugstore.utils.ErrorResponse;
 import com.juubsouza.jsdrugstore.utils.ValidationResponse;
@@ -14,6 +16,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +29,12 @@ import java.util.List;
 public class CustomerController {
     private final CustomerService customerService;
 
+    @Value("${jsdrugstore.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${jsdrugstore.pagination.max-size:500}")
+    private int maxPageSize;
+
     @Autowired
     public CustomerController(CustomerService customerService) {
         this.customerService = customerService;
@@ -37,6 +46,26 @@ public class CustomerController {
         return customerService.findAllCustomers();
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Find a page of customers", description = "Returns a page of customers ordered by id, starting after the provided cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> findCustomersPage(@Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+                                               @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+
+        ValidationResponse validationResponse = CursorPagination.validatePageRequest(cursor, pageSize, maxPageSize);
+
+        if (validationResponse.getStatus() != HttpStatus.OK)
+            return ResponseEntity.status(validationResponse.getStatus()).body(new ErrorResponse(validationResponse.getStatus(), validationResponse.getMessage()));
+
+        return ResponseEntity.status(HttpStatus.OK).body(customerService.findCustomersPage(cursor, pageSize));
+    }
+
     @GetMapping("/by-id={id}")
     @Operation(summary = "Find customer by id", description = "Returns a customer matching the provided id, if it exists")
     public CustomerDTO findCustomerById(@Parameter(description = "Customer ID") @PathVariable Long id) {
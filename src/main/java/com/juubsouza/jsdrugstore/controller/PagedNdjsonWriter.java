@@ -0,0 +1,146 @@
+package com.juubsouza.jsdrugstore.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import com.juubsouza.jsdrugstore.utils.ErrorResponse;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Writes keyset pages to an async response as newline-delimited JSON with servlet non-blocking I/O. The next page
+ * is only read once the output stream is ready again, so a slow client holds neither a request thread nor a
+ * database connection while its socket drains, and at most one serialised page is buffered per response. When the
+ * client goes away the response is completed as an async listener, so the container does not dispatch to the
+ * error page.
+ */
+class PagedNdjsonWriter<T> implements WriteListener, AsyncListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PagedNdjsonWriter.class);
+
+    private final AsyncContext asyncContext;
+
+    private final ServletOutputStream outputStream;
+
+    private final ObjectMapper objectMapper;
+
+    private final Function<String, CompletableFuture<? extends PageDTO<T>>> readPage;
+
+    private String cursor;
+
+    private boolean lastPageWritten;
+
+    PagedNdjsonWriter(AsyncContext asyncContext, ObjectMapper objectMapper,
+                      Function<String, CompletableFuture<? extends PageDTO<T>>> readPage) throws IOException {
+        this.asyncContext = asyncContext;
+        this.outputStream = asyncContext.getResponse().getOutputStream();
+        this.objectMapper = objectMapper;
+        this.readPage = readPage;
+    }
+
+    @Override
+    public synchronized void onWritePossible() {
+        readNextPage();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        logger.debug("Export stopped by a write error", error);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        asyncContext.complete();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        asyncContext.complete();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void readNextPage() {
+        if (lastPageWritten) {
+            asyncContext.complete();
+            return;
+        }
+
+        try {
+            readPage.apply(cursor).whenComplete((page, error) -> {
+                if (error != null)
+                    fail(error instanceof CompletionException ? error.getCause() : error);
+                else
+                    writePage(page);
+            });
+        } catch (RejectedExecutionException e) {
+            fail(e);
+        }
+    }
+
+    private synchronized void writePage(PageDTO<T> page) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+
+            for (T item : page.getItems()) {
+                objectMapper.writeValue(lines, item);
+                lines.write('\n');
+            }
+
+            outputStream.write(lines.toByteArray());
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+
+        cursor = page.getNextCursor();
+        lastPageWritten = cursor == null;
+
+        if (outputStream.isReady())
+            readNextPage();
+    }
+
+    private synchronized void fail(Throwable error) {
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+
+        if (response.isCommitted()) {
+            logger.warn("Stopped an export midway because a page could not be read or written", error);
+            asyncContext.complete();
+            return;
+        }
+
+        HttpStatus status = error instanceof RejectedExecutionException ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR;
+        String message = status == HttpStatus.SERVICE_UNAVAILABLE ? "Too many pending reads, try again later." : "Export failed.";
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(new ErrorResponse(status, message)));
+        } catch (IOException e) {
+            logger.debug("Could not write the export error", e);
+        }
+
+        asyncContext.complete();
+    }
+}
@@ -1,8 +1,16 @@
 package com.juubsouza.jsdrugstore.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juubsouza.jsdrugstore.model.dto.CatalogueImportResultDTO;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.ProductFacetsDTO;
+import com.juubsouza.jsdrugstore.service.CatalogueImportService;
 import com.juubsouza.jsdrugstore.service.ProductService;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
 import com.juubsouza.jsdrugstore.utils.ErrorResponse;
 import com.juubsouza.jsdrugstore.utils.ValidationResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,11 +21,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -25,11 +41,31 @@ import java.util.List;
 @Tag(name = "Product", description = "API operations related to products")
 public class ProductController {
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private static final String CSV_MEDIA_TYPE = "text/csv";
+
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final ProductService productService;
 
+    private final CatalogueImportService catalogueImportService;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${jsdrugstore.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${jsdrugstore.pagination.max-size:500}")
+    private int maxPageSize;
+
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CatalogueImportService catalogueImportService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.catalogueImportService = catalogueImportService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/all")
@@ -38,6 +74,73 @@ public class ProductController {
         return productService.findAllProducts();
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Find a page of products", description = "Returns a page of products ordered by id, starting after the provided cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> findProductsPage(@Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+                                              @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+
+        ValidationResponse validationResponse = CursorPagination.validatePageRequest(cursor, pageSize, maxPageSize);
+
+        if (validationResponse.getStatus() != HttpStatus.OK)
+            return ResponseEntity.status(validationResponse.getStatus()).body(new ErrorResponse(validationResponse.getStatus(), validationResponse.getMessage()));
+
+        return ResponseEntity.status(HttpStatus.OK).body(productService.findProductsPage(cursor, pageSize));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Export all products", description = "Streams every product as newline-delimited JSON, one product per line")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            try {
+                productService.exportProducts(product -> {
+                    try {
+                        objectMapper.writeValue(generator, product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeRaw('\n');
+            generator.close();
+        };
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE)).body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {CSV_MEDIA_TYPE, MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Import a product catalogue", description = "Adds or updates products, prices and stock from a CSV feed with name, manufacturer, price and optional stock columns. Products are matched by name, and invalid rows are skipped and reported")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalogue imported",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CatalogueImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<?> importProducts(InputStream feed) {
+        try {
+            CatalogueImportResultDTO result = catalogueImportService.importCatalogue(new InputStreamReader(feed, StandardCharsets.UTF_8));
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/by-id={id}")
     @Operation(summary = "Find product by id", description = "Returns a product matching the provided id, if it exists")
     public ProductDTO findProductById(@Parameter(description = "Product ID") @PathVariable Long id) {
@@ -50,6 +153,58 @@ public class ProductController {
         return productService.findProductsByName(name);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Returns products whose name or manufacturer match the query, best matches first. Tolerates prefixes and typos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search results",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> searchProducts(@Parameter(description = "Search query") @RequestParam String query,
+                                            @Parameter(description = "Maximum number of results") @RequestParam(required = false) Integer limit) {
+        int resultLimit = limit != null ? limit : DEFAULT_SEARCH_LIMIT;
+
+        if (query.isBlank())
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST, "Search query cannot be empty."));
+
+        if (resultLimit <= 0 || resultLimit > MAX_SEARCH_LIMIT)
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST,
+                    "Search limit must be between 1 and " + MAX_SEARCH_LIMIT + "."));
+
+        return ResponseEntity.status(HttpStatus.OK).body(productService.searchProducts(query, resultLimit));
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Filter products by facets", description = "Returns the products matching the selected manufacturers, price bands and stock state, " +
+            "with the number of matching products for every facet value")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Filtered products and facet counts",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductFacetsDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Filters not loaded yet",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> filterProducts(@Parameter(description = "Manufacturers, any of which may match") @RequestParam(required = false) List<String> manufacturer,
+                                            @Parameter(description = "Price bands such as 5-10 or 100+, any of which may match") @RequestParam(required = false) List<String> priceBand,
+                                            @Parameter(description = "Only products in stock (true) or out of stock (false)") @RequestParam(required = false) Boolean inStock,
+                                            @Parameter(description = "Maximum number of products returned") @RequestParam(required = false) Integer limit) {
+        int resultLimit = limit != null ? limit : DEFAULT_SEARCH_LIMIT;
+
+        if (resultLimit <= 0 || resultLimit > MAX_SEARCH_LIMIT)
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST,
+                    "Filter limit must be between 1 and " + MAX_SEARCH_LIMIT + "."));
+
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(productService.filterProducts(manufacturer, priceBand, inStock, resultLimit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+        }
+    }
+
     @PostMapping("/add")
     @Operation(summary = "Add a new product", description = "Adds a new product to the database")
     @ApiResponses(value = {
@@ -1,5 +1,8 @@
 package com.juubsouza.jsdrugstore.controller;
 
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.exception.InvalidStockHoldException;
+import com.juubsouza.jsdrugstore.model.dto.SaleBatchResultDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTOAdd;
 import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
@@ -18,6 +21,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -27,6 +32,8 @@ import java.util.Set;
 @Tag(name = "Sale", description = "API operations related to sales")
 public class SaleController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final SaleService saleService;
 
     @Autowired
@@ -41,6 +48,8 @@ public class SaleController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = SaleDTO.class))),
             @ApiResponse(responseCode = "400", description = "Bad request",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Insufficient stock, or the stock hold is invalid",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<?> addSale(@Parameter @RequestBody SaleDTOAdd saleDTOAdd) {
@@ -53,6 +62,71 @@ public class SaleController {
         try {
             SaleDTO addedSale = saleService.addSale(saleDTOAdd);
             return ResponseEntity.status(HttpStatus.CREATED).body(addedSale);
+        } catch (InsufficientStockException | InvalidStockHoldException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(HttpStatus.CONFLICT, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Add sales in bulk", description = "Adds a batch of sales to the database and returns a result for each of them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SaleBatchResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<?> addSales(@Parameter @RequestBody List<SaleDTOAdd> saleDTOAdds) {
+        if (saleDTOAdds == null || saleDTOAdds.isEmpty())
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST, "Batch must have at least one sale."));
+
+        if (saleDTOAdds.size() > MAX_BATCH_SIZE)
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST,
+                    "Batch cannot have more than " + MAX_BATCH_SIZE + " sales."));
+
+        SaleBatchResultDTO[] results = new SaleBatchResultDTO[saleDTOAdds.size()];
+        List<SaleDTOAdd> validSales = new ArrayList<>();
+        List<Integer> validSaleIndexes = new ArrayList<>();
+
+        for (int i = 0; i < saleDTOAdds.size(); i++) {
+            SaleDTOAdd saleDTOAdd = saleDTOAdds.get(i);
+
+            if (saleDTOAdd == null) {
+                results[i] = new SaleBatchResultDTO(i, false, "Sale cannot be null.", null);
+                continue;
+            }
+
+            ValidationResponse validationResponse = validateFields(saleDTOAdd.getPaymentMethod(), saleDTOAdd.getSaleProducts(),
+                    saleDTOAdd.getCustomerId(), saleDTOAdd.getSellerId());
+
+            if (validationResponse.getStatus() != HttpStatus.OK) {
+                results[i] = new SaleBatchResultDTO(i, false, validationResponse.getMessage(), null);
+                continue;
+            }
+
+            if (saleDTOAdd.getHoldId() != null) {
+                results[i] = new SaleBatchResultDTO(i, false, "Batch sales cannot confirm stock holds.", null);
+                continue;
+            }
+
+            validSales.add(saleDTOAdd);
+            validSaleIndexes.add(i);
+        }
+
+        try {
+            if (!validSales.isEmpty()) {
+                List<SaleBatchResultDTO> addedSales = saleService.addSales(validSales);
+
+                for (int i = 0; i < addedSales.size(); i++) {
+                    SaleBatchResultDTO result = addedSales.get(i);
+                    result.setIndex(validSaleIndexes.get(i));
+                    results[result.getIndex()] = result;
+                }
+            }
+
+            return ResponseEntity.status(HttpStatus.OK).body(Arrays.asList(results));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -0,0 +1,62 @@
+package com.juubsouza.jsdrugstore.controller;
+
+import com.juubsouza.jsdrugstore.analytics.RollupDimension;
+import com.juubsouza.jsdrugstore.analytics.RollupGranularity;
+import com.juubsouza.jsdrugstore.model.dto.SalesRollupDTO;
+import com.juubsouza.jsdrugstore.service.SalesAnalyticsService;
+import com.juubsouza.jsdrugstore.utils.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/analytics")
+@Tag(name = "Analytics", description = "API operations related to sales reports")
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    public SalesAnalyticsController(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    @GetMapping("/sales")
+    @Operation(summary = "Sales totals over time", description = "Returns units, revenue and number of sales per hour or day, for each product, seller or payment method that had sales in [from, to)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sales totals",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SalesRollupDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> findSalesRollups(@Parameter(description = "Group totals by product, seller or payment method") @RequestParam RollupDimension dimension,
+                                              @Parameter(description = "Bucket size") @RequestParam(required = false) RollupGranularity granularity,
+                                              @Parameter(description = "Start of the range, inclusive") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                              @Parameter(description = "End of the range, exclusive") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                              @Parameter(description = "Only return this product id, seller id or payment method") @RequestParam(required = false) String key) {
+        RollupGranularity bucketSize = granularity != null ? granularity : RollupGranularity.DAY;
+
+        if (!from.isBefore(to))
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST, "Range start must be before its end."));
+
+        if (bucketSize.bucketsBetween(from, to) > bucketSize.getMaxBuckets())
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST,
+                    "Range cannot cover more than " + bucketSize.getMaxBuckets() + " buckets of one " + bucketSize.name().toLowerCase() + "."));
+
+        return ResponseEntity.status(HttpStatus.OK).body(salesAnalyticsService.findRollups(dimension, bucketSize, from, to, key));
+    }
+}
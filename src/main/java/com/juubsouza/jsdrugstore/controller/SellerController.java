@@ -1,8 +1,10 @@
 package com.juubsouza.jsdrugstore.controller;
 
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTO;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTOAdd;
 import com.juubsouza.jsdrugstore.service.SellerService;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
 import com.juubsouza.jsdrugstore.utils.ErrorResponse;
 import com.juubsouza.jsdrugstore.utils.ValidationResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +30,12 @@ public class SellerController {
 
     private final SellerService sellerService;
 
+    @Value("${jsdrugstore.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${jsdrugstore.pagination.max-size:500}")
+    private int maxPageSize;
+
     @Autowired
     public SellerController(SellerService sellerService) {
         this.sellerService = sellerService;
@@ -62,6 +71,26 @@ public class SellerController {
         return sellerService.findAllSellers();
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Find a page of sellers", description = "Returns a page of sellers ordered by id, starting after the provided cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> findSellersPage(@Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+                                             @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+
+        ValidationResponse validationResponse = CursorPagination.validatePageRequest(cursor, pageSize, maxPageSize);
+
+        if (validationResponse.getStatus() != HttpStatus.OK)
+            return ResponseEntity.status(validationResponse.getStatus()).body(new ErrorResponse(validationResponse.getStatus(), validationResponse.getMessage()));
+
+        return ResponseEntity.status(HttpStatus.OK).body(sellerService.findSellersPage(cursor, pageSize));
+    }
+
     @GetMapping("/by-id={id}")
     @Operation(summary = "Find seller by id", description = "Returns a seller matching the provided id, if it exists")
     public SellerDTO findSellerById(@Parameter(description = "Seller ID") @PathVariable Long id) {
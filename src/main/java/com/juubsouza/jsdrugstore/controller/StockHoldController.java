@@ -0,0 +1,104 @@
+package com.juubsouza.jsdrugstore.controller;
+
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.StockHoldDTO;
+import com.juubsouza.jsdrugstore.model.dto.StockHoldDTOAdd;
+import com.juubsouza.jsdrugstore.service.StockHoldService;
+import com.juubsouza.jsdrugstore.utils.ErrorResponse;
+import com.juubsouza.jsdrugstore.utils.ValidationResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/stock-hold")
+@Tag(name = "Stock hold", description = "API operations related to holding stock during a checkout")
+public class StockHoldController {
+
+    private final StockHoldService stockHoldService;
+
+    @Autowired
+    public StockHoldController(StockHoldService stockHoldService) {
+        this.stockHoldService = stockHoldService;
+    }
+
+    @PostMapping("/reserve")
+    @Operation(summary = "Hold stock", description = "Takes the products out of stock until the hold is confirmed by adding a sale with its id, released, or expires")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Stock held",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StockHoldDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Insufficient stock",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<?> reserve(@Parameter @RequestBody StockHoldDTOAdd stockHoldDTOAdd) {
+        ValidationResponse validationResponse = validateProducts(stockHoldDTOAdd.getProducts());
+
+        if (validationResponse.getStatus() != HttpStatus.OK)
+            return ResponseEntity.status(validationResponse.getStatus()).body(new ErrorResponse(validationResponse.getStatus(), validationResponse.getMessage()));
+
+        try {
+            StockHoldDTO stockHold = stockHoldService.reserve(stockHoldDTOAdd.getProducts());
+            return ResponseEntity.status(HttpStatus.CREATED).body(stockHold);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(HttpStatus.CONFLICT, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @DeleteMapping("/release={id}")
+    @Operation(summary = "Release a stock hold", description = "Puts the held products back into stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Stock hold released"),
+            @ApiResponse(responseCode = "404", description = "Stock hold not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<?> release(@Parameter(description = "Stock hold ID") @PathVariable Long id) {
+        try {
+            stockHoldService.release(id);
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(HttpStatus.NOT_FOUND, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private ValidationResponse validateProducts(List<SaleProductDTOAdd> products) {
+        if (products == null || products.isEmpty())
+            return new ValidationResponse("Stock hold must have at least one product.", HttpStatus.BAD_REQUEST);
+
+        Set<Long> seenProductIds = new HashSet<>();
+
+        for (SaleProductDTOAdd product : products) {
+            if (product.getProductId() == null)
+                return new ValidationResponse("Stock hold product must have an ID.", HttpStatus.BAD_REQUEST);
+
+            if (!seenProductIds.add(product.getProductId()))
+                return new ValidationResponse("Stock hold product cannot be added more than once.", HttpStatus.BAD_REQUEST);
+
+            if (product.getQuantity() == null || product.getQuantity() <= 0)
+                return new ValidationResponse("Stock hold product quantity must be greater than 0.", HttpStatus.BAD_REQUEST);
+        }
+
+        return new ValidationResponse("Valid", HttpStatus.OK);
+    }
+}
@@ -0,0 +1,25 @@
+package com.juubsouza.jsdrugstore.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class SaleRecordedEvent {
+
+    private final LocalDateTime soldAt;
+
+    private final Long sellerId;
+
+    private final String paymentMethod;
+
+    private final BigDecimal total;
+
+    private final Map<Long, Integer> productUnits;
+
+    private final Map<Long, BigDecimal> productRevenue;
+}
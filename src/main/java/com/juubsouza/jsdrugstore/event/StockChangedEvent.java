@@ -0,0 +1,13 @@
+package com.juubsouza.jsdrugstore.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+
+    private final Collection<Long> productIds;
+}
@@ -0,0 +1,14 @@
+package com.juubsouza.jsdrugstore.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId) {
+        super("Insufficient stock for product " + productId + ".");
+        this.productId = productId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.juubsouza.jsdrugstore.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidStockHoldException extends RuntimeException {
+
+    private final Long holdId;
+
+    public InvalidStockHoldException(Long holdId, String message) {
+        super(message);
+        this.holdId = holdId;
+    }
+}
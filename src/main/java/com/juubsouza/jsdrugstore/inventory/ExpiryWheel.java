@@ -0,0 +1,97 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel of ids waiting for a deadline. Each slot covers one tick and holds its ids and deadline
+ * ticks in two growable primitive arrays, so an entry costs 16 bytes. Deadlines further away than one turn of
+ * the wheel simply stay in their slot until the wheel reaches them on a later turn.
+ * <p>
+ * {@link #advance(long)} returns everything due since the previous call in one array, so callers can expire
+ * in bulk. Entries cannot be cancelled; callers ignore ids that were already resolved some other way.
+ */
+public class ExpiryWheel {
+
+    private final long tickMillis;
+
+    private final long[][] ids;
+
+    private final long[][] deadlines;
+
+    private final int[] sizes;
+
+    private long lastTick;
+
+    public ExpiryWheel(int slots, long tickMillis, long nowMillis) {
+        int slotCount = Integer.highestOneBit(Math.max(2, slots) - 1) << 1;
+
+        this.tickMillis = tickMillis;
+        this.ids = new long[slotCount][];
+        this.deadlines = new long[slotCount][];
+        this.sizes = new int[slotCount];
+        this.lastTick = nowMillis / tickMillis;
+
+        for (int i = 0; i < slotCount; i++) {
+            ids[i] = new long[4];
+            deadlines[i] = new long[4];
+        }
+    }
+
+    public synchronized void schedule(long id, long deadlineMillis) {
+        long deadlineTick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, lastTick + 1);
+        int slot = (int) (deadlineTick & (sizes.length - 1));
+        int size = sizes[slot];
+
+        if (size == ids[slot].length) {
+            ids[slot] = Arrays.copyOf(ids[slot], size * 2);
+            deadlines[slot] = Arrays.copyOf(deadlines[slot], size * 2);
+        }
+
+        ids[slot][size] = id;
+        deadlines[slot][size] = deadlineTick;
+        sizes[slot] = size + 1;
+    }
+
+    public synchronized long[] advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+
+        if (nowTick <= lastTick)
+            return new long[0];
+
+        long ticks = Math.min(nowTick - lastTick, sizes.length);
+        long[] due = new long[16];
+        int dueCount = 0;
+
+        for (long tick = nowTick - ticks + 1; tick <= nowTick; tick++) {
+            int slot = (int) (tick & (sizes.length - 1));
+            int kept = 0;
+
+            for (int i = 0; i < sizes[slot]; i++) {
+                if (deadlines[slot][i] <= nowTick) {
+                    if (dueCount == due.length)
+                        due = Arrays.copyOf(due, dueCount * 2);
+
+                    due[dueCount++] = ids[slot][i];
+                } else {
+                    ids[slot][kept] = ids[slot][i];
+                    deadlines[slot][kept] = deadlines[slot][i];
+                    kept++;
+                }
+            }
+
+            sizes[slot] = kept;
+
+            if (kept < ids[slot].length / 4 && ids[slot].length > 4) {
+                ids[slot] = Arrays.copyOf(ids[slot], Math.max(4, kept * 2));
+                deadlines[slot] = Arrays.copyOf(deadlines[slot], Math.max(4, kept * 2));
+            }
+        }
+
+        lastTick = nowTick;
+        return Arrays.copyOf(due, dueCount);
+    }
+
+    public synchronized int size() {
+        return Arrays.stream(sizes).sum();
+    }
+}
@@ -0,0 +1,309 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of stock deltas, split into segment files. Records are queued by {@link #enqueue(LongLongMap)},
+ * which only numbers and encodes them, and made durable by {@link #awaitDurable(long)}. Callers waiting at the
+ * same time are served by one group commit: whichever holds the write lock writes every queued record and forces
+ * the file once, and the others find their record already durable when they get the lock.
+ * <p>
+ * A record is {@code [entry count][sequence][product id, delta]...[crc32]}. A record cut short by a crash
+ * fails its checksum and is ignored on replay, which is safe because it was never acknowledged. After a failed
+ * write or force nothing more is acknowledged, since the unwritten pages may already be lost, until the journal
+ * is reopened on restart; {@link #getFailure()} reports the error so the owner can stop taking changes.
+ * <p>
+ * Closed segments remember the sequence of their last record, so {@link #deleteSegmentsThrough(long)} only
+ * deletes segments whose records are all covered by a flush.
+ */
+class InventoryJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "inventory-";
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private FileChannel channel;
+
+    private long segmentNumber;
+
+    private long lastSequence;
+
+    private List<ByteBuffer> queuedRecords = new ArrayList<>();
+
+    private final Map<Long, Long> closedSegmentLastSequences = new TreeMap<>();
+
+    private volatile long durableSequence;
+
+    private volatile IOException failure;
+
+    InventoryJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    static class Record {
+
+        private final long sequence;
+
+        private final LongLongMap deltas;
+
+        Record(long sequence, LongLongMap deltas) {
+            this.sequence = sequence;
+            this.deltas = deltas;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        LongLongMap getDeltas() {
+            return deltas;
+        }
+    }
+
+    synchronized List<Record> readAll() throws IOException {
+        List<Record> records = new ArrayList<>();
+
+        for (Path segment : segments())
+            readSegment(segment, records);
+
+        return records;
+    }
+
+    /**
+     * Starts a new segment for appends, numbering records after {@code lastSequence}.
+     */
+    synchronized void open(long lastSequence) throws IOException {
+        Files.createDirectories(directory);
+
+        List<Path> segments = segments();
+        this.segmentNumber = segments.isEmpty() ? 0 : segmentNumberOf(segments.get(segments.size() - 1));
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.failure = null;
+        this.closedSegmentLastSequences.clear();
+
+        openNextSegment();
+    }
+
+    /**
+     * Queues a record and returns its sequence. The record is not durable until {@link #awaitDurable(long)}
+     * returns for that sequence or a later one.
+     */
+    synchronized long enqueue(LongLongMap deltas) {
+        long sequence = ++lastSequence;
+        queuedRecords.add(encode(sequence, deltas));
+        return sequence;
+    }
+
+    /**
+     * Returns the sequence of the last queued record.
+     */
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    IOException getFailure() {
+        return failure;
+    }
+
+    void awaitDurable(long sequence) throws IOException {
+        if (durableSequence >= sequence)
+            return;
+
+        writeLock.lock();
+        try {
+            if (durableSequence < sequence)
+                writeQueued();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    long append(LongLongMap deltas) throws IOException {
+        long sequence = enqueue(deltas);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Writes every queued record, closes the current segment and starts a new one. Returns the sequence of the
+     * last record in the closed segments, which is what a flush taken at this point covers.
+     */
+    long rotate() throws IOException {
+        writeLock.lock();
+        try {
+            writeQueued();
+
+            synchronized (this) {
+                closedSegmentLastSequences.put(segmentNumber, durableSequence);
+                openNextSegment();
+                return durableSequence;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    synchronized void deleteClosedSegments() throws IOException {
+        for (Path segment : segments()) {
+            if (segmentNumberOf(segment) < segmentNumber)
+                Files.deleteIfExists(segment);
+        }
+
+        closedSegmentLastSequences.clear();
+    }
+
+    /**
+     * Deletes the closed segments whose records all have a sequence up to {@code sequence}.
+     */
+    synchronized void deleteSegmentsThrough(long sequence) throws IOException {
+        for (Path segment : segments()) {
+            Long lastSegmentSequence = closedSegmentLastSequences.get(segmentNumberOf(segment));
+
+            if (lastSegmentSequence != null && lastSegmentSequence <= sequence) {
+                Files.deleteIfExists(segment);
+                closedSegmentLastSequences.remove(segmentNumberOf(segment));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (failure == null)
+                writeQueued();
+        } finally {
+            synchronized (this) {
+                if (channel != null)
+                    channel.close();
+            }
+
+            writeLock.unlock();
+        }
+    }
+
+    private void writeQueued() throws IOException {
+        if (failure != null)
+            throw new IOException("The inventory journal stopped accepting records after a failed write.", failure);
+
+        ByteBuffer[] batch;
+        long batchSequence;
+
+        synchronized (this) {
+            batch = queuedRecords.toArray(ByteBuffer[]::new);
+            batchSequence = lastSequence;
+            queuedRecords = new ArrayList<>();
+        }
+
+        if (batch.length == 0)
+            return;
+
+        try {
+            write(channel, batch);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+
+        durableSequence = batchSequence;
+    }
+
+    void write(FileChannel channel, ByteBuffer[] batch) throws IOException {
+        while (batch[batch.length - 1].hasRemaining())
+            channel.write(batch);
+
+        channel.force(false);
+    }
+
+    private static ByteBuffer encode(long sequence, LongLongMap deltas) {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + deltas.size() * 2 * Long.BYTES + Integer.BYTES);
+        buffer.putInt(deltas.size());
+        buffer.putLong(sequence);
+        deltas.forEach((productId, delta) -> {
+            buffer.putLong(productId);
+            buffer.putLong(delta);
+        });
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        return buffer;
+    }
+
+    private void openNextSegment() throws IOException {
+        if (channel != null)
+            channel.close();
+
+        segmentNumber++;
+        channel = FileChannel.open(directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory))
+            return new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentNumberOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void readSegment(Path segment, List<Record> records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+
+        while (buffer.remaining() >= Integer.BYTES + Long.BYTES) {
+            int start = buffer.position();
+            int entryCount = buffer.getInt();
+
+            if (entryCount < 0 || (long) entryCount * 2 * Long.BYTES + Long.BYTES + Integer.BYTES > buffer.remaining())
+                return;
+
+            int checkedLength = Integer.BYTES + Long.BYTES + entryCount * 2 * Long.BYTES;
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), start, checkedLength);
+
+            if (buffer.getInt(start + checkedLength) != (int) crc.getValue())
+                return;
+
+            long sequence = buffer.getLong();
+            LongLongMap deltas = new LongLongMap(entryCount);
+
+            for (int i = 0; i < entryCount; i++)
+                deltas.add(buffer.getLong(), buffer.getLong());
+
+            buffer.getInt();
+
+            records.add(new Record(sequence, deltas));
+        }
+    }
+}
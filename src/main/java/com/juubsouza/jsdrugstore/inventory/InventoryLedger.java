@@ -0,0 +1,609 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.model.InventoryCheckpoint;
+import com.juubsouza.jsdrugstore.model.Stock;
+import com.juubsouza.jsdrugstore.repository.InventoryCheckpointRepository;
+import com.juubsouza.jsdrugstore.repository.StockRepository;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps current stock levels in memory and makes them the source of truth for checkouts when
+ * {@code jsdrugstore.inventory.ledger.enabled=true}. Otherwise every method but {@link #isEnabled()} is unused
+ * and stock is decremented in the database as before.
+ * <p>
+ * Levels live in primitive maps split over lock stripes by product id. Levels not in memory yet are read from
+ * the stock table before any lock is taken. A reservation then locks the stripes of all its products in index
+ * order, so a multi-product sale is all-or-nothing and cannot deadlock another one. Under the locks a change is
+ * only applied to the levels and queued in the {@link InventoryJournal}; the journal is forced after the locks
+ * are released, and concurrent changes share one force. Journaled changes are also added to a per-stripe map of
+ * pending deltas. Every {@code flush-interval-ms} the pending deltas are swapped out under all stripe locks, with
+ * the journal sequence they cover; the journal is forced up to that sequence after the locks are released, and the
+ * deltas are written to the stock table in one transaction together with the sequence. On startup, journal
+ * records past that sequence are replayed into the stock table, so nothing acknowledged is lost.
+ * <p>
+ * If the journal cannot be written, the ledger stops: reservations, releases and level changes fail, nothing more
+ * is flushed, and {@link #getJournalFailure()} reports the error, which takes the health check down. A restart
+ * replays the journal and brings the stock table up to date.
+ * <p>
+ * A change made inside a transaction holds its quantities in memory and is only journaled when that transaction
+ * is about to commit. If it rolls back before then, the quantities are simply given back, so a crash before the
+ * commit replays nothing. If the commit itself fails after the record was written, a compensating record is
+ * journaled, and only a crash in that window leaves stock lower than it should be, never higher. The stock table
+ * lags the ledger by at most one flush interval. The ledger assumes it is the only writer of the stock table, so
+ * it must not be enabled on more than one instance at a time.
+ */
+@Component
+public class InventoryLedger implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLedger.class);
+
+    private static final Long CHECKPOINT_ID = 1L;
+
+    private final StockRepository stockRepository;
+
+    private final InventoryCheckpointRepository checkpointRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final Stripe[] stripes;
+
+    private final InventoryJournal journal;
+
+    private volatile boolean journalFailureLogged;
+
+    @Autowired
+    public InventoryLedger(StockRepository stockRepository, InventoryCheckpointRepository checkpointRepository,
+                           ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                           @Value("${jsdrugstore.inventory.ledger.enabled:false}") boolean enabled,
+                           @Value("${jsdrugstore.inventory.ledger.journal-dir:inventory-journal}") String journalDirectory,
+                           @Value("${jsdrugstore.inventory.ledger.stripes:64}") int stripeCount) {
+        this(stockRepository, checkpointRepository, eventPublisher, transactionManager, enabled,
+                new InventoryJournal(Path.of(journalDirectory)), stripeCount);
+    }
+
+    InventoryLedger(StockRepository stockRepository, InventoryCheckpointRepository checkpointRepository,
+                    ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager, boolean enabled,
+                    InventoryJournal journal, int stripeCount) {
+        this.stockRepository = stockRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.journal = journal;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i] = new Stripe();
+    }
+
+    private static class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final LongLongMap levels = new LongLongMap();
+
+        private LongLongMap pendingDeltas = new LongLongMap();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the error that stopped the journal, or null while it accepts records.
+     */
+    public IOException getJournalFailure() {
+        return journal.getFailure();
+    }
+
+    /**
+     * Returns the current level of a product, or null if it has no stock row.
+     */
+    public Long findLevel(Long productId) {
+        Stripe stripe = stripeFor(productId);
+
+        while (loadMissingLevels(new long[]{productId})) {
+            stripe.lock.lock();
+            try {
+                if (stripe.levels.containsKey(productId))
+                    return stripe.levels.get(productId, 0);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the level of a product if it is already in memory, without reading the stock table. The stock table
+     * is current for any product whose level is not in memory.
+     */
+    public Long findLoadedLevel(Long productId) {
+        Stripe stripe = stripeFor(productId);
+
+        stripe.lock.lock();
+        try {
+            return stripe.levels.containsKey(productId) ? stripe.levels.get(productId, 0) : null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the given quantities out of stock, or nothing at all if any product is short.
+     */
+    public void reserve(Map<Long, Integer> quantities) throws InsufficientStockException, EntityNotFoundException {
+        LongLongMap deltas = new LongLongMap(quantities.size());
+        quantities.forEach((productId, quantity) -> deltas.add(productId, -quantity));
+
+        apply(deltas, true);
+    }
+
+    /**
+     * Puts the given quantities back into stock.
+     */
+    public void release(Map<Long, Integer> quantities) throws EntityNotFoundException {
+        LongLongMap deltas = new LongLongMap(quantities.size());
+        quantities.forEach(deltas::add);
+
+        apply(deltas, false);
+    }
+
+    /**
+     * Sets a product's level, e.g. after a manual stock count. Recorded as the difference to the current level
+     * so it orders correctly with pending sales.
+     */
+    public void setLevel(Long productId, int level) throws EntityNotFoundException {
+        setLevels(Map.of(productId, level));
+    }
+
+    /**
+     * Sets the levels of several products, e.g. from a catalogue feed, as one journal record. Returns how many of
+     * them differed from their current level.
+     */
+    public int setLevels(Map<Long, Integer> levels) throws EntityNotFoundException {
+        checkJournal();
+
+        long[] productIds = levels.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        LongLongMap deltas = new LongLongMap(productIds.length);
+        boolean deferred = TransactionSynchronizationManager.isSynchronizationActive();
+        long[] changedProductIds;
+        long sequence;
+
+        List<Stripe> lockedStripes = lockLoadedStripesOf(productIds);
+        try {
+            for (long productId : productIds) {
+                long delta = levels.get(productId) - stripeFor(productId).levels.get(productId, 0);
+
+                if (delta != 0)
+                    deltas.add(productId, delta);
+            }
+
+            if (deltas.isEmpty())
+                return 0;
+
+            changedProductIds = sortedProductIdsOf(deltas);
+            sequence = change(changedProductIds, deltas, !deferred);
+        } finally {
+            unlock(lockedStripes);
+        }
+
+        completeChange(changedProductIds, deltas, deferred, sequence);
+
+        return changedProductIds.length;
+    }
+
+    public void evict(Long productId) {
+        Stripe stripe = stripeFor(productId);
+
+        stripe.lock.lock();
+        try {
+            stripe.levels.remove(productId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jsdrugstore.inventory.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled)
+            return;
+
+        if (journal.getFailure() != null) {
+            logJournalFailure(journal.getFailure());
+            return;
+        }
+
+        LongLongMap batch = new LongLongMap();
+        long coveredSequence;
+
+        lockAll();
+        try {
+            coveredSequence = journal.lastSequence();
+
+            for (Stripe stripe : stripes) {
+                stripe.pendingDeltas.forEach(batch::add);
+                stripe.pendingDeltas = new LongLongMap();
+            }
+        } finally {
+            unlockAll();
+        }
+
+        try {
+            journal.awaitDurable(coveredSequence);
+        } catch (IOException e) {
+            mergeBack(batch);
+            logJournalFailure(e);
+            return;
+        }
+
+        try {
+            if (!batch.isEmpty())
+                writeDeltas(batch, coveredSequence);
+        } catch (RuntimeException e) {
+            logger.warn("Could not flush {} stock deltas, will retry on the next flush", batch.size(), e);
+            mergeBack(batch);
+            return;
+        }
+
+        try {
+            journal.rotate();
+            journal.deleteSegmentsThrough(coveredSequence);
+        } catch (IOException e) {
+            logJournalFailure(e);
+        }
+
+        if (!batch.isEmpty()) {
+            List<Long> productIds = new ArrayList<>(batch.size());
+            batch.forEach((productId, delta) -> productIds.add(productId));
+            eventPublisher.publishEvent(new StockChangedEvent(productIds));
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled)
+            return;
+
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the inventory journal.", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (!enabled)
+            return;
+
+        flush();
+        journal.close();
+    }
+
+    private void recover() throws IOException {
+        long checkpoint = checkpointRepository.findById(CHECKPOINT_ID).map(InventoryCheckpoint::getLastSequence).orElse(0L);
+        long lastSequence = checkpoint;
+        LongLongMap unflushed = new LongLongMap();
+
+        for (InventoryJournal.Record record : journal.readAll()) {
+            lastSequence = Math.max(lastSequence, record.getSequence());
+
+            if (record.getSequence() > checkpoint)
+                record.getDeltas().forEach(unflushed::add);
+        }
+
+        if (!unflushed.isEmpty()) {
+            writeDeltas(unflushed, lastSequence);
+            logger.info("Replayed unflushed stock deltas for {} products from the inventory journal", unflushed.size());
+        }
+
+        journal.open(lastSequence);
+        journal.deleteClosedSegments();
+    }
+
+    private void apply(LongLongMap deltas, boolean checkAvailability) {
+        checkJournal();
+
+        long[] productIds = sortedProductIdsOf(deltas);
+        boolean deferred = TransactionSynchronizationManager.isSynchronizationActive();
+        long sequence;
+
+        List<Stripe> lockedStripes = lockLoadedStripesOf(productIds);
+        try {
+            if (checkAvailability) {
+                for (long productId : productIds) {
+                    if (stripeFor(productId).levels.get(productId, 0) + deltas.get(productId, 0) < 0)
+                        throw new InsufficientStockException(productId);
+                }
+            }
+
+            sequence = change(productIds, deltas, !deferred);
+        } finally {
+            unlock(lockedStripes);
+        }
+
+        completeChange(productIds, deltas, deferred, sequence);
+    }
+
+    /**
+     * Applies deltas to the levels of products whose stripes are locked. Journaled deltas are also queued in the
+     * journal and added to the pending deltas, and the record's sequence is returned; otherwise 0.
+     */
+    private long change(long[] productIds, LongLongMap deltas, boolean journaled) {
+        for (long productId : productIds) {
+            Stripe stripe = stripeFor(productId);
+            long delta = deltas.get(productId, 0);
+
+            if (stripe.levels.containsKey(productId))
+                stripe.levels.add(productId, delta);
+
+            if (journaled)
+                stripe.pendingDeltas.add(productId, delta);
+        }
+
+        return journaled ? journal.enqueue(deltas) : 0;
+    }
+
+    private void completeChange(long[] productIds, LongLongMap deltas, boolean deferred, long sequence) {
+        if (deferred)
+            journalOnCommit(productIds, deltas);
+        else
+            awaitJournal(productIds, deltas, sequence);
+    }
+
+    private void awaitJournal(long[] productIds, LongLongMap deltas, long sequence) {
+        try {
+            journal.awaitDurable(sequence);
+        } catch (IOException e) {
+            List<Stripe> lockedStripes = lockStripesOf(productIds);
+            try {
+                for (long productId : productIds) {
+                    Stripe stripe = stripeFor(productId);
+                    long delta = deltas.get(productId, 0);
+
+                    if (stripe.levels.containsKey(productId))
+                        stripe.levels.add(productId, -delta);
+
+                    stripe.pendingDeltas.add(productId, -delta);
+                }
+            } finally {
+                unlock(lockedStripes);
+            }
+
+            throw new UncheckedIOException("Could not write the inventory journal.", e);
+        }
+    }
+
+    private void journalOnCommit(long[] productIds, LongLongMap deltas) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean journaled;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                long sequence;
+
+                List<Stripe> lockedStripes = lockStripesOf(productIds);
+                try {
+                    for (long productId : productIds)
+                        stripeFor(productId).pendingDeltas.add(productId, deltas.get(productId, 0));
+
+                    sequence = journal.enqueue(deltas);
+                    journaled = true;
+                } finally {
+                    unlock(lockedStripes);
+                }
+
+                try {
+                    journal.awaitDurable(sequence);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not write the inventory journal.", e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED)
+                    return;
+
+                LongLongMap compensation = new LongLongMap(deltas.size());
+                deltas.forEach((productId, delta) -> compensation.add(productId, -delta));
+
+                long sequence;
+
+                List<Stripe> lockedStripes = lockStripesOf(productIds);
+                try {
+                    sequence = change(productIds, compensation, journaled);
+                } finally {
+                    unlock(lockedStripes);
+                }
+
+                if (journaled)
+                    awaitJournal(productIds, compensation, sequence);
+            }
+        });
+    }
+
+    /**
+     * Reads the levels of the given products that are not in memory yet, without holding any stripe lock.
+     * Returns false if any of them has no stock row.
+     */
+    private boolean loadMissingLevels(long[] productIds) {
+        List<Long> missing = new ArrayList<>();
+
+        for (long productId : productIds) {
+            Stripe stripe = stripeFor(productId);
+
+            stripe.lock.lock();
+            try {
+                if (!stripe.levels.containsKey(productId))
+                    missing.add(productId);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        if (missing.isEmpty())
+            return true;
+
+        int loaded = 0;
+
+        for (Stock stock : QueryChunks.fetchInChunks(missing, stockRepository::findAllByProductIdIn)) {
+            if (stock.getStock() == null)
+                continue;
+
+            long productId = stock.getProduct().getId();
+            Stripe stripe = stripeFor(productId);
+
+            stripe.lock.lock();
+            try {
+                if (!stripe.levels.containsKey(productId))
+                    stripe.levels.put(productId, stock.getStock());
+            } finally {
+                stripe.lock.unlock();
+            }
+
+            loaded++;
+        }
+
+        return loaded == missing.size();
+    }
+
+    /**
+     * Locks the stripes of the given products once all their levels are in memory, reading missing ones first.
+     * A level evicted between the read and the locks is read again.
+     */
+    private List<Stripe> lockLoadedStripesOf(long[] productIds) throws EntityNotFoundException {
+        while (true) {
+            if (!loadMissingLevels(productIds))
+                throw new EntityNotFoundException("Stock not found.");
+
+            List<Stripe> lockedStripes = lockStripesOf(productIds);
+            boolean allLoaded = true;
+
+            for (long productId : productIds)
+                allLoaded &= stripeFor(productId).levels.containsKey(productId);
+
+            if (allLoaded)
+                return lockedStripes;
+
+            unlock(lockedStripes);
+        }
+    }
+
+    private void writeDeltas(LongLongMap deltas, long coveredSequence) {
+        List<Long> productIds = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0)
+                productIds.add(productId);
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Stock> stocks = QueryChunks.fetchInChunks(productIds, stockRepository::findAllByProductIdIn);
+
+            for (Stock stock : stocks)
+                stock.setStock(Math.toIntExact(stock.getStock() + deltas.get(stock.getProduct().getId(), 0)));
+
+            stockRepository.saveAll(stocks);
+            checkpointRepository.save(new InventoryCheckpoint(CHECKPOINT_ID, coveredSequence));
+        });
+    }
+
+    private void checkJournal() {
+        IOException failure = journal.getFailure();
+
+        if (failure != null)
+            throw new UncheckedIOException("The inventory journal stopped accepting stock changes after a failed write.", failure);
+    }
+
+    private void logJournalFailure(IOException e) {
+        if (journalFailureLogged)
+            return;
+
+        journalFailureLogged = true;
+        logger.error("The inventory journal could not be written. Stock changes are rejected and no longer flushed " +
+                "until the application is restarted, which replays the journal.", e);
+    }
+
+    private void mergeBack(LongLongMap batch) {
+        lockAll();
+        try {
+            batch.forEach((productId, delta) -> stripeFor(productId).pendingDeltas.add(productId, delta));
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private List<Stripe> lockStripesOf(long[] productIds) {
+        int[] stripeIndexes = Arrays.stream(productIds).mapToInt(this::stripeIndexOf).distinct().sorted().toArray();
+        List<Stripe> locked = new ArrayList<>(stripeIndexes.length);
+
+        for (int stripeIndex : stripeIndexes) {
+            stripes[stripeIndex].lock.lock();
+            locked.add(stripes[stripeIndex]);
+        }
+
+        return locked;
+    }
+
+    private void unlock(List<Stripe> lockedStripes) {
+        for (int i = lockedStripes.size() - 1; i >= 0; i--)
+            lockedStripes.get(i).lock.unlock();
+    }
+
+    private void lockAll() {
+        for (Stripe stripe : stripes)
+            stripe.lock.lock();
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--)
+            stripes[i].lock.unlock();
+    }
+
+    private static long[] sortedProductIdsOf(LongLongMap deltas) {
+        long[] productIds = new long[deltas.size()];
+        int[] index = {0};
+        deltas.forEach((productId, delta) -> productIds[index[0]++] = productId);
+        Arrays.sort(productIds);
+
+        return productIds;
+    }
+
+    private Stripe stripeFor(long productId) {
+        return stripes[stripeIndexOf(productId)];
+    }
+
+    private int stripeIndexOf(long productId) {
+        long h = productId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Reports the application down once the {@link InventoryLedger} journal has failed, since checkouts are rejected
+ * from then on until a restart.
+ */
+@Component
+public class InventoryLedgerHealthIndicator implements HealthIndicator {
+
+    private final InventoryLedger inventoryLedger;
+
+    @Autowired
+    public InventoryLedgerHealthIndicator(InventoryLedger inventoryLedger) {
+        this.inventoryLedger = inventoryLedger;
+    }
+
+    @Override
+    public Health health() {
+        if (!inventoryLedger.isEnabled())
+            return Health.up().withDetail("enabled", false).build();
+
+        IOException failure = inventoryLedger.getJournalFailure();
+
+        if (failure != null)
+            return Health.down(failure).withDetail("enabled", true).build();
+
+        return Health.up().withDetail("enabled", true).build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long to long with linear probing, so stock levels are kept without boxing.
+ * Not thread-safe, callers guard each instance with a lock. {@link Long#MIN_VALUE} marks empty slots and
+ * cannot be used as a key.
+ */
+class LongLongMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+
+    private long[] values;
+
+    private int size;
+
+    private int resizeAt;
+
+    LongLongMap() {
+        this(16);
+    }
+
+    LongLongMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1);
+    }
+
+    interface Consumer {
+
+        void accept(long key, long value);
+    }
+
+    boolean containsKey(long key) {
+        return keys[slotOf(key)] != EMPTY;
+    }
+
+    long get(long key, long defaultValue) {
+        int slot = slotOf(key);
+        return keys[slot] == EMPTY ? defaultValue : values[slot];
+    }
+
+    void put(long key, long value) {
+        int slot = slotOf(key);
+
+        if (keys[slot] == EMPTY) {
+            insertAt(slot, key, value);
+            return;
+        }
+
+        values[slot] = value;
+    }
+
+    long add(long key, long delta) {
+        int slot = slotOf(key);
+
+        if (keys[slot] == EMPTY) {
+            insertAt(slot, key, delta);
+            return delta;
+        }
+
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    void remove(long key) {
+        int slot = slotOf(key);
+
+        if (keys[slot] == EMPTY)
+            return;
+
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void forEach(Consumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY)
+                consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    private void insertAt(int slot, long key, long value) {
+        if (key == EMPTY)
+            throw new IllegalArgumentException("Key " + key + " is reserved.");
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size > resizeAt)
+            rehash();
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+
+        while (keys[slot] != EMPTY && keys[slot] != key)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+
+        allocate(oldKeys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
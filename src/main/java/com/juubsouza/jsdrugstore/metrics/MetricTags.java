@@ -0,0 +1,23 @@
+package com.juubsouza.jsdrugstore.metrics;
+
+final class MetricTags {
+
+    static final String SUCCESS = "SUCCESS";
+
+    static final String ERROR = "ERROR";
+
+    static final String NONE = "none";
+
+    private MetricTags() {
+    }
+
+    static String entityOf(String typeName, String suffix) {
+        return typeName.endsWith(suffix) && typeName.length() > suffix.length()
+                ? typeName.substring(0, typeName.length() - suffix.length())
+                : typeName;
+    }
+
+    static String exceptionOf(Throwable error) {
+        return error == null ? NONE : error.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,39 @@
+package com.juubsouza.jsdrugstore.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+
+/**
+ * Tags Spring Data repository invocation timers the same way as {@link ServiceMetricsInterceptor} tags service
+ * calls: the repository, its domain entity, the operation and its outcome.
+ */
+public class RepositoryMetricsTagsProvider implements RepositoryTagsProvider {
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        Class<?> repository = invocation.getRepositoryInterface();
+        RepositoryMethodInvocationResult result = invocation.getResult();
+        Throwable error = result != null ? result.getError() : null;
+
+        return Tags.of(
+                "repository", repository.getSimpleName(),
+                "entity", entityOf(repository),
+                "operation", invocation.getMethod().getName(),
+                "outcome", result != null ? result.getState().name() : MetricTags.NONE,
+                "exception", MetricTags.exceptionOf(error));
+    }
+
+    private static String entityOf(Class<?> repository) {
+        Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(repository, Repository.class);
+
+        if (typeArguments != null && typeArguments[0] != null)
+            return typeArguments[0].getSimpleName();
+
+        return MetricTags.entityOf(repository.getSimpleName(), "Repository");
+    }
+}
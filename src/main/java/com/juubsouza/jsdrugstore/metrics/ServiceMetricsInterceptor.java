@@ -0,0 +1,72 @@
+package com.juubsouza.jsdrugstore.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Times service method calls as {@code jsdrugstore.service.invocations}, tagged with the service, the entity it
+ * manages, the operation and its outcome. Methods returning a {@link CompletionStage} are timed until the stage
+ * completes, so the asynchronous reads report how long the read took rather than how long it took to queue.
+ */
+public class ServiceMetricsInterceptor implements MethodInterceptor {
+
+    public static final String METRIC_NAME = "jsdrugstore.service.invocations";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ServiceMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+
+        if (registry == null)
+            return invocation.proceed();
+
+        Timer.Sample sample = Timer.start(registry);
+        Object result;
+
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            stop(registry, sample, invocation, e);
+            throw e;
+        }
+
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, error) -> stop(registry, sample, invocation, unwrap(error)));
+            return result;
+        }
+
+        stop(registry, sample, invocation, null);
+        return result;
+    }
+
+    private static void stop(MeterRegistry registry, Timer.Sample sample, MethodInvocation invocation, Throwable error) {
+        String service = ClassUtils.getUserClass(invocation.getThis().getClass()).getSimpleName();
+
+        sample.stop(Timer.builder(METRIC_NAME)
+                .description("Service method invocations")
+                .tags(Tags.of(
+                        "service", service,
+                        "entity", MetricTags.entityOf(service, "Service"),
+                        "operation", invocation.getMethod().getName(),
+                        "outcome", error == null ? MetricTags.SUCCESS : MetricTags.ERROR,
+                        "exception", MetricTags.exceptionOf(error)))
+                .register(registry));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
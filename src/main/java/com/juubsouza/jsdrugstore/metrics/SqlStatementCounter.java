@@ -0,0 +1,75 @@
+package com.juubsouza.jsdrugstore.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+
+/**
+ * Hibernate statement inspector that counts every SQL statement Hibernate prepares, as
+ * {@code jsdrugstore.sql.statements} tagged with the statement type, and also into a per-thread scope opened
+ * with {@link #begin()} and closed with {@link #end()}. A batched insert counts once per batch, which is how
+ * many round trips it costs.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    public static final String METRIC_NAME = "jsdrugstore.sql.statements";
+
+    private static final String[] TYPES = {"select", "insert", "update", "delete", "other"};
+
+    private static final ThreadLocal<int[]> scope = new ThreadLocal<>();
+
+    private final Counter[] counters = new Counter[TYPES.length];
+
+    public SqlStatementCounter(MeterRegistry meterRegistry) {
+        for (int i = 0; i < TYPES.length; i++)
+            counters[i] = Counter.builder(METRIC_NAME)
+                    .description("SQL statements prepared by Hibernate")
+                    .tag("type", TYPES[i])
+                    .register(meterRegistry);
+    }
+
+    public static void begin() {
+        scope.set(new int[1]);
+    }
+
+    /**
+     * Closes the current thread's scope and returns how many statements ran in it, or 0 without a scope.
+     */
+    public static int end() {
+        int[] statements = scope.get();
+        scope.remove();
+
+        return statements != null ? statements[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = scope.get();
+
+        if (statements != null)
+            statements[0]++;
+
+        counters[typeOf(sql)].increment();
+
+        return sql;
+    }
+
+    private static int typeOf(String sql) {
+        String statement = sql.stripLeading();
+        int end = 0;
+
+        while (end < statement.length() && Character.isLetter(statement.charAt(end)))
+            end++;
+
+        String keyword = statement.substring(0, end).toLowerCase(Locale.ROOT);
+
+        for (int i = 0; i < TYPES.length - 1; i++) {
+            if (TYPES[i].equals(keyword))
+                return i;
+        }
+
+        return TYPES.length - 1;
+    }
+}
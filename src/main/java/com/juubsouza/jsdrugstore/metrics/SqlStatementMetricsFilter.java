@@ -0,0 +1,52 @@
+package com.juubsouza.jsdrugstore.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran as {@code jsdrugstore.http.sql.statements}, tagged like
+ * {@code http.server.requests} with the method, URI template and status. Only statements run on the request
+ * thread are counted, so work handed to another thread, such as the {@code /read} endpoints and the product
+ * export, is not included.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "jsdrugstore.http.sql.statements";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.begin();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.end();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("SQL statements run while handling a request")
+                    .tags("method", request.getMethod(),
+                            "uri", uri != null ? uri.toString() : UNKNOWN_URI,
+                            "status", String.valueOf(response.getStatus()))
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
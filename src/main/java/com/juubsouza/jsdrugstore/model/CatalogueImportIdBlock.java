@@ -0,0 +1,50 @@
+package com.juubsouza.jsdrugstore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * A block of ids reserved from a sequence for the rows of a catalogue import. Each sequence value hands out as
+ * many ids as the sequence increment, the same way Hibernate's pooled-lo optimizer uses it, so block
+ * {@code blockNumber} covers the rows whose ordinal divided by the increment equals it. Blocks are deleted with
+ * the staged rows of their import.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(CatalogueImportIdBlock.Key.class)
+@Table(name = "catalogue_import_id_block")
+public class CatalogueImportIdBlock {
+
+    @Id
+    @Column(name = "import_id", length = 36)
+    private String importId;
+
+    @Id
+    @Column(name = "sequence_name", length = 30)
+    private String sequenceName;
+
+    @Id
+    @Column(name = "block_number")
+    private Long blockNumber;
+
+    @Column(name = "first_id")
+    private Long firstId;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+
+        private String importId;
+
+        private String sequenceName;
+
+        private Long blockNumber;
+    }
+}
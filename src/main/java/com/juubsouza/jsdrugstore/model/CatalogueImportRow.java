@@ -0,0 +1,58 @@
+package com.juubsouza.jsdrugstore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A product of a catalogue feed staged for import. Rows are keyed by the import they belong to and their line
+ * in the feed, and are deleted once the import is merged into the product, price and stock tables.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(CatalogueImportRow.Key.class)
+@Table(name = "catalogue_import_row", indexes = @Index(name = "ix_catalogue_import_row_name", columnList = "import_id, name"))
+public class CatalogueImportRow {
+
+    @Id
+    @Column(name = "import_id", length = 36)
+    private String importId;
+
+    @Id
+    @Column(name = "line_number")
+    private Long lineNumber;
+
+    private String name;
+
+    private String manufacturer;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal price;
+
+    private Integer stock;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "price_id")
+    private Long priceId;
+
+    @Column(name = "stock_id")
+    private Long stockId;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+
+        private String importId;
+
+        private Long lineNumber;
+    }
+}
@@ -9,10 +9,12 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "ix_customer_address_customer", columnList = "customer_id"))
 public class CustomerAddress {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_address_seq")
+    @SequenceGenerator(name = "customer_address_seq", allocationSize = 50)
     private Long id;
 
     private Boolean isShipping;
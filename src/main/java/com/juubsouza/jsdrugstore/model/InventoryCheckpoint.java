@@ -0,0 +1,19 @@
+package com.juubsouza.jsdrugstore.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class InventoryCheckpoint {
+
+    @Id
+    private Long id;
+
+    private Long lastSequence;
+}
@@ -14,7 +14,8 @@ import java.math.BigDecimal;
 public class Sale {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_seq")
+    @SequenceGenerator(name = "sale_seq", allocationSize = 50)
     private Long id;
 
     private String paymentMethod;
@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 public class SaleProduct {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_product_seq")
+    @SequenceGenerator(name = "sale_product_seq", allocationSize = 50)
     private Long id;
 
     private Integer quantity;
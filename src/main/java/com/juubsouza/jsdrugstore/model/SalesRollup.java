@@ -0,0 +1,46 @@
+package com.juubsouza.jsdrugstore.model;
+
+import com.juubsouza.jsdrugstore.analytics.RollupDimension;
+import com.juubsouza.jsdrugstore.analytics.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_sales_rollup_bucket",
+        columnNames = {"dimension", "granularity", "bucket_start", "dimension_key"}))
+public class SalesRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_rollup_seq")
+    @SequenceGenerator(name = "sales_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private RollupDimension dimension;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "dimension_key", length = 64)
+    private String dimensionKey;
+
+    private Long units;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    private Long baskets;
+}
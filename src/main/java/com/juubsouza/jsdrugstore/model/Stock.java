@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 public class Stock {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_seq")
+    @SequenceGenerator(name = "stock_seq", allocationSize = 50)
     private Long id;
 
     private Integer stock;
@@ -0,0 +1,22 @@
+package com.juubsouza.jsdrugstore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_hold_seq")
+    @SequenceGenerator(name = "stock_hold_seq", allocationSize = 50)
+    private Long id;
+
+    private LocalDateTime expiresAt;
+}
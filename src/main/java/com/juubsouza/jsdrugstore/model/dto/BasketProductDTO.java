@@ -0,0 +1,24 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "BasketProductDTO", description = "DTO for the price and stock of a product in a basket being sold")
+public class BasketProductDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+
+    @Schema(description = "Units in stock, or null when the product has no stock record")
+    private Integer stock;
+
+    @Schema(description = "Units of the product in the basket")
+    private Integer quantity;
+}
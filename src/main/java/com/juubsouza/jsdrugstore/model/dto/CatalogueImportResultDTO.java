@@ -0,0 +1,41 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "CatalogueImportResultDTO", description = "DTO for the outcome of a catalogue import")
+public class CatalogueImportResultDTO {
+
+    @Schema(description = "Data rows read from the feed, including rejected ones")
+    private long rowsRead;
+
+    private long rowsRejected;
+
+    @Schema(description = "Rows ignored because a later row has the same product name")
+    private long rowsDuplicated;
+
+    private long productsAdded;
+
+    @Schema(description = "Existing products whose manufacturer changed")
+    private long productsUpdated;
+
+    @Schema(description = "Prices added or changed")
+    private long pricesChanged;
+
+    @Schema(description = "Stock levels added or changed")
+    private long stocksChanged;
+
+    private long elapsedMillis;
+
+    private long rowsPerSecond;
+
+    @Schema(description = "Why rows were rejected, for the first rejected rows only")
+    private List<String> errors;
+}
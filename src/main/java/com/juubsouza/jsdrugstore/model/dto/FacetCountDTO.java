@@ -0,0 +1,15 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "FacetCountDTO", description = "DTO for the number of products with one facet value")
+public class FacetCountDTO {
+    private String value;
+    private long count;
+}
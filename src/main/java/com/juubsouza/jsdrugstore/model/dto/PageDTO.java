@@ -0,0 +1,19 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "PageDTO", description = "DTO for a page of results. Pass nextCursor back to fetch the following page, it is null on the last page.")
+public class PageDTO<T> {
+
+    private List<T> items;
+
+    private String nextCursor;
+}
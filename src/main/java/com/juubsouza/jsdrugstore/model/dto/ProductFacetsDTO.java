@@ -0,0 +1,30 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ProductFacetsDTO", description = "DTO for filtered products and facet counts")
+public class ProductFacetsDTO {
+
+    @Schema(description = "Number of products matching every filter")
+    private long total;
+
+    @Schema(description = "First matching products, ordered by id")
+    private List<ProductDTO> products;
+
+    @Schema(description = "Matching products per manufacturer, ignoring the manufacturer filter")
+    private List<FacetCountDTO> manufacturers;
+
+    @Schema(description = "Matching products per price band, ignoring the price band filter")
+    private List<FacetCountDTO> priceBands;
+
+    @Schema(description = "Matching products in and out of stock, ignoring the stock filter")
+    private List<FacetCountDTO> stock;
+}
@@ -0,0 +1,21 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "SaleBatchResultDTO", description = "DTO for the result of a single sale in a batch.")
+public class SaleBatchResultDTO {
+
+    private Integer index;
+
+    private boolean created;
+
+    private String message;
+
+    private SaleDTO sale;
+}
@@ -20,4 +20,7 @@ public class SaleDTOAdd {
     private Long customerId;
 
     private Long sellerId;
+
+    @Schema(description = "Stock hold to confirm. Its products must match saleProducts, which are then not checked against stock again.")
+    private Long holdId;
 }
@@ -1,5 +1,6 @@
 package com.juubsouza.jsdrugstore.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,4 +17,14 @@ public class SaleProductDTO {
     private Long productId;
 
     private String productName;
+
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Long saleId;
+
+    public SaleProductDTO(Integer quantity, Long productId, String productName) {
+        this.quantity = quantity;
+        this.productId = productId;
+        this.productName = productName;
+    }
 }
@@ -0,0 +1,28 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "SalesRollupDTO", description = "DTO for sales totals of one product, seller or payment method over one hour or day")
+public class SalesRollupDTO {
+
+    private LocalDateTime bucketStart;
+
+    @Schema(description = "Product id, seller id or payment method, depending on the dimension queried")
+    private String key;
+
+    private Long units;
+
+    private BigDecimal revenue;
+
+    @Schema(description = "Number of sales")
+    private Long baskets;
+}
@@ -0,0 +1,22 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "StockHoldDTO", description = "DTO for stock hold retrieval. Pass id as holdId when adding the sale to confirm it.")
+public class StockHoldDTO {
+
+    private Long id;
+
+    private LocalDateTime expiresAt;
+
+    private List<SaleProductDTOAdd> products;
+}
@@ -0,0 +1,17 @@
+package com.juubsouza.jsdrugstore.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "StockHoldDTOAdd", description = "DTO for holding stock during a checkout.")
+public class StockHoldDTOAdd {
+
+    private List<SaleProductDTOAdd> products;
+}
@@ -0,0 +1,144 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.model.CatalogueImportRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface CatalogueImportRowRepository extends JpaRepository<CatalogueImportRow, CatalogueImportRow.Key>, CatalogueStagingRepository {
+
+    /**
+     * Ids handed out by each value of the product, price and stock sequences. Must match the allocationSize of
+     * their {@code @SequenceGenerator}s.
+     */
+    int ID_BLOCK_SIZE = 50;
+
+    @Modifying
+    @Query(value = "DELETE FROM catalogue_import_row " +
+            "WHERE import_id = ?1 " +
+            "AND EXISTS (SELECT 1 FROM catalogue_import_row later " +
+            "WHERE later.import_id = catalogue_import_row.import_id " +
+            "AND later.name = catalogue_import_row.name " +
+            "AND later.line_number > catalogue_import_row.line_number)", nativeQuery = true)
+    int deleteDuplicateNames(String importId);
+
+    @Modifying
+    @Query(value = "UPDATE catalogue_import_row " +
+            "SET product_id = (SELECT MIN(p.id) FROM product p WHERE p.name = catalogue_import_row.name) " +
+            "WHERE import_id = ?1", nativeQuery = true)
+    int matchExistingProducts(String importId);
+
+    @Modifying
+    @Query(value = "INSERT INTO catalogue_import_id_block (import_id, sequence_name, block_number, first_id) " +
+            "SELECT ?1, 'product_seq', n.ordinal / " + ID_BLOCK_SIZE + ", NEXT VALUE FOR product_seq " +
+            "FROM (SELECT ROW_NUMBER() OVER (ORDER BY line_number) - 1 AS ordinal FROM catalogue_import_row " +
+            "WHERE import_id = ?1 AND product_id IS NULL) n " +
+            "WHERE n.ordinal % " + ID_BLOCK_SIZE + " = 0", nativeQuery = true)
+    int reserveProductIds(String importId);
+
+    @Modifying
+    @Query(value = "MERGE INTO catalogue_import_row AS t " +
+            "USING (SELECT n.line_number, b.first_id + n.ordinal % " + ID_BLOCK_SIZE + " AS id " +
+            "FROM (SELECT line_number, ROW_NUMBER() OVER (ORDER BY line_number) - 1 AS ordinal FROM catalogue_import_row " +
+            "WHERE import_id = ?1 AND product_id IS NULL) n " +
+            "JOIN catalogue_import_id_block b ON b.import_id = ?1 AND b.sequence_name = 'product_seq' " +
+            "AND b.block_number = n.ordinal / " + ID_BLOCK_SIZE + ") AS s " +
+            "ON t.import_id = ?1 AND t.line_number = s.line_number " +
+            "WHEN MATCHED THEN " +
+            "UPDATE SET product_id = s.id;", nativeQuery = true)
+    int assignNewProductIds(String importId);
+
+    @Modifying
+    @Query(value = "INSERT INTO catalogue_import_id_block (import_id, sequence_name, block_number, first_id) " +
+            "SELECT ?1, 'price_seq', n.ordinal / " + ID_BLOCK_SIZE + ", NEXT VALUE FOR price_seq " +
+            "FROM (SELECT ROW_NUMBER() OVER (ORDER BY r.line_number) - 1 AS ordinal FROM catalogue_import_row r " +
+            "WHERE r.import_id = ?1 AND NOT EXISTS (SELECT 1 FROM price p WHERE p.product_id = r.product_id)) n " +
+            "WHERE n.ordinal % " + ID_BLOCK_SIZE + " = 0", nativeQuery = true)
+    int reservePriceIds(String importId);
+
+    @Modifying
+    @Query(value = "MERGE INTO catalogue_import_row AS t " +
+            "USING (SELECT n.line_number, b.first_id + n.ordinal % " + ID_BLOCK_SIZE + " AS id " +
+            "FROM (SELECT r.line_number, ROW_NUMBER() OVER (ORDER BY r.line_number) - 1 AS ordinal FROM catalogue_import_row r " +
+            "WHERE r.import_id = ?1 AND NOT EXISTS (SELECT 1 FROM price p WHERE p.product_id = r.product_id)) n " +
+            "JOIN catalogue_import_id_block b ON b.import_id = ?1 AND b.sequence_name = 'price_seq' " +
+            "AND b.block_number = n.ordinal / " + ID_BLOCK_SIZE + ") AS s " +
+            "ON t.import_id = ?1 AND t.line_number = s.line_number " +
+            "WHEN MATCHED THEN " +
+            "UPDATE SET price_id = s.id;", nativeQuery = true)
+    int assignNewPriceIds(String importId);
+
+    @Modifying
+    @Query(value = "INSERT INTO catalogue_import_id_block (import_id, sequence_name, block_number, first_id) " +
+            "SELECT ?1, 'stock_seq', n.ordinal / " + ID_BLOCK_SIZE + ", NEXT VALUE FOR stock_seq " +
+            "FROM (SELECT ROW_NUMBER() OVER (ORDER BY r.line_number) - 1 AS ordinal FROM catalogue_import_row r " +
+            "WHERE r.import_id = ?1 AND NOT EXISTS (SELECT 1 FROM stock s WHERE s.product_id = r.product_id)) n " +
+            "WHERE n.ordinal % " + ID_BLOCK_SIZE + " = 0", nativeQuery = true)
+    int reserveStockIds(String importId);
+
+    @Modifying
+    @Query(value = "MERGE INTO catalogue_import_row AS t " +
+            "USING (SELECT n.line_number, b.first_id + n.ordinal % " + ID_BLOCK_SIZE + " AS id " +
+            "FROM (SELECT r.line_number, ROW_NUMBER() OVER (ORDER BY r.line_number) - 1 AS ordinal FROM catalogue_import_row r " +
+            "WHERE r.import_id = ?1 AND NOT EXISTS (SELECT 1 FROM stock s WHERE s.product_id = r.product_id)) n " +
+            "JOIN catalogue_import_id_block b ON b.import_id = ?1 AND b.sequence_name = 'stock_seq' " +
+            "AND b.block_number = n.ordinal / " + ID_BLOCK_SIZE + ") AS s " +
+            "ON t.import_id = ?1 AND t.line_number = s.line_number " +
+            "WHEN MATCHED THEN " +
+            "UPDATE SET stock_id = s.id;", nativeQuery = true)
+    int assignNewStockIds(String importId);
+
+    @Modifying
+    @Query(value = "MERGE INTO product AS p " +
+            "USING (SELECT product_id, name, manufacturer FROM catalogue_import_row WHERE import_id = ?1) AS r " +
+            "ON p.id = r.product_id " +
+            "WHEN MATCHED AND (p.manufacturer IS NULL OR p.manufacturer <> r.manufacturer) THEN " +
+            "UPDATE SET manufacturer = r.manufacturer " +
+            "WHEN NOT MATCHED THEN " +
+            "INSERT (id, name, manufacturer) VALUES (r.product_id, r.name, r.manufacturer);", nativeQuery = true)
+    int mergeProducts(String importId);
+
+    @Modifying
+    @Query(value = "MERGE INTO price AS t " +
+            "USING (SELECT product_id, price, price_id FROM catalogue_import_row WHERE import_id = ?1) AS r " +
+            "ON t.product_id = r.product_id " +
+            "WHEN MATCHED AND (t.price IS NULL OR t.price <> r.price) THEN " +
+            "UPDATE SET price = r.price " +
+            "WHEN NOT MATCHED THEN " +
+            "INSERT (id, price, product_id) VALUES (r.price_id, r.price, r.product_id);", nativeQuery = true)
+    int mergePrices(String importId);
+
+    @Modifying
+    @Query(value = "MERGE INTO stock AS t " +
+            "USING (SELECT r.product_id, r.stock_id, COALESCE(r.stock, 0) AS stock FROM catalogue_import_row r " +
+            "WHERE r.import_id = ?1 " +
+            "AND (r.stock IS NOT NULL OR NOT EXISTS (SELECT 1 FROM stock s WHERE s.product_id = r.product_id))) AS r " +
+            "ON t.product_id = r.product_id " +
+            "WHEN MATCHED AND (t.stock IS NULL OR t.stock <> r.stock) THEN " +
+            "UPDATE SET stock = r.stock " +
+            "WHEN NOT MATCHED THEN " +
+            "INSERT (id, stock, product_id) VALUES (r.stock_id, r.stock, r.product_id);", nativeQuery = true)
+    int mergeStocks(String importId);
+
+    @Modifying
+    @Query(value = "INSERT INTO stock (id, stock, product_id) " +
+            "SELECT r.stock_id, COALESCE(r.stock, 0), r.product_id FROM catalogue_import_row r " +
+            "WHERE r.import_id = ?1 AND NOT EXISTS (SELECT 1 FROM stock s WHERE s.product_id = r.product_id)", nativeQuery = true)
+    int insertMissingStocks(String importId);
+
+    @Query("SELECT r FROM CatalogueImportRow r WHERE r.importId = ?1 AND r.stockId IS NULL AND r.stock IS NOT NULL")
+    List<CatalogueImportRow> findStockedRowsOfStockedProducts(String importId);
+
+    @Query("SELECT r.productId FROM CatalogueImportRow r WHERE r.importId = ?1")
+    List<Long> findProductIdsByImportId(String importId);
+
+    @Modifying
+    @Query("DELETE FROM CatalogueImportRow r WHERE r.importId = ?1")
+    int deleteByImportId(String importId);
+
+    @Modifying
+    @Query("DELETE FROM CatalogueImportIdBlock b WHERE b.importId = ?1")
+    int deleteIdBlocksByImportId(String importId);
+}
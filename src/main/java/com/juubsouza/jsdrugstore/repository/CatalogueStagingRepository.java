@@ -0,0 +1,14 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.model.CatalogueImportRow;
+
+import java.util.Iterator;
+
+public interface CatalogueStagingRepository {
+
+    /**
+     * Writes the rows to the staging table as they are iterated, outside of any transaction, and returns how many
+     * were written.
+     */
+    long stage(Iterator<CatalogueImportRow> rows);
+}
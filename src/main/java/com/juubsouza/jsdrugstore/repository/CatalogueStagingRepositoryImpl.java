@@ -0,0 +1,167 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.model.CatalogueImportRow;
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Stages catalogue feed rows in {@code catalogue_import_row} while the feed is still being read. On SQL Server
+ * the rows are streamed through {@link SQLServerBulkCopy} as one bulk load, committed every
+ * {@value #BULK_COPY_BATCH_SIZE} rows, instead of one insert per row. Other databases, such as the H2 database
+ * used by the tests, get JDBC batches of {@value #BATCH_SIZE} inserts.
+ */
+public class CatalogueStagingRepositoryImpl implements CatalogueStagingRepository {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final int BULK_COPY_BATCH_SIZE = 10_000;
+
+    private static final String TABLE = "catalogue_import_row";
+
+    private static final String[] COLUMNS = {"import_id", "line_number", "name", "manufacturer", "price", "stock", "product_id"};
+
+    private static final int[] TYPES = {Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.INTEGER, Types.BIGINT};
+
+    private static final int[] PRECISIONS = {36, 0, 255, 255, 38, 0, 0};
+
+    private static final int[] SCALES = {0, 0, 0, 0, 2, 0, 0};
+
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE + " (" + String.join(", ", COLUMNS) + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CatalogueStagingRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long stage(Iterator<CatalogueImportRow> rows) {
+        Long staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> connection.isWrapperFor(SQLServerConnection.class)
+                ? bulkCopy(connection.unwrap(SQLServerConnection.class), rows)
+                : insertInBatches(connection, rows));
+
+        return staged != null ? staged : 0;
+    }
+
+    private static long bulkCopy(SQLServerConnection connection, Iterator<CatalogueImportRow> rows) throws SQLException {
+        StagingBulkData data = new StagingBulkData(rows);
+
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection)) {
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setBatchSize(BULK_COPY_BATCH_SIZE);
+            options.setBulkCopyTimeout(0);
+
+            bulkCopy.setBulkCopyOptions(options);
+            bulkCopy.setDestinationTableName(TABLE);
+
+            for (int column = 1; column <= COLUMNS.length; column++)
+                bulkCopy.addColumnMapping(column, COLUMNS[column - 1]);
+
+            bulkCopy.writeToServer(data);
+        }
+
+        return data.rowCount;
+    }
+
+    private static long insertInBatches(Connection connection, Iterator<CatalogueImportRow> rows) throws SQLException {
+        long rowCount = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            while (rows.hasNext()) {
+                Object[] values = toValues(rows.next());
+
+                for (int column = 0; column < values.length; column++)
+                    statement.setObject(column + 1, values[column], TYPES[column]);
+
+                statement.addBatch();
+
+                if (++rowCount % BATCH_SIZE == 0)
+                    statement.executeBatch();
+            }
+
+            if (rowCount % BATCH_SIZE != 0)
+                statement.executeBatch();
+        }
+
+        return rowCount;
+    }
+
+    private static Object[] toValues(CatalogueImportRow row) {
+        return new Object[]{row.getImportId(), row.getLineNumber(), row.getName(), row.getManufacturer(), row.getPrice(),
+                row.getStock(), row.getProductId()};
+    }
+
+    private static class StagingBulkData implements ISQLServerBulkData {
+
+        private final transient Iterator<CatalogueImportRow> rows;
+
+        private transient CatalogueImportRow current;
+
+        private long rowCount;
+
+        private StagingBulkData(Iterator<CatalogueImportRow> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            Set<Integer> ordinals = new LinkedHashSet<>();
+
+            for (int column = 1; column <= COLUMNS.length; column++)
+                ordinals.add(column);
+
+            return ordinals;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column - 1];
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return TYPES[column - 1];
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return PRECISIONS[column - 1];
+        }
+
+        @Override
+        public int getScale(int column) {
+            return SCALES[column - 1];
+        }
+
+        @Override
+        public Object[] getRowData() {
+            return toValues(current);
+        }
+
+        @Override
+        public boolean next() {
+            if (!rows.hasNext())
+                return false;
+
+            current = rows.next();
+            rowCount++;
+
+            return true;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.juubsouza.jsdrugstore.repository;
 
 import com.juubsouza.jsdrugstore.model.CustomerAddress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +13,9 @@ public interface CustomerAddressRepository extends JpaRepository<CustomerAddress
     List<CustomerAddress> findAllByCustomerId(Long id);
 
     Optional<CustomerAddress> findByAddressId(Long addressId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE CustomerAddress ca SET ca.isShipping = CASE WHEN ca.address.id = ?2 THEN true ELSE false END " +
+            "WHERE ca.customer.id = ?1 AND (ca.isShipping = true OR ca.address.id = ?2)")
+    int setShippingAddress(Long customerId, Long addressId);
+}
@@ -2,16 +2,28 @@ package com.juubsouza.jsdrugstore.repository;
 
 import com.juubsouza.jsdrugstore.model.Customer;
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTO;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     boolean existsByEmail(String email);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Customer c WHERE c.id = ?1")
+    Optional<Customer> findByIdForUpdate(Long id);
+
     @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.CustomerDTO(c.id, c.firstName, c.lastName, c.email) FROM Customer c")
     List<CustomerDTO> findAllDTOs();
 
@@ -22,4 +34,25 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.CustomerDTO(c.id, c.firstName, c.lastName, c.email) FROM Customer c " +
             "WHERE c.firstName LIKE %?1% OR c.lastName LIKE %?1%")
     List<CustomerDTO> findDTOsByFirstOrLastName(String name);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.CustomerDTO(c.id, c.firstName, c.lastName, c.email) FROM Customer c " +
+            "WHERE c.id > ?1 " +
+            "ORDER BY c.id")
+    List<CustomerDTO> findDTOsAfterId(Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.CustomerDTO(c.id, c.firstName, c.lastName, c.email) FROM Customer c " +
+            "WHERE c.id IN ?1")
+    List<CustomerDTO> findDTOsByIdIn(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.CustomerDTO(c.id, c.firstName, c.lastName, c.email) FROM Customer c " +
+            "ORDER BY c.id")
+    Stream<CustomerDTO> streamAllDTOs();
+
+    @Query("SELECT c.email FROM Customer c WHERE c.id IN ?1")
+    List<String> findEmailsByIdIn(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.email FROM Customer c")
+    Stream<String> streamAllEmails();
 }
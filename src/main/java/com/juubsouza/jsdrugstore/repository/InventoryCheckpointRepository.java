@@ -0,0 +1,9 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.model.InventoryCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryCheckpointRepository extends JpaRepository<InventoryCheckpoint, Long> {
+}
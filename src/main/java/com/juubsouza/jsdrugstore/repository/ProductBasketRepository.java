@@ -0,0 +1,15 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.model.dto.BasketProductDTO;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductBasketRepository {
+
+    /**
+     * Returns the name, price and stock of every product in the basket, keyed by product id to the quantity
+     * being sold. Products that do not exist are left out.
+     */
+    List<BasketProductDTO> findBasket(Map<Long, Integer> quantities);
+}
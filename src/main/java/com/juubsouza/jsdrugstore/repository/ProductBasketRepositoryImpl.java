@@ -0,0 +1,97 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.model.dto.BasketProductDTO;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerDataTable;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a basket with one statement whatever its size. On SQL Server the product ids and quantities are sent as a
+ * single {@code dbo.product_quantity_list} table-valued parameter, so every basket shares one statement text and
+ * one cached plan, and large orders never reach the 2,100 parameter limit. The table type is created by
+ * {@code db/sqlserver/product-quantity-list-type.sql}.
+ * <p>
+ * Other databases, such as the H2 database used by the tests, and SQL Server with
+ * {@code jsdrugstore.basket-lookup.table-valued-parameter=false}, get {@code IN} lists of at most
+ * {@link QueryChunks#MAX_IN_PARAMETERS} ids instead.
+ */
+public class ProductBasketRepositoryImpl implements ProductBasketRepository {
+
+    static final String TABLE_TYPE = "dbo.product_quantity_list";
+
+    private static final String TABLE_VALUED_PARAMETER_SQL = "SELECT b.product_id, p.name, pr.price, s.stock, b.quantity " +
+            "FROM ? b " +
+            "JOIN product p ON p.id = b.product_id " +
+            "LEFT JOIN price pr ON pr.product_id = p.id " +
+            "LEFT JOIN stock s ON s.product_id = p.id";
+
+    private static final String IN_LIST_SQL = "SELECT p.id, p.name, pr.price, s.stock " +
+            "FROM product p " +
+            "LEFT JOIN price pr ON pr.product_id = p.id " +
+            "LEFT JOIN stock s ON s.product_id = p.id " +
+            "WHERE p.id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final boolean tableValuedParameterEnabled;
+
+    private volatile Boolean sqlServer;
+
+    @Autowired
+    public ProductBasketRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                                       @Value("${jsdrugstore.basket-lookup.table-valued-parameter:true}") boolean tableValuedParameterEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableValuedParameterEnabled = tableValuedParameterEnabled;
+    }
+
+    @Override
+    public List<BasketProductDTO> findBasket(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty())
+            return new ArrayList<>();
+
+        if (tableValuedParameterEnabled && isSqlServer())
+            return jdbcTemplate.getJdbcTemplate().query(TABLE_VALUED_PARAMETER_SQL,
+                    statement -> statement.unwrap(SQLServerPreparedStatement.class).setStructured(1, TABLE_TYPE, toDataTable(quantities)),
+                    (resultSet, rowNum) -> toBasketProduct(resultSet, resultSet.getInt(5)));
+
+        return QueryChunks.fetchInChunks(quantities.keySet(), ids -> jdbcTemplate.query(IN_LIST_SQL, Map.of("ids", ids),
+                (resultSet, rowNum) -> toBasketProduct(resultSet, quantities.get(resultSet.getLong(1)))));
+    }
+
+    static SQLServerDataTable toDataTable(Map<Long, Integer> quantities) throws SQLServerException {
+        SQLServerDataTable table = new SQLServerDataTable();
+        table.addColumnMetadata("product_id", Types.BIGINT);
+        table.addColumnMetadata("quantity", Types.INTEGER);
+
+        for (Map.Entry<Long, Integer> quantity : quantities.entrySet())
+            table.addRow(quantity.getKey(), quantity.getValue());
+
+        return table;
+    }
+
+    private boolean isSqlServer() {
+        if (sqlServer == null)
+            sqlServer = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection ->
+                    connection.isWrapperFor(SQLServerConnection.class));
+
+        return sqlServer;
+    }
+
+    private static BasketProductDTO toBasketProduct(ResultSet resultSet, Integer quantity) throws SQLException {
+        return new BasketProductDTO(resultSet.getLong(1), resultSet.getString(2), resultSet.getBigDecimal(3),
+                resultSet.getObject(4, Integer.class), quantity);
+    }
+}
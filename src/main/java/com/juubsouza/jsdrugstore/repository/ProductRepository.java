@@ -2,16 +2,22 @@ package com.juubsouza.jsdrugstore.repository;
 
 import com.juubsouza.jsdrugstore.model.Product;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductBasketRepository {
 
     boolean existsByName(String name);
 
@@ -29,5 +35,27 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             "WHERE p.name LIKE %?1%")
     List<ProductDTO> findDTOsByName(String name);
 
-    List<Product> findByIdIn(List<Long> productIds);
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.ProductDTO(p.id, p.name, p.manufacturer, p.price.price, p.stock.stock)" +
+            "FROM Product p " +
+            "WHERE p.id IN ?1")
+    List<ProductDTO> findDTOsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.ProductDTO(p.id, p.name, p.manufacturer, p.price.price, p.stock.stock) " +
+            "FROM Product p " +
+            "WHERE p.id > ?1 " +
+            "ORDER BY p.id")
+    List<ProductDTO> findDTOsAfterId(Long lastId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.ProductDTO(p.id, p.name, p.manufacturer, p.price.price, p.stock.stock) " +
+            "FROM Product p " +
+            "ORDER BY p.id")
+    Stream<ProductDTO> streamAllDTOs();
+
+    @Query("SELECT p.name FROM Product p WHERE p.id IN ?1")
+    List<String> findNamesByIdIn(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.name FROM Product p")
+    Stream<String> streamAllNames();
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +15,12 @@ public interface SaleProductRepository extends JpaRepository<SaleProduct, Long>
     @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SaleProductDTO(sp.quantity, sp.product.id, sp.product.name) " +
             "FROM SaleProduct sp WHERE sp.sale.id = ?1")
     List<SaleProductDTO> findAllDTOsBySaleId(Long id);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SaleProductDTO(sp.quantity, sp.product.id, sp.product.name, sp.sale.id) " +
+            "FROM SaleProduct sp WHERE sp.sale.customer.id = ?1")
+    List<SaleProductDTO> findAllDTOsByCustomerId(Long id);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SaleProductDTO(sp.quantity, sp.product.id, sp.product.name, sp.sale.id) " +
+            "FROM SaleProduct sp WHERE sp.sale.id IN ?1")
+    List<SaleProductDTO> findAllDTOsBySaleIdIn(Collection<Long> saleIds);
 }
\ No newline at end of file
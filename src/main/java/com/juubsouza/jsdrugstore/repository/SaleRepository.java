@@ -2,6 +2,7 @@ package com.juubsouza.jsdrugstore.repository;
 
 import com.juubsouza.jsdrugstore.model.Sale;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -16,4 +17,11 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
             "FROM Sale s " +
             "WHERE s.customer.id = ?1")
     List<SaleDTO> findAllDTOsByCustomerId(Long id);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SaleDTO(s.id, s.paymentMethod, s.paymentStatus, " +
+            "s.shippingStatus, s.total, s.customer.id, s.seller.id) " +
+            "FROM Sale s " +
+            "WHERE s.customer.id = ?1 AND s.id > ?2 " +
+            "ORDER BY s.id")
+    List<SaleDTO> findDTOsByCustomerIdAfterId(Long customerId, Long lastId, Pageable pageable);
 }
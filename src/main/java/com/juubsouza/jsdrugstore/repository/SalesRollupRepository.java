@@ -0,0 +1,37 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.analytics.RollupDimension;
+import com.juubsouza.jsdrugstore.analytics.RollupGranularity;
+import com.juubsouza.jsdrugstore.model.SalesRollup;
+import com.juubsouza.jsdrugstore.model.dto.SalesRollupDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE SalesRollup r SET r.units = r.units + ?5, r.revenue = r.revenue + ?6, r.baskets = r.baskets + ?7 " +
+            "WHERE r.dimension = ?1 AND r.granularity = ?2 AND r.bucketStart = ?3 AND r.dimensionKey = ?4")
+    int addToRollup(RollupDimension dimension, RollupGranularity granularity, LocalDateTime bucketStart, String dimensionKey,
+                    long units, BigDecimal revenue, long baskets);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SalesRollupDTO(r.bucketStart, r.dimensionKey, r.units, r.revenue, r.baskets) " +
+            "FROM SalesRollup r " +
+            "WHERE r.dimension = ?1 AND r.granularity = ?2 AND r.bucketStart >= ?3 AND r.bucketStart < ?4 " +
+            "ORDER BY r.bucketStart, r.dimensionKey")
+    List<SalesRollupDTO> findDTOsInRange(RollupDimension dimension, RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SalesRollupDTO(r.bucketStart, r.dimensionKey, r.units, r.revenue, r.baskets) " +
+            "FROM SalesRollup r " +
+            "WHERE r.dimension = ?1 AND r.granularity = ?2 AND r.bucketStart >= ?3 AND r.bucketStart < ?4 AND r.dimensionKey = ?5 " +
+            "ORDER BY r.bucketStart")
+    List<SalesRollupDTO> findDTOsInRangeByKey(RollupDimension dimension, RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                              String dimensionKey);
+}
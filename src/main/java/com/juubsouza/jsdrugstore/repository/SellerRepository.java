@@ -2,18 +2,26 @@ package com.juubsouza.jsdrugstore.repository;
 
 import com.juubsouza.jsdrugstore.model.Seller;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SellerRepository extends JpaRepository<Seller, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SellerDTO(s.id, s.firstName, s.lastName, s.shift, s.admissionDate) FROM Seller s ")
     List<SellerDTO> findAllDTOs();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SellerDTO(s.id, s.firstName, s.lastName, s.shift, s.admissionDate) FROM Seller s " +
             "WHERE s.id = ?1")
     Optional<SellerDTO> findDTOById(Long id);
@@ -21,4 +29,18 @@ public interface SellerRepository extends JpaRepository<Seller, Long> {
     @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SellerDTO(s.id, s.firstName, s.lastName, s.shift, s.admissionDate) FROM Seller s " +
             "WHERE s.firstName LIKE %?1% OR s.lastName LIKE %?1%")
     List<SellerDTO> findDTOsByFirstOrLastName(String name);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SellerDTO(s.id, s.firstName, s.lastName, s.shift, s.admissionDate) FROM Seller s " +
+            "WHERE s.id > ?1 " +
+            "ORDER BY s.id")
+    List<SellerDTO> findDTOsAfterId(Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SellerDTO(s.id, s.firstName, s.lastName, s.shift, s.admissionDate) FROM Seller s " +
+            "WHERE s.id IN ?1")
+    List<SellerDTO> findDTOsByIdIn(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SellerDTO(s.id, s.firstName, s.lastName, s.shift, s.admissionDate) FROM Seller s " +
+            "ORDER BY s.id")
+    Stream<SellerDTO> streamAllDTOs();
 }
@@ -0,0 +1,23 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.model.StockHoldLine;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockHoldLineRepository extends JpaRepository<StockHoldLine, Long> {
+
+    @Query("SELECT new com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd(l.quantity, l.product.id) " +
+            "FROM StockHoldLine l WHERE l.hold.id IN ?1")
+    List<SaleProductDTOAdd> findQuantitiesByHoldIdIn(Collection<Long> holdIds);
+
+    @Modifying
+    @Query("DELETE FROM StockHoldLine l WHERE l.hold.id IN ?1")
+    int deleteByHoldIdIn(Collection<Long> holdIds);
+}
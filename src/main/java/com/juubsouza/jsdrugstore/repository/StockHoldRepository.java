@@ -0,0 +1,38 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.model.StockHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.id = ?1")
+    Optional<StockHold> findByIdForUpdate(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.id IN ?1 AND h.expiresAt <= ?2 ORDER BY h.id")
+    List<StockHold> findExpiredByIdInForUpdate(Collection<Long> ids, LocalDateTime now);
+
+    @Query("SELECT h.id FROM StockHold h WHERE h.expiresAt <= ?1 ORDER BY h.id")
+    List<Long> findExpiredIds(LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT h FROM StockHold h")
+    Stream<StockHold> streamAll();
+
+    @Modifying
+    @Query("DELETE FROM StockHold h WHERE h.id IN ?1")
+    int deleteByIdIn(Collection<Long> ids);
+}
@@ -2,11 +2,25 @@ package com.juubsouza.jsdrugstore.repository;
 
 import com.juubsouza.jsdrugstore.model.Stock;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
     Optional<Stock> findByProductId(Long id);
+
+    List<Stock> findAllByProductIdIn(Collection<Long> productIds);
+
+    @Modifying
+    @Query("UPDATE Stock s SET s.stock = s.stock - ?2 WHERE s.product.id = ?1 AND s.stock >= ?2")
+    int decrementStock(Long productId, Integer quantity);
+
+    @Modifying
+    @Query("UPDATE Stock s SET s.stock = s.stock + ?2 WHERE s.product.id = ?1")
+    int incrementStock(Long productId, Integer quantity);
 }
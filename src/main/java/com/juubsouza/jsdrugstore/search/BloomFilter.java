@@ -0,0 +1,114 @@
+package com.juubsouza.jsdrugstore.search;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter over strings, backed by an {@link AtomicLongArray} so values can be added while other threads
+ * query it. A value that was added is always reported as possibly present, and a value that was not is reported
+ * as possibly present with the probability returned by {@link #expectedFalsePositiveRate()}, which grows as
+ * bits are set. Values cannot be removed.
+ */
+class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private final LongAdder setBits = new LongAdder();
+
+    private final LongAdder values = new LongAdder();
+
+    BloomFilter(long expectedValues, double falsePositiveRate) {
+        long n = Math.max(1, expectedValues);
+        double bits = Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, ((long) bits + 63) / 64));
+
+        words = new AtomicLongArray(wordCount);
+        bitCount = (long) wordCount * Long.SIZE;
+        hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean changed = false;
+
+        for (int i = 0; i < hashCount; i++)
+            changed |= setBit(Math.floorMod(h1 + i * h2, bitCount));
+
+        if (changed)
+            values.increment();
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Number of added values that set at least one new bit, a slight undercount of the distinct values added.
+     */
+    long approximateValueCount() {
+        return values.sum();
+    }
+
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    double expectedFalsePositiveRate() {
+        return Math.pow((double) setBits.sum() / bitCount, hashCount);
+    }
+
+    private boolean setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+
+        while (true) {
+            long current = words.get(word);
+
+            if ((current & mask) != 0)
+                return false;
+
+            if (words.compareAndSet(word, current, current | mask)) {
+                setBits.increment();
+                return true;
+            }
+        }
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
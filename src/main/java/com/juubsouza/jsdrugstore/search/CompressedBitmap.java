@@ -0,0 +1,551 @@
+package com.juubsouza.jsdrugstore.search;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Compressed set of non-negative ints in the style of Roaring bitmaps. Values are split by their high 16 bits into
+ * containers, each kept as a sorted char array while it holds at most 4096 values and as a 65536-bit bitmap above
+ * that, so sparse ranges cost 2 bytes per value and dense ones 1 bit. Intersections, unions and intersection counts
+ * work a container at a time. Not thread-safe, callers guard each instance with a lock.
+ */
+class CompressedBitmap {
+
+    private static final int ARRAY_MAX_SIZE = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+
+    private Container[] containers = new Container[4];
+
+    private int size;
+
+    void add(int value) {
+        char key = highBits(value);
+        int index = indexOf(key);
+
+        if (index < 0) {
+            index = -index - 1;
+            insertContainerAt(index, key, new ArrayContainer());
+        }
+
+        containers[index] = containers[index].add(lowBits(value));
+    }
+
+    void remove(int value) {
+        int index = indexOf(highBits(value));
+
+        if (index < 0)
+            return;
+
+        Container container = containers[index].remove(lowBits(value));
+
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+            return;
+        }
+
+        containers[index] = container;
+    }
+
+    boolean contains(int value) {
+        int index = indexOf(highBits(value));
+        return index >= 0 && containers[index].contains(lowBits(value));
+    }
+
+    long cardinality() {
+        long cardinality = 0;
+
+        for (int i = 0; i < size; i++)
+            cardinality += containers[i].cardinality();
+
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+
+                if (container.cardinality() > 0)
+                    result.appendContainer(keys[i], container);
+
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    long andCardinality(CompressedBitmap other) {
+        long cardinality = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+
+        return cardinality;
+    }
+
+    CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendContainer(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.appendContainer(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Passes the values in ascending order to the consumer until it returns false.
+     */
+    void forEach(IntPredicate consumer) {
+        for (int i = 0; i < size; i++) {
+            if (!containers[i].forEach(keys[i] << 16, consumer))
+                return;
+        }
+    }
+
+    long sizeInBytes() {
+        long bytes = (long) keys.length * Character.BYTES + (long) containers.length * Integer.BYTES;
+
+        for (int i = 0; i < size; i++)
+            bytes += containers[i].sizeInBytes();
+
+        return bytes;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertContainerAt(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void appendContainer(char key, Container container) {
+        insertContainerAt(size, key, container);
+    }
+
+    private static char highBits(int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Compressed bitmaps only hold non-negative values.");
+
+        return (char) (value >>> 16);
+    }
+
+    private static char lowBits(int value) {
+        return (char) value;
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container copy();
+
+        abstract boolean forEach(int high, IntPredicate consumer);
+
+        abstract long sizeInBytes();
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (index >= 0)
+                return this;
+
+            if (cardinality == ARRAY_MAX_SIZE)
+                return toBitmap().add(value);
+
+            index = -index - 1;
+
+            if (cardinality == values.length)
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, Math.max(4, cardinality * 2)));
+
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (index < 0)
+                return this;
+
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+
+            if (values.length > 16 && cardinality < values.length / 4)
+                values = Arrays.copyOf(values, values.length / 2);
+
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i]))
+                        result[count++] = values[i];
+                }
+            }
+
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i]))
+                        count++;
+                }
+            }
+
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer)
+                return other.or(this);
+
+            ArrayContainer array = (ArrayContainer) other;
+
+            if (cardinality + array.cardinality > ARRAY_MAX_SIZE) {
+                Container result = toBitmap();
+
+                for (int i = 0; i < array.cardinality; i++)
+                    result = result.add(array.values[i]);
+
+                return result;
+            }
+
+            char[] result = new char[Math.max(4, cardinality + array.cardinality)];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+        }
+
+        @Override
+        boolean forEach(int high, IntPredicate consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                if (!consumer.test(high | values[i]))
+                    return false;
+            }
+
+            return true;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return (long) values.length * Character.BYTES;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+
+            for (int i = 0; i < cardinality; i++)
+                bitmap.add(values[i]);
+
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+
+        private int cardinality;
+
+        private BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long word = words[value >>> 6];
+            long updated = word | (1L << value);
+
+            if (updated != word) {
+                words[value >>> 6] = updated;
+                cardinality++;
+            }
+
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long word = words[value >>> 6];
+            long updated = word & ~(1L << value);
+
+            if (updated == word)
+                return this;
+
+            words[value >>> 6] = updated;
+            cardinality--;
+
+            return cardinality <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer)
+                return other.and(this);
+
+            BitmapContainer bitmap = (BitmapContainer) other;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & bitmap.words[i];
+                count += Long.bitCount(result[i]);
+            }
+
+            BitmapContainer intersection = new BitmapContainer(result, count);
+
+            return count <= ARRAY_MAX_SIZE ? intersection.toArray() : intersection;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer)
+                return other.andCardinality(this);
+
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++)
+                count += Long.bitCount(words[i] & bitmap.words[i]);
+
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++)
+                    result.add(array.values[i]);
+
+                return result;
+            }
+
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= bitmap.words[i];
+                count += Long.bitCount(result.words[i]);
+            }
+
+            result.cardinality = count;
+
+            return result;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        boolean forEach(int high, IntPredicate consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+
+                while (word != 0) {
+                    if (!consumer.test(high | (i << 6) | Long.numberOfTrailingZeros(word)))
+                        return false;
+
+                    word &= word - 1;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return (long) BITMAP_WORDS * Long.BYTES;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int count = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.CustomerChangedEvent;
+import com.juubsouza.jsdrugstore.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+public class CustomerEmailFilter extends UniqueValueFilter {
+
+    private final CustomerRepository customerRepository;
+
+    @Autowired
+    public CustomerEmailFilter(CustomerRepository customerRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                               @Value("${jsdrugstore.unique-filter.enabled:false}") boolean enabled,
+                               @Value("${jsdrugstore.unique-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${jsdrugstore.unique-filter.min-capacity:10000}") long minCapacity) {
+        super("customer_email", transactionManager, meterRegistry, enabled, falsePositiveRate, minCapacity);
+        this.customerRepository = customerRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        onChanged(event.getCustomerIds());
+    }
+
+    @Override
+    protected long countAll() {
+        return customerRepository.count();
+    }
+
+    @Override
+    protected Stream<String> streamAllValues() {
+        return customerRepository.streamAllEmails();
+    }
+
+    @Override
+    protected List<String> findValuesByIdIn(Collection<Long> ids) {
+        return customerRepository.findEmailsByIdIn(ids);
+    }
+}
@@ -0,0 +1,61 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.CustomerChangedEvent;
+import com.juubsouza.jsdrugstore.model.dto.CustomerDTO;
+import com.juubsouza.jsdrugstore.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+public class CustomerNameIndex extends PersonNameIndex<CustomerDTO> {
+
+    private final CustomerRepository customerRepository;
+
+    @Autowired
+    public CustomerNameIndex(CustomerRepository customerRepository, PlatformTransactionManager transactionManager) {
+        super(transactionManager);
+        this.customerRepository = customerRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        onChanged(event.getCustomerIds());
+    }
+
+    @Override
+    protected Stream<CustomerDTO> streamAll() {
+        return customerRepository.streamAllDTOs();
+    }
+
+    @Override
+    protected List<CustomerDTO> findByIdIn(Collection<Long> ids) {
+        return customerRepository.findDTOsByIdIn(ids);
+    }
+
+    @Override
+    protected List<CustomerDTO> findAfterId(Long lastId, int limit) {
+        return customerRepository.findDTOsAfterId(lastId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    protected Long idOf(CustomerDTO customer) {
+        return customer.getId();
+    }
+
+    @Override
+    protected String firstNameOf(CustomerDTO customer) {
+        return customer.getFirstName();
+    }
+
+    @Override
+    protected String lastNameOf(CustomerDTO customer) {
+        return customer.getLastName();
+    }
+}
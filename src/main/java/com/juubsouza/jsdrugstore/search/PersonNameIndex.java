@@ -0,0 +1,143 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Trigram index over "first last" names, used in place of {@code firstName LIKE %name% OR lastName LIKE %name%}.
+ * It is loaded once the application is ready and subclasses feed it the ids of changed rows after commit.
+ * Rows added through other instances are picked up every {@code jsdrugstore.search.refresh-interval-ms}, and
+ * the index is rebuilt every {@code jsdrugstore.search.rebuild-interval-ms} to catch their updates and deletes.
+ * Until the first load finishes {@link #isReady()} is false and callers should fall back to the database.
+ */
+public abstract class PersonNameIndex<T> {
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    private volatile TrigramIndex names = new TrigramIndex();
+
+    private volatile long highestIndexedId;
+
+    private volatile boolean building;
+
+    private volatile boolean ready;
+
+    protected PersonNameIndex(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    protected abstract Stream<T> streamAll();
+
+    protected abstract List<T> findByIdIn(Collection<Long> ids);
+
+    protected abstract List<T> findAfterId(Long lastId, int limit);
+
+    protected abstract Long idOf(T person);
+
+    protected abstract String firstNameOf(T person);
+
+    protected abstract String lastNameOf(T person);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jsdrugstore.search.rebuild-interval-ms:3600000}",
+            initialDelayString = "${jsdrugstore.search.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        building = true;
+        changedWhileBuilding.clear();
+
+        TrigramIndex.Builder builder = TrigramIndex.builder();
+        long[] highestId = {0};
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<T> people = streamAll()) {
+                people.forEach(person -> {
+                    builder.add(idOf(person), fullName(person));
+                    highestId[0] = Math.max(highestId[0], idOf(person));
+                });
+            }
+        });
+
+        names = builder.build();
+        highestIndexedId = highestId[0];
+        building = false;
+        ready = true;
+
+        refresh(new ArrayList<>(changedWhileBuilding));
+    }
+
+    /**
+     * Indexes rows with ids above the highest one indexed so far, such as rows added through another instance.
+     */
+    @Scheduled(fixedDelayString = "${jsdrugstore.search.refresh-interval-ms:30000}")
+    public void indexNewRows() {
+        if (!ready)
+            return;
+
+        List<T> people;
+
+        do {
+            people = findAfterId(highestIndexedId, QueryChunks.MAX_IN_PARAMETERS);
+
+            if (building)
+                people.forEach(person -> changedWhileBuilding.add(idOf(person)));
+
+            index(people);
+        } while (people.size() == QueryChunks.MAX_IN_PARAMETERS);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public List<Long> findIdsByName(String name) {
+        return names.findContaining(name);
+    }
+
+    protected void onChanged(Collection<Long> ids) {
+        if (building)
+            changedWhileBuilding.addAll(ids);
+
+        refresh(ids);
+    }
+
+    private void refresh(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return;
+
+        Set<Long> missingIds = new HashSet<>(ids);
+        List<T> people = QueryChunks.fetchInChunks(ids, this::findByIdIn);
+
+        index(people);
+        people.forEach(person -> missingIds.remove(idOf(person)));
+
+        for (Long missingId : missingIds)
+            names.remove(missingId);
+    }
+
+    private void index(List<T> people) {
+        for (T person : people) {
+            names.put(idOf(person), fullName(person));
+
+            if (idOf(person) > highestIndexedId)
+                highestIndexedId = idOf(person);
+        }
+    }
+
+    private String fullName(T person) {
+        return firstNameOf(person) + " " + lastNameOf(person);
+    }
+}
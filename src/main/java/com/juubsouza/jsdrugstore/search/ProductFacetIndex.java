@@ -0,0 +1,479 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.ProductChangedEvent;
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
+import com.juubsouza.jsdrugstore.model.dto.FacetCountDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Compressed bitmaps of product ids per manufacturer, price band and stock state, so filtered product lists and
+ * facet counts are answered with a few intersections instead of joining product, price and stock. It is loaded
+ * once the application is ready and kept current from {@link ProductChangedEvent}s and {@link StockChangedEvent}s,
+ * reading stock from the inventory ledger when it is enabled. Products added through other instances are picked
+ * up every {@code jsdrugstore.search.refresh-interval-ms}, and the index is rebuilt every
+ * {@code jsdrugstore.search.rebuild-interval-ms} to catch their other changes. Until the first load finishes
+ * {@link #isReady()} is false. Product ids above {@link Integer#MAX_VALUE} cannot be indexed and keep the index
+ * from becoming ready.
+ */
+@Component
+public class ProductFacetIndex {
+
+    public static final String IN_STOCK = "IN_STOCK";
+
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private static final int NO_PRICE_BAND = -1;
+
+    private final ProductRepository productRepository;
+
+    private final InventoryLedger inventoryLedger;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BigDecimal[] priceBandLimits;
+
+    private final List<String> priceBands;
+
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Facets facets;
+
+    private volatile long highestIndexedId;
+
+    private volatile boolean building;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public ProductFacetIndex(ProductRepository productRepository, InventoryLedger inventoryLedger, PlatformTransactionManager transactionManager,
+                             @Value("${jsdrugstore.facets.price-band-limits:5,10,20,50,100}") String priceBandLimits) {
+        this.productRepository = productRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.priceBandLimits = parsePriceBandLimits(priceBandLimits);
+        this.priceBands = priceBandLabels(this.priceBandLimits);
+        this.facets = new Facets(this.priceBandLimits.length + 1);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+
+        private final long total;
+
+        private final List<Long> productIds;
+
+        private final List<FacetCountDTO> manufacturers;
+
+        private final List<FacetCountDTO> priceBands;
+
+        private final List<FacetCountDTO> stock;
+    }
+
+    private record IndexedProduct(String manufacturer, int priceBand, boolean inStock) {
+    }
+
+    private static class Facets {
+
+        private final CompressedBitmap all = new CompressedBitmap();
+
+        private final Map<String, CompressedBitmap> manufacturers = new HashMap<>();
+
+        private final CompressedBitmap[] priceBands;
+
+        private final CompressedBitmap inStock = new CompressedBitmap();
+
+        private final CompressedBitmap outOfStock = new CompressedBitmap();
+
+        private final Map<Long, IndexedProduct> products = new HashMap<>();
+
+        private Facets(int priceBandCount) {
+            priceBands = new CompressedBitmap[priceBandCount];
+
+            for (int i = 0; i < priceBandCount; i++)
+                priceBands[i] = new CompressedBitmap();
+        }
+
+        private void put(long productId, IndexedProduct product) {
+            remove(productId);
+
+            int id = (int) productId;
+
+            all.add(id);
+            manufacturers.computeIfAbsent(product.manufacturer(), m -> new CompressedBitmap()).add(id);
+
+            if (product.priceBand() != NO_PRICE_BAND)
+                priceBands[product.priceBand()].add(id);
+
+            (product.inStock() ? inStock : outOfStock).add(id);
+            products.put(productId, product);
+        }
+
+        private void remove(long productId) {
+            IndexedProduct product = products.remove(productId);
+
+            if (product == null)
+                return;
+
+            int id = (int) productId;
+
+            all.remove(id);
+
+            CompressedBitmap manufacturer = manufacturers.get(product.manufacturer());
+            manufacturer.remove(id);
+
+            if (manufacturer.isEmpty())
+                manufacturers.remove(product.manufacturer());
+
+            if (product.priceBand() != NO_PRICE_BAND)
+                priceBands[product.priceBand()].remove(id);
+
+            (product.inStock() ? inStock : outOfStock).remove(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jsdrugstore.search.rebuild-interval-ms:3600000}",
+            initialDelayString = "${jsdrugstore.search.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        building = true;
+        changedWhileBuilding.clear();
+
+        Facets builtFacets = new Facets(priceBands.size());
+        boolean[] indexable = {true};
+        long[] highestId = {0};
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ProductDTO> products = productRepository.streamAllDTOs()) {
+                products.forEach(product -> {
+                    highestId[0] = Math.max(highestId[0], product.getId());
+
+                    if (product.getId() > Integer.MAX_VALUE)
+                        indexable[0] = false;
+                    else
+                        builtFacets.put(product.getId(), indexedProduct(product, loadedStock(product)));
+                });
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            facets = builtFacets;
+            highestIndexedId = highestId[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        building = false;
+
+        if (!indexable[0]) {
+            logger.warn("Product ids exceed {}, product facets are disabled", Integer.MAX_VALUE);
+            return;
+        }
+
+        ready = true;
+
+        refresh(new ArrayList<>(changedWhileBuilding));
+    }
+
+    /**
+     * Indexes products with ids above the highest one indexed so far, such as products added through another
+     * instance.
+     */
+    @Scheduled(fixedDelayString = "${jsdrugstore.search.refresh-interval-ms:30000}")
+    public void indexNewProducts() {
+        if (!ready)
+            return;
+
+        List<ProductDTO> products;
+
+        do {
+            products = productRepository.findDTOsAfterId(highestIndexedId, PageRequest.of(0, QueryChunks.MAX_IN_PARAMETERS));
+
+            if (building)
+                products.forEach(product -> changedWhileBuilding.add(product.getId()));
+
+            if (!index(products))
+                return;
+        } while (products.size() == QueryChunks.MAX_IN_PARAMETERS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        onChanged(event.getProductIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        onChanged(event.getProductIds());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<String> getPriceBands() {
+        return priceBands;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return facets.products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the products matching every given filter, where a null or empty filter matches everything, and how
+     * many of them fall under each facet value. Each facet is counted with the filters of the other facets only,
+     * so selecting a manufacturer still shows how many products the other manufacturers would add.
+     *
+     * @throws IllegalArgumentException if a price band is not one of {@link #getPriceBands()}
+     */
+    public Result filter(Collection<String> manufacturers, Collection<String> priceBands, Boolean inStock, int limit)
+            throws IllegalArgumentException {
+        int[] selectedBands = priceBandIndexes(priceBands);
+
+        lock.readLock().lock();
+        try {
+            CompressedBitmap manufacturerFilter = manufacturers == null || manufacturers.isEmpty() ? null
+                    : union(manufacturers.stream().map(facets.manufacturers::get).toList());
+            CompressedBitmap priceBandFilter = selectedBands.length == 0 ? null
+                    : union(Arrays.stream(selectedBands).mapToObj(band -> facets.priceBands[band]).toList());
+            CompressedBitmap stockFilter = inStock == null ? null : inStock ? facets.inStock : facets.outOfStock;
+
+            CompressedBitmap matches = intersect(manufacturerFilter, priceBandFilter, stockFilter);
+            List<Long> productIds = new ArrayList<>(Math.min(limit, 64));
+
+            matches.forEach(id -> {
+                productIds.add((long) id);
+                return productIds.size() < limit;
+            });
+
+            return new Result(matches.cardinality(), productIds,
+                    manufacturerCounts(intersect(null, priceBandFilter, stockFilter), manufacturers),
+                    priceBandCounts(intersect(manufacturerFilter, null, stockFilter)),
+                    stockCounts(intersect(manufacturerFilter, priceBandFilter, null)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void onChanged(Collection<Long> productIds) {
+        if (building)
+            changedWhileBuilding.addAll(productIds);
+
+        refresh(productIds);
+    }
+
+    private void refresh(Collection<Long> productIds) {
+        if (productIds.isEmpty())
+            return;
+
+        Set<Long> missingIds = new HashSet<>(productIds);
+        List<ProductDTO> products = QueryChunks.fetchInChunks(productIds, productRepository::findDTOsByIdIn);
+
+        if (!index(products))
+            return;
+
+        products.forEach(product -> missingIds.remove(product.getId()));
+
+        lock.writeLock().lock();
+        try {
+            for (Long missingId : missingIds)
+                facets.remove(missingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Puts the products into the facets, or disables the index and returns false if one of their ids is too large.
+     */
+    private boolean index(List<ProductDTO> products) {
+        Map<Long, IndexedProduct> changedProducts = new HashMap<>();
+
+        for (ProductDTO product : products) {
+            if (product.getId() > Integer.MAX_VALUE) {
+                ready = false;
+                logger.warn("Product ids exceed {}, product facets are disabled", Integer.MAX_VALUE);
+                return false;
+            }
+
+            Integer stock = product.getStock();
+
+            if (inventoryLedger.isEnabled()) {
+                Long level = inventoryLedger.findLevel(product.getId());
+                stock = level != null ? level.intValue() : stock;
+            }
+
+            changedProducts.put(product.getId(), indexedProduct(product, stock));
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedProducts.forEach(facets::put);
+
+            for (Long productId : changedProducts.keySet())
+                highestIndexedId = Math.max(highestIndexedId, productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return true;
+    }
+
+    private Integer loadedStock(ProductDTO product) {
+        if (!inventoryLedger.isEnabled())
+            return product.getStock();
+
+        Long level = inventoryLedger.findLoadedLevel(product.getId());
+        return level != null ? level.intValue() : product.getStock();
+    }
+
+    private IndexedProduct indexedProduct(ProductDTO product, Integer stock) {
+        return new IndexedProduct(Objects.toString(product.getManufacturer(), ""), priceBandOf(product.getPrice()), stock != null && stock > 0);
+    }
+
+    private int priceBandOf(BigDecimal price) {
+        if (price == null)
+            return NO_PRICE_BAND;
+
+        for (int i = 0; i < priceBandLimits.length; i++) {
+            if (price.compareTo(priceBandLimits[i]) < 0)
+                return i;
+        }
+
+        return priceBandLimits.length;
+    }
+
+    private int[] priceBandIndexes(Collection<String> selectedBands) {
+        if (selectedBands == null)
+            return new int[0];
+
+        int[] indexes = new int[selectedBands.size()];
+        int i = 0;
+
+        for (String band : selectedBands) {
+            indexes[i] = priceBands.indexOf(band);
+
+            if (indexes[i] < 0)
+                throw new IllegalArgumentException("Price band must be one of " + String.join(", ", priceBands) + ".");
+
+            i++;
+        }
+
+        return indexes;
+    }
+
+    private CompressedBitmap intersect(CompressedBitmap... filters) {
+        CompressedBitmap result = facets.all;
+
+        for (CompressedBitmap filter : filters) {
+            if (filter != null)
+                result = result.and(filter);
+        }
+
+        return result;
+    }
+
+    private List<FacetCountDTO> manufacturerCounts(CompressedBitmap matches, Collection<String> selectedManufacturers) {
+        List<FacetCountDTO> counts = new ArrayList<>();
+
+        for (Map.Entry<String, CompressedBitmap> manufacturer : facets.manufacturers.entrySet()) {
+            long count = manufacturer.getValue().andCardinality(matches);
+
+            if (count > 0 || (selectedManufacturers != null && selectedManufacturers.contains(manufacturer.getKey())))
+                counts.add(new FacetCountDTO(manufacturer.getKey(), count));
+        }
+
+        counts.sort(Comparator.comparingLong(FacetCountDTO::getCount).reversed().thenComparing(FacetCountDTO::getValue));
+
+        return counts;
+    }
+
+    private List<FacetCountDTO> priceBandCounts(CompressedBitmap matches) {
+        List<FacetCountDTO> counts = new ArrayList<>(priceBands.size());
+
+        for (int i = 0; i < priceBands.size(); i++)
+            counts.add(new FacetCountDTO(priceBands.get(i), facets.priceBands[i].andCardinality(matches)));
+
+        return counts;
+    }
+
+    private List<FacetCountDTO> stockCounts(CompressedBitmap matches) {
+        return List.of(new FacetCountDTO(IN_STOCK, facets.inStock.andCardinality(matches)),
+                new FacetCountDTO(OUT_OF_STOCK, facets.outOfStock.andCardinality(matches)));
+    }
+
+    private static CompressedBitmap union(List<CompressedBitmap> bitmaps) {
+        CompressedBitmap result = new CompressedBitmap();
+
+        for (CompressedBitmap bitmap : bitmaps) {
+            if (bitmap != null)
+                result = result.or(bitmap);
+        }
+
+        return result;
+    }
+
+    private static BigDecimal[] parsePriceBandLimits(String limits) {
+        BigDecimal[] parsed = Arrays.stream(limits.split(","))
+                .map(String::trim)
+                .filter(limit -> !limit.isEmpty())
+                .map(BigDecimal::new)
+                .toArray(BigDecimal[]::new);
+
+        for (int i = 0; i < parsed.length; i++) {
+            if (parsed[i].signum() <= 0 || (i > 0 && parsed[i].compareTo(parsed[i - 1]) <= 0))
+                throw new IllegalArgumentException("Price band limits must be positive and increasing: " + limits);
+        }
+
+        return parsed;
+    }
+
+    private static List<String> priceBandLabels(BigDecimal[] limits) {
+        List<String> labels = new ArrayList<>(limits.length + 1);
+        String lower = "0";
+
+        for (BigDecimal limit : limits) {
+            String upper = limit.stripTrailingZeros().toPlainString();
+            labels.add(lower + "-" + upper);
+            lower = upper;
+        }
+
+        labels.add(lower + "+");
+
+        return List.copyOf(labels);
+    }
+}
@@ -0,0 +1,49 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.ProductChangedEvent;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+public class ProductNameFilter extends UniqueValueFilter {
+
+    private final ProductRepository productRepository;
+
+    @Autowired
+    public ProductNameFilter(ProductRepository productRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${jsdrugstore.unique-filter.enabled:false}") boolean enabled,
+                             @Value("${jsdrugstore.unique-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${jsdrugstore.unique-filter.min-capacity:10000}") long minCapacity) {
+        super("product_name", transactionManager, meterRegistry, enabled, falsePositiveRate, minCapacity);
+        this.productRepository = productRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        onChanged(event.getProductIds());
+    }
+
+    @Override
+    protected long countAll() {
+        return productRepository.count();
+    }
+
+    @Override
+    protected Stream<String> streamAllValues() {
+        return productRepository.streamAllNames();
+    }
+
+    @Override
+    protected List<String> findValuesByIdIn(Collection<Long> ids) {
+        return productRepository.findNamesByIdIn(ids);
+    }
+}
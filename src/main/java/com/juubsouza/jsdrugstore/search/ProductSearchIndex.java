@@ -0,0 +1,172 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.ProductChangedEvent;
+import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Trigram indexes over product names and manufacturers, loaded once the application is ready and kept
+ * current from {@link ProductChangedEvent}s. Products added through other instances are picked up every
+ * {@code refresh-interval-ms}, and the indexes are rebuilt every {@code rebuild-interval-ms} to catch their
+ * updates and deletes. Until the first load finishes {@link #isReady()} is false and callers should fall back
+ * to the database.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final double MANUFACTURER_WEIGHT = 0.5;
+
+    private final ProductRepository productRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    @Value("${jsdrugstore.search.min-similarity:0.5}")
+    private double minSimilarity;
+
+    private volatile TrigramIndex names = new TrigramIndex();
+
+    private volatile TrigramIndex manufacturers = new TrigramIndex();
+
+    private volatile long highestIndexedId;
+
+    private volatile boolean building;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public ProductSearchIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jsdrugstore.search.rebuild-interval-ms:3600000}",
+            initialDelayString = "${jsdrugstore.search.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        building = true;
+        changedWhileBuilding.clear();
+
+        TrigramIndex.Builder nameBuilder = TrigramIndex.builder();
+        TrigramIndex.Builder manufacturerBuilder = TrigramIndex.builder();
+        long[] highestId = {0};
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ProductDTO> products = productRepository.streamAllDTOs()) {
+                products.forEach(product -> {
+                    nameBuilder.add(product.getId(), product.getName());
+                    manufacturerBuilder.add(product.getId(), product.getManufacturer());
+                    highestId[0] = Math.max(highestId[0], product.getId());
+                });
+            }
+        });
+
+        names = nameBuilder.build();
+        manufacturers = manufacturerBuilder.build();
+        highestIndexedId = highestId[0];
+        building = false;
+        ready = true;
+
+        refresh(new ArrayList<>(changedWhileBuilding));
+    }
+
+    /**
+     * Indexes products with ids above the highest one indexed so far, such as products added through another
+     * instance.
+     */
+    @Scheduled(fixedDelayString = "${jsdrugstore.search.refresh-interval-ms:30000}")
+    public void indexNewProducts() {
+        if (!ready)
+            return;
+
+        List<ProductDTO> products;
+
+        do {
+            products = productRepository.findDTOsAfterId(highestIndexedId, PageRequest.of(0, QueryChunks.MAX_IN_PARAMETERS));
+
+            if (building)
+                products.forEach(product -> changedWhileBuilding.add(product.getId()));
+
+            index(products);
+        } while (products.size() == QueryChunks.MAX_IN_PARAMETERS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (building)
+            changedWhileBuilding.addAll(event.getProductIds());
+
+        refresh(event.getProductIds());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public List<Long> findIdsByName(String name) {
+        return names.findContaining(name);
+    }
+
+    public List<Long> search(String query, int limit) {
+        Map<Long, Double> scores = new HashMap<>();
+
+        for (TrigramIndex.Match match : names.search(query, minSimilarity))
+            scores.merge(match.getId(), match.getScore(), Double::sum);
+
+        for (TrigramIndex.Match match : manufacturers.search(query, minSimilarity))
+            scores.merge(match.getId(), match.getScore() * MANUFACTURER_WEIGHT, Double::sum);
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private void refresh(Collection<Long> productIds) {
+        if (productIds.isEmpty())
+            return;
+
+        Set<Long> missingIds = new HashSet<>(productIds);
+        List<ProductDTO> products = QueryChunks.fetchInChunks(productIds, productRepository::findDTOsByIdIn);
+
+        index(products);
+        products.forEach(product -> missingIds.remove(product.getId()));
+
+        for (Long missingId : missingIds) {
+            names.remove(missingId);
+            manufacturers.remove(missingId);
+        }
+    }
+
+    private void index(List<ProductDTO> products) {
+        for (ProductDTO product : products) {
+            names.put(product.getId(), product.getName());
+            manufacturers.put(product.getId(), product.getManufacturer());
+
+            if (product.getId() > highestIndexedId)
+                highestIndexedId = product.getId();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.SellerChangedEvent;
+import com.juubsouza.jsdrugstore.model.dto.SellerDTO;
+import com.juubsouza.jsdrugstore.repository.SellerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+public class SellerNameIndex extends PersonNameIndex<SellerDTO> {
+
+    private final SellerRepository sellerRepository;
+
+    @Autowired
+    public SellerNameIndex(SellerRepository sellerRepository, PlatformTransactionManager transactionManager) {
+        super(transactionManager);
+        this.sellerRepository = sellerRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSellerChanged(SellerChangedEvent event) {
+        onChanged(event.getSellerIds());
+    }
+
+    @Override
+    protected Stream<SellerDTO> streamAll() {
+        return sellerRepository.streamAllDTOs();
+    }
+
+    @Override
+    protected List<SellerDTO> findByIdIn(Collection<Long> ids) {
+        return sellerRepository.findDTOsByIdIn(ids);
+    }
+
+    @Override
+    protected List<SellerDTO> findAfterId(Long lastId, int limit) {
+        return sellerRepository.findDTOsAfterId(lastId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    protected Long idOf(SellerDTO seller) {
+        return seller.getId();
+    }
+
+    @Override
+    protected String firstNameOf(SellerDTO seller) {
+        return seller.getFirstName();
+    }
+
+    @Override
+    protected String lastNameOf(SellerDTO seller) {
+        return seller.getLastName();
+    }
+}
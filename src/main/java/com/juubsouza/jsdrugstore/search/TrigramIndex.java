@@ -0,0 +1,419 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.utils.LongObjectMap;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index from character trigrams to document ids.
+ * <p>
+ * Text is lower-cased and stripped of accents, split into alphanumeric words and every word is padded
+ * ("  word ") before its trigrams are taken, so prefixes get trigrams of their own. Trigrams are packed
+ * into a long and each posting list is a sorted, growable long[], which keeps the index compact and makes
+ * intersections a merge. Ids are usually generated in increasing order, so adding a new document appends
+ * to its posting lists instead of copying them. Documents and postings are kept in {@link LongObjectMap}s, which
+ * store their keys unboxed and need no entry object per document.
+ */
+public class TrigramIndex {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongObjectMap<Posting> postings;
+
+    private final LongObjectMap<String> documents;
+
+    public TrigramIndex() {
+        this(new LongObjectMap<>(), new LongObjectMap<>());
+    }
+
+    private TrigramIndex(LongObjectMap<Posting> postings, LongObjectMap<String> documents) {
+        this.postings = postings;
+        this.documents = documents;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static String normalize(String text) {
+        if (text == null)
+            return "";
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return ACCENTS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public void put(long id, String text) {
+        String normalized = normalize(text);
+
+        lock.writeLock().lock();
+        try {
+            String previous = documents.put(id, normalized);
+
+            if (previous != null) {
+                for (long trigram : trigrams(previous))
+                    removePosting(trigram, id);
+            }
+
+            for (long trigram : trigrams(normalized))
+                addPosting(trigram, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = documents.remove(id);
+
+            if (previous == null)
+                return;
+
+            for (long trigram : trigrams(previous))
+                removePosting(trigram, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of every document whose normalized text contains the normalized query, in id order.
+     * This matches what {@code LIKE %query%} returns on a case-insensitive collation.
+     */
+    public List<Long> findContaining(String query) {
+        String normalizedQuery = normalize(query);
+
+        lock.readLock().lock();
+        try {
+            List<Posting> queryPostings = new ArrayList<>();
+
+            for (String word : words(normalizedQuery)) {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    Posting posting = postings.get(pack(word, i));
+
+                    if (posting == null)
+                        return new ArrayList<>();
+
+                    queryPostings.add(posting);
+                }
+            }
+
+            List<Long> matches = new ArrayList<>();
+
+            if (queryPostings.isEmpty()) {
+                documents.forEach((id, text) -> {
+                    if (text.contains(normalizedQuery))
+                        matches.add(id);
+                });
+
+                matches.sort(Comparator.naturalOrder());
+                return matches;
+            }
+
+            queryPostings.sort(Comparator.comparingInt(posting -> posting.size));
+
+            long[] candidates = Arrays.copyOf(queryPostings.get(0).ids, queryPostings.get(0).size);
+            int candidateCount = candidates.length;
+
+            for (int i = 1; i < queryPostings.size() && candidateCount > 0; i++)
+                candidateCount = queryPostings.get(i).retainAll(candidates, candidateCount);
+
+            for (int i = 0; i < candidateCount; i++) {
+                if (documents.get(candidates[i]).contains(normalizedQuery))
+                    matches.add(candidates[i]);
+            }
+
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns documents sharing at least {@code minSimilarity} of the query's trigrams, which tolerates typos.
+     * Documents containing the query as a substring always match. Results are not sorted.
+     */
+    public List<Match> search(String query, double minSimilarity) {
+        String normalizedQuery = normalize(query);
+        Set<Long> queryTrigrams = new HashSet<>(trigrams(normalizedQuery));
+
+        if (queryTrigrams.isEmpty())
+            return new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> sharedTrigrams = new HashMap<>();
+
+            for (long trigram : queryTrigrams) {
+                Posting posting = postings.get(trigram);
+
+                if (posting == null)
+                    continue;
+
+                for (int i = 0; i < posting.size; i++)
+                    sharedTrigrams.merge(posting.ids[i], 1, Integer::sum);
+            }
+
+            List<Match> matches = new ArrayList<>();
+
+            for (Map.Entry<Long, Integer> candidate : sharedTrigrams.entrySet()) {
+                String text = documents.get(candidate.getKey());
+                double similarity = (double) candidate.getValue() / queryTrigrams.size();
+                boolean contains = text.contains(normalizedQuery);
+
+                if (similarity < minSimilarity && !contains)
+                    continue;
+
+                matches.add(new Match(candidate.getKey(), similarity, contains, text.startsWith(normalizedQuery)));
+            }
+
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addPosting(long trigram, long id) {
+        Posting posting = postings.get(trigram);
+
+        if (posting == null) {
+            posting = new Posting();
+            postings.put(trigram, posting);
+        }
+
+        posting.add(id);
+    }
+
+    private void removePosting(long trigram, long id) {
+        Posting posting = postings.get(trigram);
+
+        if (posting != null && posting.remove(id) && posting.size == 0)
+            postings.remove(trigram);
+    }
+
+    private static List<String> words(String normalized) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+
+        return words;
+    }
+
+    private static Set<Long> trigrams(String normalized) {
+        Set<Long> trigrams = new HashSet<>();
+
+        for (String word : words(normalized)) {
+            String padded = "  " + word + " ";
+
+            for (int i = 0; i + 3 <= padded.length(); i++)
+                trigrams.add(pack(padded, i));
+        }
+
+        return trigrams;
+    }
+
+    private static long pack(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    /**
+     * Sorted ids sharing one trigram. The array has spare capacity at the end so appends are amortized O(1).
+     */
+    private static class Posting {
+
+        private long[] ids;
+
+        private int size;
+
+        Posting() {
+            this.ids = new long[4];
+        }
+
+        void append(long id) {
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+
+            ids[size++] = id;
+        }
+
+        void sortAndTrim() {
+            ids = Arrays.copyOf(ids, size);
+            Arrays.sort(ids);
+        }
+
+        void add(long id) {
+            int insertAt = size;
+
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+
+                if (position >= 0)
+                    return;
+
+                insertAt = -position - 1;
+            }
+
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, Math.max(4, size + (size >> 1)));
+
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+
+            if (position < 0)
+                return false;
+
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+
+            if (size < ids.length / 4)
+                ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+
+            return true;
+        }
+
+        /**
+         * Keeps in {@code candidates} only the ids also present here and returns how many are left. Each
+         * candidate is looked up by galloping from the previous match, so a short candidate list is cheap
+         * to check against a long posting.
+         */
+        int retainAll(long[] candidates, int candidateCount) {
+            int kept = 0;
+            int from = 0;
+
+            for (int i = 0; i < candidateCount && from < size; i++) {
+                long candidate = candidates[i];
+                int bound = 1;
+
+                while (from + bound < size && ids[from + bound] < candidate)
+                    bound <<= 1;
+
+                int position = Arrays.binarySearch(ids, from + (bound >> 1), Math.min(from + bound + 1, size), candidate);
+
+                if (position >= 0) {
+                    candidates[kept++] = candidate;
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+
+            return kept;
+        }
+    }
+
+    public static class Match {
+
+        private final long id;
+
+        private final double similarity;
+
+        private final boolean contains;
+
+        private final boolean prefix;
+
+        public Match(long id, double similarity, boolean contains, boolean prefix) {
+            this.id = id;
+            this.similarity = similarity;
+            this.contains = contains;
+            this.prefix = prefix;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        public boolean isContains() {
+            return contains;
+        }
+
+        public boolean isPrefix() {
+            return prefix;
+        }
+
+        public double getScore() {
+            return similarity + (contains ? 1.0 : 0.0) + (prefix ? 0.5 : 0.0);
+        }
+    }
+
+    /**
+     * Collects documents into unsorted growable posting lists and sorts each list once in {@link #build()}.
+     * Used for the initial load, where inserting one id at a time into sorted arrays would be quadratic. The
+     * built index takes over the builder's maps, so a builder cannot be used again after {@link #build()}.
+     */
+    public static class Builder {
+
+        private LongObjectMap<Posting> postings = new LongObjectMap<>();
+
+        private LongObjectMap<String> documents = new LongObjectMap<>();
+
+        public Builder add(long id, String text) {
+            if (documents == null)
+                throw new IllegalStateException("The index was already built.");
+
+            String normalized = normalize(text);
+
+            if (documents.put(id, normalized) != null)
+                throw new IllegalArgumentException("Document " + id + " was added twice.");
+
+            for (long trigram : trigrams(normalized)) {
+                Posting posting = postings.get(trigram);
+
+                if (posting == null) {
+                    posting = new Posting();
+                    postings.put(trigram, posting);
+                }
+
+                posting.append(id);
+            }
+
+            return this;
+        }
+
+        public TrigramIndex build() {
+            if (documents == null)
+                throw new IllegalStateException("The index was already built.");
+
+            postings.forEach((trigram, posting) -> posting.sortAndTrim());
+
+            TrigramIndex index = new TrigramIndex(postings, documents);
+            postings = null;
+            documents = null;
+            return index;
+        }
+    }
+}
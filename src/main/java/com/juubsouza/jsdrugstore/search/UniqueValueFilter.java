@@ -0,0 +1,181 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over the values of a column that must be unique, checked before the database so values that were
+ * never stored cost no query. It is sized from the row count, loaded once the application is ready, and
+ * subclasses feed it the ids of changed rows after commit. Values of deleted or renamed rows stay in the filter
+ * and only cost a query, and once too many bits are set it is rebuilt with twice the current row count.
+ * <p>
+ * Values are stripped and lower-cased, so a case-insensitive collation never finds a match the filter ruled out.
+ * Until the first load finishes, or when the filter is disabled, {@link #mightContain(String)} is always true and
+ * callers query the database as before. Each instance only learns of writes made through it, and nothing in the
+ * schema rejects a duplicate, so an absent answer is only trustworthy when a single instance writes the column; the
+ * filters are disabled unless {@code jsdrugstore.unique-filter.enabled} is set.
+ */
+public abstract class UniqueValueFilter {
+
+    public static final String METRIC_PREFIX = "jsdrugstore.unique.filter";
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    private final boolean enabled;
+
+    private final double falsePositiveRate;
+
+    private final long minCapacity;
+
+    private final Counter absentChecks;
+
+    private final Counter possibleChecks;
+
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter = new BloomFilter(1, 0.5);
+
+    private volatile boolean building;
+
+    private volatile boolean ready;
+
+    protected UniqueValueFilter(String name, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                boolean enabled, double falsePositiveRate, long minCapacity) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+
+        Gauge.builder(METRIC_PREFIX + ".size", this, f -> f.filter.sizeInBytes())
+                .description("Memory used by the filter bits")
+                .baseUnit("bytes")
+                .tag("filter", name)
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + ".values", this, f -> f.filter.approximateValueCount())
+                .description("Approximate number of distinct values added to the filter")
+                .tag("filter", name)
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + ".false.positive.rate", this, f -> f.filter.expectedFalsePositiveRate())
+                .description("Expected chance that a value never stored still has to be checked in the database")
+                .tag("filter", name)
+                .register(meterRegistry);
+
+        absentChecks = checkCounter(meterRegistry, name, "absent");
+        possibleChecks = checkCounter(meterRegistry, name, "possible");
+
+        falsePositives = Counter.builder(METRIC_PREFIX + ".false.positives")
+                .description("Checks the filter passed to the database that found no match")
+                .tag("filter", name)
+                .register(meterRegistry);
+    }
+
+    protected abstract long countAll();
+
+    protected abstract Stream<String> streamAllValues();
+
+    protected abstract List<String> findValuesByIdIn(Collection<Long> ids);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled)
+            return;
+
+        building = true;
+        changedWhileBuilding.clear();
+
+        BloomFilter builtFilter = transactionTemplate.execute(status -> {
+            BloomFilter newFilter = new BloomFilter(Math.max(minCapacity, 2 * countAll()), falsePositiveRate);
+
+            try (Stream<String> values = streamAllValues()) {
+                values.filter(Objects::nonNull).forEach(value -> newFilter.put(normalize(value)));
+            }
+
+            return newFilter;
+        });
+
+        filter = Objects.requireNonNull(builtFilter);
+        building = false;
+        ready = true;
+
+        refresh(new ArrayList<>(changedWhileBuilding));
+    }
+
+    @Scheduled(fixedDelayString = "${jsdrugstore.unique-filter.resize-check-interval-ms:60000}")
+    public void rebuildIfSaturated() {
+        if (ready && filter.expectedFalsePositiveRate() > 2 * falsePositiveRate)
+            rebuild();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns false only if no stored row can have this value, in which case the database need not be queried.
+     */
+    public boolean mightContain(String value) {
+        if (!ready || value == null)
+            return true;
+
+        if (!filter.mightContain(normalize(value))) {
+            absentChecks.increment();
+            return false;
+        }
+
+        possibleChecks.increment();
+        return true;
+    }
+
+    /**
+     * Records that the database found no match for a value {@link #mightContain(String)} let through.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    protected void onChanged(Collection<Long> ids) {
+        if (building)
+            changedWhileBuilding.addAll(ids);
+
+        refresh(ids);
+    }
+
+    private void refresh(Collection<Long> ids) {
+        if (ids.isEmpty() || !enabled)
+            return;
+
+        BloomFilter currentFilter = filter;
+
+        for (String value : QueryChunks.fetchInChunks(ids, this::findValuesByIdIn)) {
+            if (value != null)
+                currentFilter.put(normalize(value));
+        }
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder(METRIC_PREFIX + ".checks")
+                .description("Uniqueness checks answered by the filter (absent) or passed to the database (possible)")
+                .tag("filter", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String normalize(String value) {
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+}
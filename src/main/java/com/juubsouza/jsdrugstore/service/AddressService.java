@@ -7,6 +7,7 @@ import com.juubsouza.jsdrugstore.model.dto.AddressDTO;
 import com.juubsouza.jsdrugstore.model.dto.AddressDTOAdd;
 import com.juubsouza.jsdrugstore.repository.AddressRepository;
 import com.juubsouza.jsdrugstore.repository.CustomerAddressRepository;
+import com.juubsouza.jsdrugstore.repository.CustomerRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,26 +20,26 @@ public class AddressService {
 
     private final AddressRepository addressRepository;
     private final CustomerAddressRepository customerAddressRepository;
+    private final CustomerRepository customerRepository;
 
     public boolean addressExists(Long id) {
         return addressRepository.existsById(id);
     }
 
     @Autowired
-    public AddressService(AddressRepository addressRepository, CustomerAddressRepository customerAddressRepository) {
+    public AddressService(AddressRepository addressRepository, CustomerAddressRepository customerAddressRepository,
+                          CustomerRepository customerRepository) {
         this.addressRepository = addressRepository;
         this.customerAddressRepository = customerAddressRepository;
+        this.customerRepository = customerRepository;
     }
 
+    @Transactional
     public void setAddressAsShippingTrue(Long id) {
         addressRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Address not found"));
         CustomerAddress customerAddress = customerAddressRepository.findByAddressId(id).orElseThrow(() -> new EntityNotFoundException("CustomerAddress not found"));
 
-        setAllCustomerAddressToIsShippingFalse(customerAddress.getCustomer().getId());
-
-        customerAddress.setIsShipping(true);
-
-        customerAddressRepository.save(customerAddress);
+        setShippingAddress(customerAddress.getCustomer().getId(), id);
     }
 
     @Transactional
@@ -52,19 +53,19 @@ public class AddressService {
 
         Address addedAddress = addressRepository.save(address);
 
-        if (addressDTOAdd.isShipping())
-            setAllCustomerAddressToIsShippingFalse(addressDTOAdd.getCustomerId());
-
         Customer customer = new Customer();
         customer.setId(addressDTOAdd.getCustomerId());
 
         CustomerAddress customerAddress = new CustomerAddress();
-        customerAddress.setIsShipping(addressDTOAdd.isShipping());
+        customerAddress.setIsShipping(false);
         customerAddress.setAddress(address);
         customerAddress.setCustomer(customer);
 
         customerAddressRepository.save(customerAddress);
 
+        if (addressDTOAdd.isShipping())
+            setShippingAddress(addressDTOAdd.getCustomerId(), addedAddress.getId());
+
         return new AddressDTO(addedAddress.getId(), addedAddress.getDetails(), addedAddress.getCity(), addedAddress.getState(),
                 addedAddress.getCountry(), addressDTOAdd.isShipping());
     }
@@ -97,24 +98,25 @@ public class AddressService {
         CustomerAddress customerAddress = customerAddressRepository.findByAddressId(addressDTOUpdate.getId())
                 .orElseThrow(() -> new EntityNotFoundException("CustomerAddress not found"));
 
-        if (addressDTOUpdate.isShipping())
-            setAllCustomerAddressToIsShippingFalse(customerAddress.getCustomer().getId());
-
-        customerAddress.setIsShipping(addressDTOUpdate.isShipping());
-
-        customerAddressRepository.save(customerAddress);
+        if (addressDTOUpdate.isShipping()) {
+            setShippingAddress(customerAddress.getCustomer().getId(), existingAddress.getId());
+        } else {
+            customerAddress.setIsShipping(false);
+            customerAddressRepository.save(customerAddress);
+        }
 
         return new AddressDTO(existingAddress.getId(), existingAddress.getDetails(), existingAddress.getCity(), existingAddress.getState(),
                 existingAddress.getCountry(), addressDTOUpdate.isShipping());
     }
 
-    private void setAllCustomerAddressToIsShippingFalse(Long customerId) {
-        List<CustomerAddress> customerAddresses = customerAddressRepository.findAllByCustomerId(customerId);
-
-        for (CustomerAddress customerAddress : customerAddresses) {
-            customerAddress.setIsShipping(false);
-        }
+    /**
+     * Makes the address the customer's only shipping address with a single update, which only touches the
+     * previous and the new shipping address. Locking the customer row first serializes switches for the same
+     * customer, so two concurrent switches cannot both leave their address marked.
+     */
+    private void setShippingAddress(Long customerId, Long addressId) {
+        customerRepository.findByIdForUpdate(customerId).orElseThrow(() -> new EntityNotFoundException("Customer not found"));
 
-        customerAddressRepository.saveAll(customerAddresses);
+        customerAddressRepository.setShippingAddress(customerId, addressId);
     }
 }
@@ -0,0 +1,60 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.model.dto.CustomerDTO;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs read queries on a small fixed pool so the request thread can be released while JDBC blocks. The pool
+ * caps how many of these reads reach the database at once and the queue caps how many may wait, anything
+ * beyond that is rejected with a {@link RejectedExecutionException} instead of piling up.
+ */
+@Service
+public class AsyncReadService {
+
+    private final ProductService productService;
+    private final CustomerService customerService;
+    private final SaleService saleService;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public AsyncReadService(ProductService productService, CustomerService customerService, SaleService saleService,
+                            @Value("${jsdrugstore.read-executor.pool-size:16}") int poolSize,
+                            @Value("${jsdrugstore.read-executor.queue-capacity:2000}") int queueCapacity) {
+        this.productService = productService;
+        this.customerService = customerService;
+        this.saleService = saleService;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("async-read-"));
+    }
+
+    public CompletableFuture<PageDTO<ProductDTO>> findProductsPage(String cursor, int size) throws RejectedExecutionException {
+        return supply(() -> productService.findProductsPage(cursor, size));
+    }
+
+    public CompletableFuture<PageDTO<CustomerDTO>> findCustomersPage(String cursor, int size) throws RejectedExecutionException {
+        return supply(() -> customerService.findCustomersPage(cursor, size));
+    }
+
+    public CompletableFuture<PageDTO<SaleDTO>> findSalesPageForCustomer(Long customerId, String cursor, int size) throws RejectedExecutionException {
+        return supply(() -> saleService.findSalesPageForCustomer(customerId, cursor, size));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> read) {
+        return CompletableFuture.supplyAsync(read, executor);
+    }
+}
@@ -0,0 +1,139 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.catalogue.CatalogueCsvReader;
+import com.juubsouza.jsdrugstore.event.ProductChangedEvent;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
+import com.juubsouza.jsdrugstore.model.CatalogueImportRow;
+import com.juubsouza.jsdrugstore.model.dto.CatalogueImportResultDTO;
+import com.juubsouza.jsdrugstore.repository.CatalogueImportRowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports supplier catalogue feeds with the same handful of statements whatever their size. The feed is streamed
+ * into the {@code catalogue_import_row} staging table, then merged in one transaction: later rows win over earlier
+ * rows with the same product name, rows are matched to products by name, and the product, price and stock tables
+ * are each merged with one statement. New products, prices and stocks take their ids from blocks reserved with one
+ * sequence value per {@value CatalogueImportRowRepository#ID_BLOCK_SIZE} rows, the same blocks Hibernate takes, so
+ * an import uses every id it draws. Staged rows and blocks are deleted afterwards, whether the import succeeded or
+ * not.
+ * <p>
+ * While the {@link InventoryLedger} is enabled it owns stock levels, so imports only insert stock for products
+ * that have none and set the feed's levels of the others through the ledger, which journals them when the merge
+ * commits. The merge statements bypass Hibernate, which clears its second-level cache when they run, and
+ * every imported product is published in one {@link ProductChangedEvent}.
+ */
+@Service
+public class CatalogueImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogueImportService.class);
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final CatalogueImportRowRepository catalogueImportRowRepository;
+
+    private final InventoryLedger inventoryLedger;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CatalogueImportService(CatalogueImportRowRepository catalogueImportRowRepository, InventoryLedger inventoryLedger,
+                                  ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.catalogueImportRowRepository = catalogueImportRowRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports a CSV feed with a header naming its {@code name}, {@code manufacturer}, {@code price} and optional
+     * {@code stock} columns. Invalid rows are skipped and reported in the result.
+     *
+     * @throws IllegalArgumentException if the feed is empty or its header lacks a required column
+     */
+    public CatalogueImportResultDTO importCatalogue(Reader feed) throws IOException, IllegalArgumentException {
+        long startedAt = System.nanoTime();
+        String importId = UUID.randomUUID().toString();
+        CatalogueCsvReader rows = new CatalogueCsvReader(feed, importId, MAX_REPORTED_ERRORS);
+        CatalogueImportResultDTO result;
+
+        try {
+            catalogueImportRowRepository.stage(rows);
+            result = transactionTemplate.execute(status -> merge(importId));
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                catalogueImportRowRepository.deleteByImportId(importId);
+                catalogueImportRowRepository.deleteIdBlocksByImportId(importId);
+            });
+        }
+
+        long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), 1);
+
+        result.setRowsRead(rows.getRowsRead());
+        result.setRowsRejected(rows.getRowsRejected());
+        result.setErrors(rows.getErrors());
+        result.setElapsedMillis(elapsedMillis);
+        result.setRowsPerSecond(rows.getRowsRead() * 1000 / elapsedMillis);
+
+        logger.info("Imported catalogue {}: {} rows in {} ms ({} rows/s), {} rejected, {} products added, {} updated",
+                importId, result.getRowsRead(), elapsedMillis, result.getRowsPerSecond(), result.getRowsRejected(),
+                result.getProductsAdded(), result.getProductsUpdated());
+
+        return result;
+    }
+
+    private int setLedgerLevels(String importId) {
+        Map<Long, Integer> levels = new HashMap<>();
+
+        for (CatalogueImportRow row : catalogueImportRowRepository.findStockedRowsOfStockedProducts(importId))
+            levels.put(row.getProductId(), row.getStock());
+
+        return levels.isEmpty() ? 0 : inventoryLedger.setLevels(levels);
+    }
+
+    private CatalogueImportResultDTO merge(String importId) {
+        CatalogueImportResultDTO result = new CatalogueImportResultDTO();
+
+        result.setRowsDuplicated(catalogueImportRowRepository.deleteDuplicateNames(importId));
+
+        catalogueImportRowRepository.matchExistingProducts(importId);
+
+        catalogueImportRowRepository.reserveProductIds(importId);
+        int productsAdded = catalogueImportRowRepository.assignNewProductIds(importId);
+
+        result.setProductsAdded(productsAdded);
+        result.setProductsUpdated(catalogueImportRowRepository.mergeProducts(importId) - productsAdded);
+
+        catalogueImportRowRepository.reservePriceIds(importId);
+        catalogueImportRowRepository.assignNewPriceIds(importId);
+        result.setPricesChanged(catalogueImportRowRepository.mergePrices(importId));
+
+        catalogueImportRowRepository.reserveStockIds(importId);
+        catalogueImportRowRepository.assignNewStockIds(importId);
+        result.setStocksChanged(inventoryLedger.isEnabled()
+                ? catalogueImportRowRepository.insertMissingStocks(importId) + setLedgerLevels(importId)
+                : catalogueImportRowRepository.mergeStocks(importId));
+
+        List<Long> productIds = catalogueImportRowRepository.findProductIdsByImportId(importId);
+
+        if (!productIds.isEmpty())
+            eventPublisher.publishEvent(new ProductChangedEvent(productIds));
+
+        return result;
+    }
+}
@@ -1,11 +1,19 @@
 package com.juubsouza.jsdrugstore.service;
 
+import com.juubsouza.jsdrugstore.event.CustomerChangedEvent;
 import com.juubsouza.jsdrugstore.model.Customer;
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTO;
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.repository.CustomerRepository;
+import com.juubsouza.jsdrugstore.search.CustomerEmailFilter;
+import com.juubsouza.jsdrugstore.search.CustomerNameIndex;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,10 +22,17 @@ import java.util.List;
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerNameIndex customerNameIndex;
+    private final CustomerEmailFilter customerEmailFilter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, CustomerNameIndex customerNameIndex, CustomerEmailFilter customerEmailFilter,
+                           ApplicationEventPublisher eventPublisher) {
         this.customerRepository = customerRepository;
+        this.customerNameIndex = customerNameIndex;
+        this.customerEmailFilter = customerEmailFilter;
+        this.eventPublisher = eventPublisher;
     }
 
     public CustomerDTO addCustomer(CustomerDTOAdd customerDTOAdd) {
@@ -29,6 +44,8 @@ public class CustomerService {
 
         customerRepository.save(customer);
 
+        eventPublisher.publishEvent(new CustomerChangedEvent(List.of(customer.getId())));
+
         return new CustomerDTO(customer.getId(), customer.getFirstName(), customer.getLastName(), customer.getEmail());
     }
 
@@ -36,14 +53,25 @@ public class CustomerService {
         Customer existingCustomer = customerRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Customer not found"));
 
         customerRepository.deleteById(existingCustomer.getId());
+
+        eventPublisher.publishEvent(new CustomerChangedEvent(List.of(existingCustomer.getId())));
     }
 
     public List<CustomerDTO> findAllCustomers() {
         return customerRepository.findAllDTOs();
     }
 
+    public PageDTO<CustomerDTO> findCustomersPage(String cursor, int size) {
+        List<CustomerDTO> customers = customerRepository.findDTOsAfterId(CursorPagination.decodeCursor(cursor), PageRequest.of(0, size + 1));
+
+        return CursorPagination.toPage(customers, size, CustomerDTO::getId);
+    }
+
     public List<CustomerDTO> findCustomersByFirstOrLastName(String name) {
-        return customerRepository.findDTOsByFirstOrLastName(name);
+        if (!customerNameIndex.isReady())
+            return customerRepository.findDTOsByFirstOrLastName(name);
+
+        return QueryChunks.fetchInChunks(customerNameIndex.findIdsByName(name), customerRepository::findDTOsByIdIn);
     }
 
     public CustomerDTO findCustomerById(Long id) {
@@ -59,11 +87,21 @@ public class CustomerService {
 
         customerRepository.save(existingCustomer);
 
+        eventPublisher.publishEvent(new CustomerChangedEvent(List.of(customerDTO.getId())));
+
         return customerDTO;
     }
 
     public boolean emailAlreadyRegistered(String email) {
-        return customerRepository.existsByEmail(email);
+        if (!customerEmailFilter.mightContain(email))
+            return false;
+
+        boolean registered = customerRepository.existsByEmail(email);
+
+        if (!registered)
+            customerEmailFilter.recordFalsePositive();
+
+        return registered;
     }
 
     public boolean customerExists(Long id) {
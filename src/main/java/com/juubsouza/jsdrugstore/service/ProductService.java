@@ -1,19 +1,39 @@
 package com.juubsouza.jsdrugstore.service;
 
+import com.juubsouza.jsdrugstore.config.CacheConfig;
+import com.juubsouza.jsdrugstore.event.ProductChangedEvent;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
 import com.juubsouza.jsdrugstore.model.Price;
 import com.juubsouza.jsdrugstore.model.Product;
 import com.juubsouza.jsdrugstore.model.Stock;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductFacetsDTO;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTOAdd;
 import com.juubsouza.jsdrugstore.repository.PriceRepository;
 import com.juubsouza.jsdrugstore.repository.ProductRepository;
 import com.juubsouza.jsdrugstore.repository.StockRepository;
+import com.juubsouza.jsdrugstore.search.ProductFacetIndex;
+import com.juubsouza.jsdrugstore.search.ProductNameFilter;
+import com.juubsouza.jsdrugstore.search.ProductSearchIndex;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
@@ -21,12 +41,24 @@ public class ProductService {
     private final PriceRepository priceRepository;
     private final ProductRepository productRepository;
     private final StockRepository stockRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductNameFilter productNameFilter;
+    private final ProductFacetIndex productFacetIndex;
+    private final InventoryLedger inventoryLedger;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ProductService(PriceRepository priceRepository, ProductRepository productRepository, StockRepository stockRepository) {
+    public ProductService(PriceRepository priceRepository, ProductRepository productRepository, StockRepository stockRepository,
+                          ProductSearchIndex productSearchIndex, ProductNameFilter productNameFilter, ProductFacetIndex productFacetIndex,
+                          InventoryLedger inventoryLedger, ApplicationEventPublisher eventPublisher) {
         this.priceRepository = priceRepository;
         this.productRepository = productRepository;
         this.stockRepository = stockRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productNameFilter = productNameFilter;
+        this.productFacetIndex = productFacetIndex;
+        this.inventoryLedger = inventoryLedger;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -49,6 +81,8 @@ public class ProductService {
         priceRepository.save(price);
         stockRepository.save(stock);
 
+        eventPublisher.publishEvent(new ProductChangedEvent(List.of(createdProduct.getId())));
+
         return new ProductDTO(createdProduct.getId(), createdProduct.getName(), createdProduct.getManufacturer(), price.getPrice(), stock.getStock());
     }
 
@@ -57,18 +91,79 @@ public class ProductService {
         Product product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Product not found"));
 
         productRepository.deleteById(product.getId());
+
+        if (inventoryLedger.isEnabled())
+            inventoryLedger.evict(product.getId());
+
+        eventPublisher.publishEvent(new ProductChangedEvent(List.of(product.getId())));
     }
 
     public List<ProductDTO> findAllProducts() {
         return productRepository.findAllDTOs();
     }
 
+    public PageDTO<ProductDTO> findProductsPage(String cursor, int size) {
+        List<ProductDTO> products = productRepository.findDTOsAfterId(CursorPagination.decodeCursor(cursor), PageRequest.of(0, size + 1));
+
+        return CursorPagination.toPage(products, size, ProductDTO::getId);
+    }
+
+    @Transactional
+    public void exportProducts(Consumer<ProductDTO> consumer) {
+        try (Stream<ProductDTO> products = productRepository.streamAllDTOs()) {
+            products.forEach(consumer);
+        }
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, unless = "#result == null")
     public ProductDTO findProductById(Long id) {
         return productRepository.findDTOById(id).orElse(null);
     }
 
     public List<ProductDTO> findProductsByName(String name) {
-        return productRepository.findDTOsByName(name);
+        if (!productSearchIndex.isReady())
+            return productRepository.findDTOsByName(name);
+
+        return QueryChunks.fetchInChunks(productSearchIndex.findIdsByName(name), productRepository::findDTOsByIdIn);
+    }
+
+    public List<ProductDTO> searchProducts(String query, int limit) {
+        if (!productSearchIndex.isReady())
+            return productRepository.findDTOsByName(query).stream().limit(limit).collect(Collectors.toList());
+
+        List<Long> rankedIds = productSearchIndex.search(query, limit);
+
+        if (rankedIds.isEmpty())
+            return new ArrayList<>();
+
+        Map<Long, ProductDTO> productsById = productRepository.findDTOsByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+
+        return rankedIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public ProductFacetsDTO filterProducts(List<String> manufacturers, List<String> priceBands, Boolean inStock, int limit)
+            throws IllegalStateException, IllegalArgumentException {
+        if (!productFacetIndex.isReady())
+            throw new IllegalStateException("Product filters are not available yet.");
+
+        ProductFacetIndex.Result result = productFacetIndex.filter(manufacturers, priceBands, inStock, limit);
+        List<ProductDTO> products = new ArrayList<>();
+
+        if (!result.getProductIds().isEmpty()) {
+            Map<Long, ProductDTO> productsById = productRepository.findDTOsByIdIn(result.getProductIds()).stream()
+                    .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+
+            products = result.getProductIds().stream()
+                    .map(productsById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        return new ProductFacetsDTO(result.getTotal(), products, result.getManufacturers(), result.getPriceBands(), result.getStock());
     }
 
     @Transactional
@@ -81,17 +176,31 @@ public class ProductService {
         Price price = priceRepository.findByProductId(existingProduct.getId()).orElseThrow(() -> new EntityNotFoundException("Price not found"));
         price.setPrice(productDTO.getPrice());
 
-        Stock stock = stockRepository.findByProductId(existingProduct.getId()).orElseThrow(() -> new EntityNotFoundException("Stock not found"));
-        stock.setStock(productDTO.getStock());
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.setLevel(existingProduct.getId(), productDTO.getStock());
+        } else {
+            Stock stock = stockRepository.findByProductId(existingProduct.getId()).orElseThrow(() -> new EntityNotFoundException("Stock not found"));
+            stock.setStock(productDTO.getStock());
+            stockRepository.save(stock);
+        }
 
         productRepository.save(existingProduct);
         priceRepository.save(price);
-        stockRepository.save(stock);
+
+        eventPublisher.publishEvent(new ProductChangedEvent(List.of(existingProduct.getId())));
 
         return productDTO;
     }
 
     public boolean productExists(String name) {
-        return productRepository.existsByName(name);
+        if (!productNameFilter.mightContain(name))
+            return false;
+
+        boolean exists = productRepository.existsByName(name);
+
+        if (!exists)
+            productNameFilter.recordFalsePositive();
+
+        return exists;
     }
 }
@@ -1,19 +1,32 @@
 package com.juubsouza.jsdrugstore.service;
 
+import com.juubsouza.jsdrugstore.event.SaleRecordedEvent;
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.exception.InvalidStockHoldException;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
 import com.juubsouza.jsdrugstore.model.*;
+import com.juubsouza.jsdrugstore.model.dto.BasketProductDTO;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleBatchResultDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTOAdd;
 import com.juubsouza.jsdrugstore.model.dto.SaleProductDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
 import com.juubsouza.jsdrugstore.repository.*;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
+import com.juubsouza.jsdrugstore.utils.LongObjectMap;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,91 +44,220 @@ public class SaleService {
 
     private final StockRepository stockRepository;
 
+    private final InventoryLedger inventoryLedger;
+
+    private final StockHoldService stockHoldService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     @Autowired
     public SaleService(SaleRepository saleRepository, SaleProductRepository saleProductRepository, SellerRepository sellerRepository,
-                       CustomerRepository customerRepository, ProductRepository productRepository, StockRepository stockRepository) {
+                       CustomerRepository customerRepository, ProductRepository productRepository, StockRepository stockRepository,
+                       InventoryLedger inventoryLedger, StockHoldService stockHoldService, ApplicationEventPublisher eventPublisher) {
         this.saleRepository = saleRepository;
         this.saleProductRepository = saleProductRepository;
         this.sellerRepository = sellerRepository;
         this.customerRepository = customerRepository;
         this.productRepository = productRepository;
         this.stockRepository = stockRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.stockHoldService = stockHoldService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public SaleDTO addSale(SaleDTOAdd saleDTOAdd) throws EntityNotFoundException {
-        Sale sale = new Sale();
-        sale.setPaymentMethod(saleDTOAdd.getPaymentMethod());
-        sale.setPaymentStatus("PENDING");
-        sale.setShippingStatus("PENDING");
-
         Customer customer = customerRepository.findById(saleDTOAdd.getCustomerId()).orElseThrow(() -> new EntityNotFoundException("Customer not found."));
         Seller seller = sellerRepository.findById(saleDTOAdd.getSellerId()).orElseThrow(() -> new EntityNotFoundException("Seller not found."));
 
-        sale.setCustomer(customer);
-        sale.setSeller(seller);
+        Sale sale = newPendingSale(saleDTOAdd.getPaymentMethod(), customer, seller);
 
         List<SaleProductDTOAdd> saleProductDTOAddList = saleDTOAdd.getSaleProducts();
 
-        calculateTotal(saleProductDTOAddList, sale);
+        LongObjectMap<BasketProductDTO> fetchedProducts = getProductsUsingDTOList(saleProductDTOAddList);
+
+        calculateTotal(saleProductDTOAddList, fetchedProducts, sale);
+
+        if (saleDTOAdd.getHoldId() != null)
+            confirmHold(saleDTOAdd.getHoldId(), saleProductDTOAddList);
+        else
+            updateStocks(saleProductDTOAddList, fetchedProducts);
+
         saleRepository.save(sale);
 
         List<SaleProduct> saleProductsToBeAdded = new ArrayList<>();
+        List<SaleProductDTO> saleProductDTOList = buildSaleProducts(sale, saleProductDTOAddList, fetchedProducts, saleProductsToBeAdded);
 
-        for (SaleProductDTOAdd saleProductDTOAdd : saleProductDTOAddList) {
-            SaleProduct saleProduct = new SaleProduct();
-            saleProduct.setQuantity(saleProductDTOAdd.getQuantity());
-            saleProduct.setSale(sale);
+        saleProductRepository.saveAll(saleProductsToBeAdded);
 
-            Product product = productRepository.findById(saleProductDTOAdd.getProductId()).orElseThrow(() -> new EntityNotFoundException("Product not found."));
-            saleProduct.setProduct(product);
+        eventPublisher.publishEvent(newSaleRecordedEvent(sale, saleProductDTOAddList, fetchedProducts, LocalDateTime.now()));
 
-            saleProductsToBeAdded.add(saleProduct);
+        return toSaleDTO(sale, saleProductDTOList);
+    }
+
+    @Transactional
+    public List<SaleBatchResultDTO> addSales(List<SaleDTOAdd> saleDTOAdds) {
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> sellerIds = new HashSet<>();
+        Map<Long, Integer> productQuantities = new HashMap<>();
+
+        for (SaleDTOAdd saleDTOAdd : saleDTOAdds) {
+            customerIds.add(saleDTOAdd.getCustomerId());
+            sellerIds.add(saleDTOAdd.getSellerId());
+
+            for (SaleProductDTOAdd saleProductDTOAdd : saleDTOAdd.getSaleProducts())
+                productQuantities.merge(saleProductDTOAdd.getProductId(), saleProductDTOAdd.getQuantity(), Integer::sum);
+        }
+
+        Map<Long, Customer> customers = new HashMap<>();
+        QueryChunks.fetchInChunks(customerIds, customerRepository::findAllById).forEach(c -> customers.put(c.getId(), c));
+
+        Map<Long, Seller> sellers = new HashMap<>();
+        QueryChunks.fetchInChunks(sellerIds, sellerRepository::findAllById).forEach(s -> sellers.put(s.getId(), s));
+
+        List<BasketProductDTO> basketProducts = productRepository.findBasket(productQuantities);
+        LongObjectMap<BasketProductDTO> products = new LongObjectMap<>(basketProducts.size());
+        Map<Long, Integer> availableStock = new HashMap<>();
+
+        for (BasketProductDTO product : basketProducts) {
+            products.put(product.getId(), product);
+
+            if (inventoryLedger.isEnabled()) {
+                Long level = inventoryLedger.findLevel(product.getId());
+
+                if (level != null)
+                    availableStock.put(product.getId(), level.intValue());
+            } else if (product.getStock() != null) {
+                availableStock.put(product.getId(), product.getStock());
+            }
+        }
+
+        Map<Long, Integer> stockDeltas = new TreeMap<>();
+        List<SaleDTOAdd> acceptedSaleDTOAdds = new ArrayList<>();
+        List<Map<Long, Integer>> acceptedSaleQuantities = new ArrayList<>();
+        List<SaleBatchResultDTO> results = new ArrayList<>();
+
+        for (SaleDTOAdd saleDTOAdd : saleDTOAdds) {
+            Map<Long, Integer> saleQuantities = new HashMap<>();
+
+            for (SaleProductDTOAdd saleProductDTOAdd : saleDTOAdd.getSaleProducts())
+                saleQuantities.merge(saleProductDTOAdd.getProductId(), saleProductDTOAdd.getQuantity(), Integer::sum);
+
+            String rejection = findBatchRejection(saleDTOAdd, saleQuantities, customers, sellers, products, availableStock);
+
+            if (rejection != null) {
+                results.add(new SaleBatchResultDTO(null, false, rejection, null));
+                continue;
+            }
+
+            for (Map.Entry<Long, Integer> saleQuantity : saleQuantities.entrySet()) {
+                availableStock.merge(saleQuantity.getKey(), -saleQuantity.getValue(), Integer::sum);
+                stockDeltas.merge(saleQuantity.getKey(), saleQuantity.getValue(), Integer::sum);
+            }
+
+            acceptedSaleDTOAdds.add(saleDTOAdd);
+            acceptedSaleQuantities.add(saleQuantities);
+            results.add(new SaleBatchResultDTO(null, true, "Created", null));
+        }
+
+        Map<Integer, Long> stockRejections = takeBatchStock(stockDeltas, acceptedSaleQuantities);
+
+        if (!stockDeltas.isEmpty())
+            eventPublisher.publishEvent(new StockChangedEvent(stockDeltas.keySet()));
+
+        List<Sale> salesToBeAdded = new ArrayList<>();
+        List<SaleDTOAdd> addedSaleDTOAdds = new ArrayList<>();
+        List<SaleProduct> saleProductsToBeAdded = new ArrayList<>();
+        List<List<SaleProductDTO>> saleProductDTOLists = new ArrayList<>();
+        int acceptedSaleIndex = 0;
+
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isCreated())
+                continue;
+
+            Long outOfStockProductId = stockRejections.get(acceptedSaleIndex);
+            SaleDTOAdd saleDTOAdd = acceptedSaleDTOAdds.get(acceptedSaleIndex++);
+
+            if (outOfStockProductId != null) {
+                results.set(i, new SaleBatchResultDTO(null, false, "Insufficient stock for product " + outOfStockProductId + ".", null));
+                continue;
+            }
+
+            Sale sale = newPendingSale(saleDTOAdd.getPaymentMethod(), customers.get(saleDTOAdd.getCustomerId()),
+                    sellers.get(saleDTOAdd.getSellerId()));
+
+            calculateTotal(saleDTOAdd.getSaleProducts(), products, sale);
+
+            salesToBeAdded.add(sale);
+            addedSaleDTOAdds.add(saleDTOAdd);
+            saleProductDTOLists.add(buildSaleProducts(sale, saleDTOAdd.getSaleProducts(), products, saleProductsToBeAdded));
         }
 
+        saleRepository.saveAll(salesToBeAdded);
         saleProductRepository.saveAll(saleProductsToBeAdded);
 
-        SaleDTO saleDTO = new SaleDTO();
-        saleDTO.setId(sale.getId());
-        saleDTO.setPaymentMethod(sale.getPaymentMethod());
-        saleDTO.setPaymentStatus(sale.getPaymentStatus());
-        saleDTO.setShippingStatus(sale.getShippingStatus());
-        saleDTO.setTotal(sale.getTotal());
-        saleDTO.setCustomerId(sale.getCustomer().getId());
-        saleDTO.setSellerId(sale.getSeller().getId());
+        LocalDateTime soldAt = LocalDateTime.now();
 
-        List<SaleProductDTO> saleProductDTOList = saleProductRepository.findAllDTOsBySaleId(sale.getId());
+        for (int i = 0; i < salesToBeAdded.size(); i++)
+            eventPublisher.publishEvent(newSaleRecordedEvent(salesToBeAdded.get(i), addedSaleDTOAdds.get(i).getSaleProducts(), products, soldAt));
 
-        saleDTO.setSaleProducts(saleProductDTOList);
+        int addedSaleIndex = 0;
 
-        updateStocks(saleDTOAdd.getSaleProducts());
+        for (SaleBatchResultDTO result : results) {
+            if (!result.isCreated())
+                continue;
 
-        return saleDTO;
+            result.setSale(toSaleDTO(salesToBeAdded.get(addedSaleIndex), saleProductDTOLists.get(addedSaleIndex)));
+            addedSaleIndex++;
+        }
+
+        return results;
     }
 
     public List<SaleDTO> findAllSalesForCustomer(Long customerId) {
         List<SaleDTO> saleDTOs = saleRepository.findAllDTOsByCustomerId(customerId);
 
-        for (SaleDTO saleDTO : saleDTOs) {
-            List<SaleProductDTO> saleProductDTOs = saleProductRepository.findAllDTOsBySaleId(saleDTO.getId());
+        if (saleDTOs.isEmpty())
+            return saleDTOs;
 
-            saleDTO.setSaleProducts(saleProductDTOs);
-        }
+        Map<Long, List<SaleProductDTO>> saleProductsBySaleId = saleProductRepository.findAllDTOsByCustomerId(customerId).stream()
+                .collect(Collectors.groupingBy(SaleProductDTO::getSaleId));
+
+        for (SaleDTO saleDTO : saleDTOs)
+            saleDTO.setSaleProducts(saleProductsBySaleId.getOrDefault(saleDTO.getId(), new ArrayList<>()));
 
         return saleDTOs;
     }
 
-    private void calculateTotal(List<SaleProductDTOAdd> products, Sale sale) {
-        BigDecimal total = BigDecimal.ZERO;
+    public PageDTO<SaleDTO> findSalesPageForCustomer(Long customerId, String cursor, int size) {
+        List<SaleDTO> saleDTOs = saleRepository.findDTOsByCustomerIdAfterId(customerId, CursorPagination.decodeCursor(cursor),
+                PageRequest.of(0, size + 1));
+
+        PageDTO<SaleDTO> page = CursorPagination.toPage(saleDTOs, size, SaleDTO::getId);
+
+        if (page.getItems().isEmpty())
+            return page;
+
+        List<Long> saleIds = page.getItems().stream().map(SaleDTO::getId).collect(Collectors.toList());
+
+        Map<Long, List<SaleProductDTO>> saleProductsBySaleId = saleProductRepository.findAllDTOsBySaleIdIn(saleIds).stream()
+                .collect(Collectors.groupingBy(SaleProductDTO::getSaleId));
 
-        List<Product> fetchedProducts = getProductsUsingDTOList(products);
+        for (SaleDTO saleDTO : page.getItems())
+            saleDTO.setSaleProducts(saleProductsBySaleId.getOrDefault(saleDTO.getId(), new ArrayList<>()));
+
+        return page;
+    }
+
+    static void calculateTotal(List<SaleProductDTOAdd> products, LongObjectMap<BasketProductDTO> fetchedProducts, Sale sale) {
+        BigDecimal total = BigDecimal.ZERO;
 
         for (SaleProductDTOAdd product : products) {
             Long productId = product.getProductId();
 
-            Product productToBeAdded = fetchProductForIteration(fetchedProducts, productId);
+            BasketProductDTO productToBeAdded = fetchProductForIteration(fetchedProducts, productId);
 
-            BigDecimal productPrice = productToBeAdded.getPrice().getPrice();
+            BigDecimal productPrice = productToBeAdded.getPrice();
             BigDecimal productQuantity = BigDecimal.valueOf(product.getQuantity());
 
             BigDecimal productCost = productPrice.multiply(productQuantity);
@@ -125,37 +267,216 @@ public class SaleService {
         sale.setTotal(total);
     }
 
-    private void updateStocks(List<SaleProductDTOAdd> products) {
-        List<Product> fetchedProducts = getProductsUsingDTOList(products);
+    private void confirmHold(Long holdId, List<SaleProductDTOAdd> products) throws InvalidStockHoldException {
+        Map<Long, Integer> heldQuantities = stockHoldService.confirm(holdId);
+        Map<Long, Integer> saleQuantities = new TreeMap<>();
 
-        List<Stock> stocksToBeUpdated = new ArrayList<>();
+        for (SaleProductDTOAdd product : products)
+            saleQuantities.merge(product.getProductId(), product.getQuantity(), Integer::sum);
 
-        for (SaleProductDTOAdd product : products) {
+        if (!heldQuantities.equals(saleQuantities))
+            throw new InvalidStockHoldException(holdId, "Sale products do not match stock hold " + holdId + ".");
+    }
+
+    private void updateStocks(List<SaleProductDTOAdd> products, LongObjectMap<BasketProductDTO> fetchedProducts) {
+        if (inventoryLedger.isEnabled()) {
+            Map<Long, Integer> quantities = new TreeMap<>();
+
+            for (SaleProductDTOAdd product : products)
+                quantities.merge(product.getProductId(), product.getQuantity(), Integer::sum);
+
+            inventoryLedger.reserve(quantities);
+            eventPublisher.publishEvent(new StockChangedEvent(quantities.keySet()));
+            return;
+        }
+
+        List<SaleProductDTOAdd> sortedProducts = products.stream()
+                .sorted(Comparator.comparing(SaleProductDTOAdd::getProductId))
+                .collect(Collectors.toList());
+
+        for (SaleProductDTOAdd product : sortedProducts) {
             Long productId = product.getProductId();
 
-            Product productToBeAdded = fetchProductForIteration(fetchedProducts, productId);
+            BasketProductDTO productToBeUpdated = fetchProductForIteration(fetchedProducts, productId);
+
+            Integer stock = productToBeUpdated.getStock();
 
-            Stock stock = stockRepository.findByProductId(productToBeAdded.getId()).orElseThrow(() -> new EntityNotFoundException("Stock not found."));
-            stock.setStock(stock.getStock() - product.getQuantity());
+            if (stock == null)
+                throw new EntityNotFoundException("Stock not found.");
 
-            stocksToBeUpdated.add(stock);
+            if (stock < product.getQuantity())
+                throw new InsufficientStockException(productId);
         }
 
-        stockRepository.saveAll(stocksToBeUpdated);
+        for (SaleProductDTOAdd product : sortedProducts) {
+            int updatedRows = stockRepository.decrementStock(product.getProductId(), product.getQuantity());
+
+            if (updatedRows == 0)
+                throw new InsufficientStockException(product.getProductId());
+        }
+
+        eventPublisher.publishEvent(new StockChangedEvent(sortedProducts.stream().map(SaleProductDTOAdd::getProductId).collect(Collectors.toSet())));
     }
 
-    private List<Product> getProductsUsingDTOList(List<SaleProductDTOAdd> products) {
-        List<Long> productIds = products.stream()
-                .map(SaleProductDTOAdd::getProductId)
-                .collect(Collectors.toList());
+    private Sale newPendingSale(String paymentMethod, Customer customer, Seller seller) {
+        Sale sale = new Sale();
+        sale.setPaymentMethod(paymentMethod);
+        sale.setPaymentStatus("PENDING");
+        sale.setShippingStatus("PENDING");
+        sale.setCustomer(customer);
+        sale.setSeller(seller);
+
+        return sale;
+    }
+
+    private List<SaleProductDTO> buildSaleProducts(Sale sale, List<SaleProductDTOAdd> products, LongObjectMap<BasketProductDTO> fetchedProducts,
+                                                   List<SaleProduct> saleProductsToBeAdded) {
+        List<SaleProductDTO> saleProductDTOList = new ArrayList<>();
+
+        for (SaleProductDTOAdd saleProductDTOAdd : products) {
+            BasketProductDTO product = fetchProductForIteration(fetchedProducts, saleProductDTOAdd.getProductId());
+
+            SaleProduct saleProduct = new SaleProduct();
+            saleProduct.setQuantity(saleProductDTOAdd.getQuantity());
+            saleProduct.setSale(sale);
+            saleProduct.setProduct(productRepository.getReferenceById(product.getId()));
+
+            saleProductsToBeAdded.add(saleProduct);
+            saleProductDTOList.add(new SaleProductDTO(saleProduct.getQuantity(), product.getId(), product.getName()));
+        }
+
+        return saleProductDTOList;
+    }
+
+    private SaleRecordedEvent newSaleRecordedEvent(Sale sale, List<SaleProductDTOAdd> products, LongObjectMap<BasketProductDTO> fetchedProducts,
+                                                   LocalDateTime soldAt) {
+        Map<Long, Integer> productUnits = new HashMap<>();
+        Map<Long, BigDecimal> productRevenue = new HashMap<>();
+
+        for (SaleProductDTOAdd product : products) {
+            BigDecimal productPrice = fetchProductForIteration(fetchedProducts, product.getProductId()).getPrice();
+
+            productUnits.merge(product.getProductId(), product.getQuantity(), Integer::sum);
+            productRevenue.merge(product.getProductId(), productPrice.multiply(BigDecimal.valueOf(product.getQuantity())), BigDecimal::add);
+        }
+
+        return new SaleRecordedEvent(soldAt, sale.getSeller().getId(), sale.getPaymentMethod(), sale.getTotal(), productUnits, productRevenue);
+    }
+
+    private SaleDTO toSaleDTO(Sale sale, List<SaleProductDTO> saleProductDTOList) {
+        SaleDTO saleDTO = new SaleDTO();
+        saleDTO.setId(sale.getId());
+        saleDTO.setPaymentMethod(sale.getPaymentMethod());
+        saleDTO.setPaymentStatus(sale.getPaymentStatus());
+        saleDTO.setShippingStatus(sale.getShippingStatus());
+        saleDTO.setTotal(sale.getTotal());
+        saleDTO.setCustomerId(sale.getCustomer().getId());
+        saleDTO.setSellerId(sale.getSeller().getId());
+        saleDTO.setSaleProducts(saleProductDTOList);
+
+        return saleDTO;
+    }
+
+    /**
+     * Takes the stock of a batch's accepted sales, given their merged quantities. Another checkout may have taken
+     * stock since the batch read it; then the last accepted sale using the product that ran out is dropped and its
+     * quantities are given back until the rest fit. Returns the product each dropped sale ran out of, keyed by the
+     * sale's position among the accepted sales, and leaves only the quantities actually taken in the deltas.
+     */
+    private Map<Integer, Long> takeBatchStock(Map<Long, Integer> stockDeltas, List<Map<Long, Integer>> saleQuantities) {
+        Map<Integer, Long> rejections = new HashMap<>();
+
+        if (inventoryLedger.isEnabled()) {
+            while (!stockDeltas.isEmpty()) {
+                try {
+                    inventoryLedger.reserve(stockDeltas);
+                    break;
+                } catch (InsufficientStockException e) {
+                    rejectLastSaleUsing(e.getProductId(), stockDeltas, saleQuantities, rejections, false);
+                }
+            }
+
+            return rejections;
+        }
+
+        for (Long productId : new ArrayList<>(stockDeltas.keySet())) {
+            while (stockDeltas.containsKey(productId) && stockRepository.decrementStock(productId, stockDeltas.get(productId)) == 0)
+                rejectLastSaleUsing(productId, stockDeltas, saleQuantities, rejections, true);
+        }
+
+        return rejections;
+    }
+
+    /**
+     * Drops the last accepted sale that uses the product. When stock is decremented product by product in id order,
+     * the sale's quantities of products with lower ids have already been taken and are put back.
+     */
+    private void rejectLastSaleUsing(Long productId, Map<Long, Integer> stockDeltas, List<Map<Long, Integer>> saleQuantities,
+                                     Map<Integer, Long> rejections, boolean returnTakenStock) {
+        for (int i = saleQuantities.size() - 1; i >= 0; i--) {
+            if (rejections.containsKey(i) || !saleQuantities.get(i).containsKey(productId))
+                continue;
+
+            rejections.put(i, productId);
+
+            for (Map.Entry<Long, Integer> quantity : saleQuantities.get(i).entrySet()) {
+                if (stockDeltas.merge(quantity.getKey(), -quantity.getValue(), Integer::sum) == 0)
+                    stockDeltas.remove(quantity.getKey());
+
+                if (returnTakenStock && quantity.getKey() < productId)
+                    stockRepository.incrementStock(quantity.getKey(), quantity.getValue());
+            }
 
-        return productRepository.findByIdIn(productIds);
+            return;
+        }
+    }
+
+    private String findBatchRejection(SaleDTOAdd saleDTOAdd, Map<Long, Integer> saleQuantities, Map<Long, Customer> customers,
+                                      Map<Long, Seller> sellers, LongObjectMap<BasketProductDTO> products, Map<Long, Integer> availableStock) {
+        if (!customers.containsKey(saleDTOAdd.getCustomerId()))
+            return "Customer not found.";
+
+        if (!sellers.containsKey(saleDTOAdd.getSellerId()))
+            return "Seller not found.";
+
+        for (SaleProductDTOAdd saleProductDTOAdd : saleDTOAdd.getSaleProducts()) {
+            Long productId = saleProductDTOAdd.getProductId();
+
+            if (products.get(productId) == null)
+                return "Product not found.";
+
+            if (!availableStock.containsKey(productId))
+                return "Stock not found.";
+
+            if (availableStock.get(productId) < saleQuantities.get(productId))
+                return "Insufficient stock for product " + productId + ".";
+        }
+
+        return null;
     }
 
-    private Product fetchProductForIteration(List<Product> products, Long productId) {
-        return products.stream()
-                .filter(p -> p.getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new EntityNotFoundException("Product not found."));
+    private LongObjectMap<BasketProductDTO> getProductsUsingDTOList(List<SaleProductDTOAdd> products) {
+        Map<Long, Integer> quantities = new HashMap<>();
+
+        for (SaleProductDTOAdd product : products)
+            quantities.merge(product.getProductId(), product.getQuantity(), Integer::sum);
+
+        List<BasketProductDTO> fetchedProducts = productRepository.findBasket(quantities);
+
+        LongObjectMap<BasketProductDTO> productsById = new LongObjectMap<>(fetchedProducts.size());
+
+        for (BasketProductDTO product : fetchedProducts)
+            productsById.put(product.getId(), product);
+
+        return productsById;
+    }
+
+    private static BasketProductDTO fetchProductForIteration(LongObjectMap<BasketProductDTO> products, Long productId) {
+        BasketProductDTO product = products.get(productId);
+
+        if (product == null)
+            throw new EntityNotFoundException("Product not found.");
+
+        return product;
     }
 }
@@ -0,0 +1,220 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.analytics.RollupDimension;
+import com.juubsouza.jsdrugstore.analytics.RollupGranularity;
+import com.juubsouza.jsdrugstore.event.SaleRecordedEvent;
+import com.juubsouza.jsdrugstore.model.SalesRollup;
+import com.juubsouza.jsdrugstore.model.dto.SalesRollupDTO;
+import com.juubsouza.jsdrugstore.repository.SalesRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps hourly and daily rollups of units, revenue and sale count per product, seller and payment method, so
+ * sales reports never aggregate the sale tables. Committed sales are added to in-memory deltas, and every
+ * {@code jsdrugstore.analytics.flush-interval-ms} the deltas are swapped out and added to the
+ * {@code sales_rollup} rows in one transaction. Writes scale with the number of rows touched per interval, not
+ * the number of sales, and no sale transaction ever waits on a rollup row.
+ * <p>
+ * Queries read the rollup rows of the requested range and add the deltas not yet flushed, under a lock that
+ * keeps a flush from being counted twice or not at all, so their cost depends on the range and the number of
+ * keys but not on sale volume. Deltas still in memory are lost if the process dies, and each instance only
+ * sees its own unflushed deltas.
+ */
+@Service
+public class SalesAnalyticsService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    private static final RollupGranularity[] GRANULARITIES = RollupGranularity.values();
+
+    private final SalesRollupRepository salesRollupRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock pendingLock = new ReentrantLock();
+
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private Map<RollupKey, RollupTotals> pending = new HashMap<>();
+
+    @Autowired
+    public SalesAnalyticsService(SalesRollupRepository salesRollupRepository, PlatformTransactionManager transactionManager) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record RollupKey(RollupDimension dimension, RollupGranularity granularity, LocalDateTime bucketStart, String key) {
+    }
+
+    private static class RollupTotals {
+
+        private long units;
+
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private long baskets;
+
+        private void add(long units, BigDecimal revenue, long baskets) {
+            this.units += units;
+            this.revenue = this.revenue.add(revenue);
+            this.baskets += baskets;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleRecorded(SaleRecordedEvent event) {
+        long totalUnits = 0;
+
+        for (Integer units : event.getProductUnits().values())
+            totalUnits += units;
+
+        pendingLock.lock();
+        try {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                LocalDateTime bucketStart = granularity.bucketOf(event.getSoldAt());
+
+                for (Map.Entry<Long, Integer> productUnits : event.getProductUnits().entrySet())
+                    addPending(RollupDimension.PRODUCT, granularity, bucketStart, productUnits.getKey().toString(),
+                            productUnits.getValue(), event.getProductRevenue().getOrDefault(productUnits.getKey(), BigDecimal.ZERO));
+
+                addPending(RollupDimension.SELLER, granularity, bucketStart, event.getSellerId().toString(), totalUnits, event.getTotal());
+                addPending(RollupDimension.PAYMENT_METHOD, granularity, bucketStart, event.getPaymentMethod(), totalUnits, event.getTotal());
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the buckets in {@code [from, to)} that had sales, ordered by bucket start and then key. When a key
+     * is given, only that product id, seller id or payment method is returned.
+     */
+    public List<SalesRollupDTO> findRollups(RollupDimension dimension, RollupGranularity granularity, LocalDateTime from,
+                                            LocalDateTime to, String key) {
+        LocalDateTime fromBucket = granularity.bucketOf(from);
+        Map<RollupKey, SalesRollupDTO> rollups = new LinkedHashMap<>();
+
+        flushLock.readLock().lock();
+        try {
+            List<SalesRollupDTO> flushed = key == null
+                    ? salesRollupRepository.findDTOsInRange(dimension, granularity, fromBucket, to)
+                    : salesRollupRepository.findDTOsInRangeByKey(dimension, granularity, fromBucket, to, key);
+
+            for (SalesRollupDTO rollup : flushed)
+                rollups.put(new RollupKey(dimension, granularity, rollup.getBucketStart(), rollup.getKey()), rollup);
+
+            pendingLock.lock();
+            try {
+                for (Map.Entry<RollupKey, RollupTotals> entry : pending.entrySet()) {
+                    RollupKey rollupKey = entry.getKey();
+
+                    if (rollupKey.dimension() != dimension || rollupKey.granularity() != granularity
+                            || rollupKey.bucketStart().isBefore(fromBucket) || !rollupKey.bucketStart().isBefore(to)
+                            || (key != null && !key.equals(rollupKey.key())))
+                        continue;
+
+                    RollupTotals totals = entry.getValue();
+                    SalesRollupDTO rollup = rollups.computeIfAbsent(rollupKey,
+                            k -> new SalesRollupDTO(k.bucketStart(), k.key(), 0L, BigDecimal.ZERO, 0L));
+
+                    rollup.setUnits(rollup.getUnits() + totals.units);
+                    rollup.setRevenue(rollup.getRevenue().add(totals.revenue));
+                    rollup.setBaskets(rollup.getBaskets() + totals.baskets);
+                }
+            } finally {
+                pendingLock.unlock();
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+
+        List<SalesRollupDTO> result = new ArrayList<>(rollups.values());
+        result.sort(Comparator.comparing(SalesRollupDTO::getBucketStart).thenComparing(SalesRollupDTO::getKey));
+
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${jsdrugstore.analytics.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            Map<RollupKey, RollupTotals> batch;
+
+            pendingLock.lock();
+            try {
+                if (pending.isEmpty())
+                    return;
+
+                batch = pending;
+                pending = new HashMap<>();
+            } finally {
+                pendingLock.unlock();
+            }
+
+            try {
+                writeRollups(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Could not flush {} sales rollup deltas, will retry on the next flush", batch.size(), e);
+                mergeBack(batch);
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private void addPending(RollupDimension dimension, RollupGranularity granularity, LocalDateTime bucketStart, String key,
+                            long units, BigDecimal revenue) {
+        pending.computeIfAbsent(new RollupKey(dimension, granularity, bucketStart, key), k -> new RollupTotals())
+                .add(units, revenue, 1);
+    }
+
+    private void writeRollups(Map<RollupKey, RollupTotals> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<SalesRollup> newRollups = new ArrayList<>();
+
+            for (Map.Entry<RollupKey, RollupTotals> entry : batch.entrySet()) {
+                RollupKey key = entry.getKey();
+                RollupTotals totals = entry.getValue();
+
+                int updatedRows = salesRollupRepository.addToRollup(key.dimension(), key.granularity(), key.bucketStart(), key.key(),
+                        totals.units, totals.revenue, totals.baskets);
+
+                if (updatedRows == 0)
+                    newRollups.add(new SalesRollup(null, key.dimension(), key.granularity(), key.bucketStart(), key.key(),
+                            totals.units, totals.revenue, totals.baskets));
+            }
+
+            salesRollupRepository.saveAll(newRollups);
+        });
+    }
+
+    private void mergeBack(Map<RollupKey, RollupTotals> batch) {
+        pendingLock.lock();
+        try {
+            batch.forEach((key, totals) -> pending.computeIfAbsent(key, k -> new RollupTotals())
+                    .add(totals.units, totals.revenue, totals.baskets));
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+}
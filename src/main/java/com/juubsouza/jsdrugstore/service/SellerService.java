@@ -1,11 +1,18 @@
 package com.juubsouza.jsdrugstore.service;
 
+import com.juubsouza.jsdrugstore.event.SellerChangedEvent;
 import com.juubsouza.jsdrugstore.model.Seller;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTO;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTOAdd;
 import com.juubsouza.jsdrugstore.repository.SellerRepository;
+import com.juubsouza.jsdrugstore.search.SellerNameIndex;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,10 +21,14 @@ import java.util.List;
 public class SellerService {
 
     private final SellerRepository sellerRepository;
+    private final SellerNameIndex sellerNameIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public SellerService(SellerRepository sellerRepository) {
+    public SellerService(SellerRepository sellerRepository, SellerNameIndex sellerNameIndex, ApplicationEventPublisher eventPublisher) {
         this.sellerRepository = sellerRepository;
+        this.sellerNameIndex = sellerNameIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public SellerDTO addSeller(SellerDTOAdd sellerDTOAdd) {
@@ -29,6 +40,8 @@ public class SellerService {
 
         sellerRepository.save(seller);
 
+        eventPublisher.publishEvent(new SellerChangedEvent(List.of(seller.getId())));
+
         return new SellerDTO(seller.getId(), seller.getFirstName(), seller.getLastName(), seller.getShift(), seller.getAdmissionDate());
     }
 
@@ -40,12 +53,21 @@ public class SellerService {
         return sellerRepository.findAllDTOs();
     }
 
+    public PageDTO<SellerDTO> findSellersPage(String cursor, int size) {
+        List<SellerDTO> sellers = sellerRepository.findDTOsAfterId(CursorPagination.decodeCursor(cursor), PageRequest.of(0, size + 1));
+
+        return CursorPagination.toPage(sellers, size, SellerDTO::getId);
+    }
+
     public SellerDTO findSellerById(Long id) {
         return sellerRepository.findDTOById(id).orElse(null);
     }
 
     public List<SellerDTO> findSellersByFirstOrLastName(String name) {
-        return sellerRepository.findDTOsByFirstOrLastName(name);
+        if (!sellerNameIndex.isReady())
+            return sellerRepository.findDTOsByFirstOrLastName(name);
+
+        return QueryChunks.fetchInChunks(sellerNameIndex.findIdsByName(name), sellerRepository::findDTOsByIdIn);
     }
 
     public SellerDTO updateSeller(SellerDTO sellerDTO) throws EntityNotFoundException {
@@ -58,6 +80,8 @@ public class SellerService {
 
         sellerRepository.save(existingSeller);
 
+        eventPublisher.publishEvent(new SellerChangedEvent(List.of(sellerDTO.getId())));
+
         return new SellerDTO(existingSeller.getId(), existingSeller.getFirstName(), existingSeller.getLastName(), existingSeller.getShift(), existingSeller.getAdmissionDate());
     }
 
@@ -65,5 +89,7 @@ public class SellerService {
         Seller existingSeller = sellerRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Seller not found"));
 
         sellerRepository.deleteById(existingSeller.getId());
+
+        eventPublisher.publishEvent(new SellerChangedEvent(List.of(existingSeller.getId())));
     }
 }
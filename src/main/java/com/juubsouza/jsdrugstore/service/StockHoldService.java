@@ -0,0 +1,267 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.exception.InvalidStockHoldException;
+import com.juubsouza.jsdrugstore.inventory.ExpiryWheel;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
+import com.juubsouza.jsdrugstore.model.StockHold;
+import com.juubsouza.jsdrugstore.model.StockHoldLine;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.StockHoldDTO;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import com.juubsouza.jsdrugstore.repository.StockHoldLineRepository;
+import com.juubsouza.jsdrugstore.repository.StockHoldRepository;
+import com.juubsouza.jsdrugstore.repository.StockRepository;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds stock for a checkout until the sale is added or the hold expires. Reserving takes the quantities out
+ * of stock straight away, so other sales cannot oversell them, and stores the hold so it survives a restart.
+ * Holds are locked with {@code SELECT ... FOR UPDATE} before they are confirmed or released, so each hold is
+ * resolved exactly once even when the expiry job races a confirmation.
+ * <p>
+ * Expiry is driven by an in-memory timing wheel. Ids whose release fails are put back on the wheel and retried
+ * after {@code expiry-retry-ms}, and every {@code sweep-interval-ms} the database is also searched for expired
+ * holds, which catches holds created on other instances and anything the wheel lost.
+ */
+@Service
+public class StockHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldService.class);
+
+    private final StockHoldRepository stockHoldRepository;
+    private final StockHoldLineRepository stockHoldLineRepository;
+    private final ProductRepository productRepository;
+    private final StockRepository stockRepository;
+    private final InventoryLedger inventoryLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpiryWheel expiryWheel;
+    private final long ttlSeconds;
+    private final long expiryRetryMillis;
+
+    @Autowired
+    public StockHoldService(StockHoldRepository stockHoldRepository, StockHoldLineRepository stockHoldLineRepository,
+                            ProductRepository productRepository, StockRepository stockRepository, InventoryLedger inventoryLedger,
+                            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                            @Value("${jsdrugstore.stock-hold.ttl-seconds:900}") long ttlSeconds,
+                            @Value("${jsdrugstore.stock-hold.expiry-tick-ms:1000}") long expiryTickMillis,
+                            @Value("${jsdrugstore.stock-hold.expiry-retry-ms:5000}") long expiryRetryMillis) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.stockHoldLineRepository = stockHoldLineRepository;
+        this.productRepository = productRepository;
+        this.stockRepository = stockRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expiryWheel = new ExpiryWheel(4096, expiryTickMillis, System.currentTimeMillis());
+        this.ttlSeconds = ttlSeconds;
+        this.expiryRetryMillis = expiryRetryMillis;
+    }
+
+    @Transactional
+    public StockHoldDTO reserve(List<SaleProductDTOAdd> products) throws InsufficientStockException {
+        Map<Long, Integer> quantities = aggregate(products);
+
+        takeStock(quantities);
+
+        StockHold hold = new StockHold();
+        hold.setExpiresAt(LocalDateTime.now().plusSeconds(ttlSeconds));
+        stockHoldRepository.save(hold);
+
+        List<StockHoldLine> lines = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+            StockHoldLine line = new StockHoldLine();
+            line.setQuantity(quantity.getValue());
+            line.setProduct(productRepository.getReferenceById(quantity.getKey()));
+            line.setHold(hold);
+            lines.add(line);
+        }
+
+        stockHoldLineRepository.saveAll(lines);
+
+        scheduleExpiryAfterCommit(hold);
+
+        List<SaleProductDTOAdd> heldProducts = quantities.entrySet().stream()
+                .map(quantity -> new SaleProductDTOAdd(quantity.getValue(), quantity.getKey()))
+                .collect(Collectors.toList());
+
+        return new StockHoldDTO(hold.getId(), hold.getExpiresAt(), heldProducts);
+    }
+
+    /**
+     * Consumes an unexpired hold and returns the quantities it held by product id. The stock stays taken.
+     */
+    @Transactional
+    public Map<Long, Integer> confirm(Long holdId) throws InvalidStockHoldException {
+        StockHold hold = stockHoldRepository.findByIdForUpdate(holdId)
+                .filter(found -> found.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new InvalidStockHoldException(holdId, "Stock hold " + holdId + " not found or expired."));
+
+        Map<Long, Integer> quantities = aggregate(stockHoldLineRepository.findQuantitiesByHoldIdIn(List.of(hold.getId())));
+
+        stockHoldLineRepository.deleteByHoldIdIn(List.of(hold.getId()));
+        stockHoldRepository.deleteByIdIn(List.of(hold.getId()));
+
+        return quantities;
+    }
+
+    @Transactional
+    public void release(Long holdId) throws EntityNotFoundException {
+        StockHold hold = stockHoldRepository.findByIdForUpdate(holdId).orElseThrow(() -> new EntityNotFoundException("Stock hold not found"));
+
+        releaseLocked(List.of(hold.getId()));
+    }
+
+    @Scheduled(fixedDelayString = "${jsdrugstore.stock-hold.expiry-tick-ms:1000}")
+    public void releaseExpiredHolds() {
+        long[] dueIds = expiryWheel.advance(System.currentTimeMillis());
+
+        if (dueIds.length == 0)
+            return;
+
+        List<Long> ids = Arrays.stream(dueIds).boxed().collect(Collectors.toList());
+
+        for (int from = 0; from < ids.size(); from += QueryChunks.MAX_IN_PARAMETERS) {
+            List<Long> chunk = ids.subList(from, Math.min(from + QueryChunks.MAX_IN_PARAMETERS, ids.size()));
+
+            if (!releaseExpired(chunk)) {
+                long retryAt = System.currentTimeMillis() + expiryRetryMillis;
+                chunk.forEach(id -> expiryWheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    /**
+     * Releases expired holds found in the database rather than on the wheel, such as holds reserved through
+     * another instance.
+     */
+    @Scheduled(fixedDelayString = "${jsdrugstore.stock-hold.sweep-interval-ms:60000}")
+    public void sweepExpiredHolds() {
+        while (true) {
+            List<Long> expiredIds = stockHoldRepository.findExpiredIds(LocalDateTime.now(), PageRequest.of(0, QueryChunks.MAX_IN_PARAMETERS));
+
+            if (expiredIds.isEmpty() || !releaseExpired(expiredIds) || expiredIds.size() < QueryChunks.MAX_IN_PARAMETERS)
+                return;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOpenHolds() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<StockHold> holds = stockHoldRepository.streamAll()) {
+                holds.forEach(this::scheduleExpiry);
+            }
+        });
+    }
+
+    public int openHoldCount() {
+        return expiryWheel.size();
+    }
+
+    /**
+     * Releases those of the given holds that are still there and expired, and returns false if that failed.
+     */
+    private boolean releaseExpired(List<Long> holdIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> expiredIds = stockHoldRepository.findExpiredByIdInForUpdate(holdIds, LocalDateTime.now()).stream()
+                        .map(StockHold::getId)
+                        .collect(Collectors.toList());
+
+                if (!expiredIds.isEmpty())
+                    releaseLocked(expiredIds);
+            });
+
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Could not release {} expired stock holds, will retry", holdIds.size(), e);
+            return false;
+        }
+    }
+
+    private void releaseLocked(List<Long> holdIds) {
+        Map<Long, Integer> quantities = aggregate(stockHoldLineRepository.findQuantitiesByHoldIdIn(holdIds));
+
+        stockHoldLineRepository.deleteByHoldIdIn(holdIds);
+        stockHoldRepository.deleteByIdIn(holdIds);
+
+        if (quantities.isEmpty())
+            return;
+
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.release(quantities);
+        } else {
+            for (Map.Entry<Long, Integer> quantity : quantities.entrySet())
+                stockRepository.incrementStock(quantity.getKey(), quantity.getValue());
+        }
+
+        eventPublisher.publishEvent(new StockChangedEvent(quantities.keySet()));
+    }
+
+    private void takeStock(Map<Long, Integer> quantities) throws InsufficientStockException {
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.reserve(quantities);
+        } else {
+            for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+                int updatedRows = stockRepository.decrementStock(quantity.getKey(), quantity.getValue());
+
+                if (updatedRows == 0)
+                    throw new InsufficientStockException(quantity.getKey());
+            }
+        }
+
+        eventPublisher.publishEvent(new StockChangedEvent(quantities.keySet()));
+    }
+
+    private void scheduleExpiryAfterCommit(StockHold hold) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleExpiry(hold);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleExpiry(hold);
+            }
+        });
+    }
+
+    private void scheduleExpiry(StockHold hold) {
+        expiryWheel.schedule(hold.getId(), hold.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static Map<Long, Integer> aggregate(List<SaleProductDTOAdd> products) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+
+        for (SaleProductDTOAdd product : products)
+            quantities.merge(product.getProductId(), product.getQuantity(), Integer::sum);
+
+        return quantities;
+    }
+}
@@ -0,0 +1,53 @@
+package com.juubsouza.jsdrugstore.utils;
+
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPagination {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    public static String encodeCursor(Long lastId) {
+        byte[] cursor = (CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor);
+    }
+
+    public static Long decodeCursor(String cursor) throws IllegalArgumentException {
+        if (cursor == null || cursor.isEmpty())
+            return 0L;
+
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+        if (!decoded.startsWith(CURSOR_PREFIX))
+            throw new IllegalArgumentException("Invalid cursor.");
+
+        return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+    }
+
+    public static <T> PageDTO<T> toPage(List<T> fetched, int size, Function<T, Long> idExtractor) {
+        if (fetched.size() <= size)
+            return new PageDTO<>(fetched, null);
+
+        List<T> items = fetched.subList(0, size);
+
+        return new PageDTO<>(items, encodeCursor(idExtractor.apply(items.get(size - 1))));
+    }
+
+    public static ValidationResponse validatePageRequest(String cursor, int size, int maxSize) {
+        if (size <= 0 || size > maxSize)
+            return new ValidationResponse("Page size must be between 1 and " + maxSize + ".", HttpStatus.BAD_REQUEST);
+
+        try {
+            decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ValidationResponse("Invalid cursor.", HttpStatus.BAD_REQUEST);
+        }
+
+        return new ValidationResponse("OK", HttpStatus.OK);
+    }
+}
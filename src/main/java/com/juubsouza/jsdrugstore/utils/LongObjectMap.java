@@ -0,0 +1,151 @@
+package com.juubsouza.jsdrugstore.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long to objects with linear probing, so search postings and basket products are
+ * kept by id without a boxed key and entry object each. Not thread-safe, callers guard each instance with a lock. {@link Long#MIN_VALUE}
+ * marks empty slots and cannot be used as a key, and null values cannot be stored.
+ */
+public class LongObjectMap<V> {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    private int resizeAt;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1);
+    }
+
+    public interface Consumer<V> {
+
+        void accept(long key, V value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[slotOf(key)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null)
+            throw new IllegalArgumentException("Null values cannot be stored.");
+
+        int slot = slotOf(key);
+
+        if (keys[slot] == EMPTY) {
+            insertAt(slot, key, value);
+            return null;
+        }
+
+        V previous = (V) values[slot];
+        values[slot] = value;
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = slotOf(key);
+
+        if (keys[slot] == EMPTY)
+            return null;
+
+        V previous = (V) values[slot];
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        size--;
+
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<V> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY)
+                consumer.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    private void insertAt(int slot, long key, V value) {
+        if (key == EMPTY)
+            throw new IllegalArgumentException("Key " + key + " is reserved.");
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size > resizeAt)
+            rehash();
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+
+        while (keys[slot] != EMPTY && keys[slot] != key)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        allocate(oldKeys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,23 @@
+package com.juubsouza.jsdrugstore.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+public class QueryChunks {
+
+    public static final int MAX_IN_PARAMETERS = 1000;
+
+    public static <T> List<T> fetchInChunks(Collection<Long> ids, Function<List<Long>, List<T>> fetcher) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<T> fetched = new ArrayList<>(idList.size());
+
+        for (int from = 0; from < idList.size(); from += MAX_IN_PARAMETERS) {
+            int to = Math.min(from + MAX_IN_PARAMETERS, idList.size());
+            fetched.addAll(fetcher.apply(idList.subList(from, to)));
+        }
+
+        return fetched;
+    }
+}
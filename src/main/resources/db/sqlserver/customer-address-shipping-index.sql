@@ -0,0 +1,34 @@
+-- Enforces at most one shipping address per customer with a filtered unique index.
+-- Run once on databases created before shipping address switches became a single update.
+-- Customers that already have several shipping addresses keep the most recently added one.
+-- Running the script again is harmless.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+WITH shipping AS (
+    SELECT is_shipping,
+           ROW_NUMBER() OVER (PARTITION BY customer_id ORDER BY id DESC) AS position
+    FROM customer_address
+    WHERE is_shipping = 1
+)
+UPDATE shipping
+SET is_shipping = 0
+WHERE position > 1;
+
+IF NOT EXISTS (SELECT 1
+               FROM sys.indexes
+               WHERE object_id = OBJECT_ID('customer_address')
+                 AND name = 'ux_customer_address_shipping')
+    CREATE UNIQUE NONCLUSTERED INDEX ux_customer_address_shipping
+        ON customer_address (customer_id)
+        WHERE is_shipping = 1;
+
+IF NOT EXISTS (SELECT 1
+               FROM sys.indexes
+               WHERE object_id = OBJECT_ID('customer_address')
+                 AND name = 'ix_customer_address_customer')
+    CREATE NONCLUSTERED INDEX ix_customer_address_customer
+        ON customer_address (customer_id);
+
+COMMIT TRANSACTION;
@@ -0,0 +1,104 @@
+-- Moves the jsdrugstore tables from IDENTITY ids to the sequences the entities now use.
+-- Run once with the application stopped, before starting the version that uses sequences.
+-- Each <table>_seq starts after the largest existing id and increments by 50, which must match
+-- allocationSize on the entity's @SequenceGenerator. Tables that no longer have an IDENTITY id
+-- are skipped, so running the script again is harmless.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+DECLARE @tables TABLE (name sysname PRIMARY KEY);
+
+INSERT INTO @tables (name)
+VALUES ('address'), ('customer'), ('customer_address'), ('price'), ('product'), ('sale'),
+       ('sale_product'), ('seller'), ('stock'), ('stock_hold'), ('stock_hold_line');
+
+DELETE t
+FROM @tables t
+WHERE NOT EXISTS (SELECT 1
+                  FROM sys.identity_columns ic
+                  WHERE ic.object_id = OBJECT_ID(t.name)
+                    AND ic.name = 'id');
+
+DECLARE @foreignKeys TABLE (
+    name sysname,
+    parent_table sysname,
+    parent_column sysname,
+    referenced_table sysname,
+    referenced_column sysname
+);
+
+INSERT INTO @foreignKeys (name, parent_table, parent_column, referenced_table, referenced_column)
+SELECT fk.name, OBJECT_NAME(fk.parent_object_id), pc.name, OBJECT_NAME(fk.referenced_object_id), rc.name
+FROM sys.foreign_keys fk
+JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id
+JOIN sys.columns pc ON pc.object_id = fkc.parent_object_id AND pc.column_id = fkc.parent_column_id
+JOIN sys.columns rc ON rc.object_id = fkc.referenced_object_id AND rc.column_id = fkc.referenced_column_id
+WHERE OBJECT_NAME(fk.referenced_object_id) IN (SELECT t.name FROM @tables t);
+
+DECLARE @sql nvarchar(max) = N'';
+
+SELECT @sql += N'ALTER TABLE ' + QUOTENAME(parent_table) + N' DROP CONSTRAINT ' + QUOTENAME(name) + N';'
+FROM @foreignKeys;
+
+EXEC sp_executesql @sql;
+
+DECLARE @table sysname;
+DECLARE @primaryKey sysname;
+DECLARE @nextId bigint;
+
+DECLARE table_cursor CURSOR LOCAL FAST_FORWARD FOR SELECT name FROM @tables;
+OPEN table_cursor;
+FETCH NEXT FROM table_cursor INTO @table;
+
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    SELECT @primaryKey = name
+    FROM sys.key_constraints
+    WHERE parent_object_id = OBJECT_ID(@table)
+      AND type = 'PK';
+
+    SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ADD id_seq bigint NULL;';
+    EXEC sp_executesql @sql;
+
+    SET @sql = N'UPDATE ' + QUOTENAME(@table) + N' SET id_seq = id;'
+        + N'ALTER TABLE ' + QUOTENAME(@table) + N' DROP CONSTRAINT ' + QUOTENAME(@primaryKey) + N';'
+        + N'ALTER TABLE ' + QUOTENAME(@table) + N' DROP COLUMN id;';
+    EXEC sp_executesql @sql;
+
+    SET @sql = @table + N'.id_seq';
+    EXEC sp_rename @sql, N'id', N'COLUMN';
+
+    SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ALTER COLUMN id bigint NOT NULL;';
+    EXEC sp_executesql @sql;
+
+    SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ADD CONSTRAINT ' + QUOTENAME(@primaryKey) + N' PRIMARY KEY (id);'
+        + N'SELECT @nextId = COALESCE(MAX(id), 0) + 1 FROM ' + QUOTENAME(@table) + N';';
+    EXEC sp_executesql @sql, N'@nextId bigint OUTPUT', @nextId = @nextId OUTPUT;
+
+    IF OBJECT_ID(@table + N'_seq', N'SO') IS NOT NULL
+    BEGIN
+        SET @sql = N'DROP SEQUENCE ' + QUOTENAME(@table + N'_seq') + N';';
+        EXEC sp_executesql @sql;
+    END;
+
+    SET @sql = N'CREATE SEQUENCE ' + QUOTENAME(@table + N'_seq') + N' AS bigint START WITH '
+        + CAST(@nextId AS nvarchar(20)) + N' INCREMENT BY 50;';
+    EXEC sp_executesql @sql;
+
+    FETCH NEXT FROM table_cursor INTO @table;
+END;
+
+CLOSE table_cursor;
+DEALLOCATE table_cursor;
+
+SET @sql = N'';
+
+SELECT @sql += N'ALTER TABLE ' + QUOTENAME(parent_table) + N' ADD CONSTRAINT ' + QUOTENAME(name)
+    + N' FOREIGN KEY (' + QUOTENAME(parent_column) + N') REFERENCES ' + QUOTENAME(referenced_table)
+    + N' (' + QUOTENAME(referenced_column) + N');'
+FROM @foreignKeys;
+
+EXEC sp_executesql @sql;
+
+COMMIT TRANSACTION;
@@ -0,0 +1,10 @@
+-- Table type used to send the products of a basket and their quantities as one table-valued parameter.
+-- Run once before starting a version that looks baskets up with it, as a user allowed to create types.
+-- The application user needs GRANT EXECUTE ON TYPE::dbo.product_quantity_list when it does not own dbo.
+-- Running the script again is harmless.
+
+IF TYPE_ID('dbo.product_quantity_list') IS NULL
+    CREATE TYPE dbo.product_quantity_list AS TABLE (
+        product_id BIGINT NOT NULL PRIMARY KEY,
+        quantity   INT    NOT NULL
+    );
@@ -0,0 +1,70 @@
+package com.juubsouza.jsdrugstore.catalogue;
+
+import com.juubsouza.jsdrugstore.model.CatalogueImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogueCsvReaderTest {
+
+    @Test
+    public void testReadsColumnsByHeaderNameAndUnquotesFields() throws IOException {
+        String feed = "\uFEFFPrice,Name,Manufacturer\r\n" +
+                "4.5,Aspirin,Bayer\r\n" +
+                "\r\n" +
+                "12.00,\"Bandage, \"\"large\"\"\",\"Acme\nHealth\"\r\n";
+
+        CatalogueCsvReader reader = new CatalogueCsvReader(new StringReader(feed), "import", 10);
+        List<CatalogueImportRow> rows = readAll(reader);
+
+        assertEquals(2, rows.size());
+        assertEquals(new CatalogueImportRow("import", 2L, "Aspirin", "Bayer", new BigDecimal("4.50"), null, null, null, null), rows.get(0));
+        assertEquals("Bandage, \"large\"", rows.get(1).getName());
+        assertEquals("Acme\nHealth", rows.get(1).getManufacturer());
+        assertEquals(4L, rows.get(1).getLineNumber());
+        assertEquals(2, reader.getRowsRead());
+        assertEquals(0, reader.getRowsRejected());
+    }
+
+    @Test
+    public void testSkipsAndReportsInvalidRows() throws IOException {
+        String feed = "name,manufacturer,price,stock\n" +
+                "Aspirin,Bayer,4.50,10\n" +
+                ",Bayer,4.50,10\n" +
+                "Ibuprofen,,4.50,10\n" +
+                "Paracetamol,Bayer,free,10\n" +
+                "Codeine,Bayer,0,10\n" +
+                "Naproxen,Bayer,1.999,10\n" +
+                "Insulin,Bayer,30.00,-1\n" +
+                "Bandage,Acme,2.00,\n";
+
+        CatalogueCsvReader reader = new CatalogueCsvReader(new StringReader(feed), "import", 3);
+        List<CatalogueImportRow> rows = readAll(reader);
+
+        assertEquals(List.of("Aspirin", "Bandage"), rows.stream().map(CatalogueImportRow::getName).toList());
+        assertEquals(10, rows.get(0).getStock());
+        assertNull(rows.get(1).getStock());
+        assertEquals(8, reader.getRowsRead());
+        assertEquals(6, reader.getRowsRejected());
+        assertEquals(List.of("Line 3: Product name cannot be empty.", "Line 4: Product manufacturer cannot be empty.",
+                "Line 5: Product price must be a number."), reader.getErrors());
+    }
+
+    @Test
+    public void testRejectsFeedWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> new CatalogueCsvReader(new StringReader(""), "import", 10));
+        assertThrows(IllegalArgumentException.class, () -> new CatalogueCsvReader(new StringReader("name,price\n"), "import", 10));
+    }
+
+    private static List<CatalogueImportRow> readAll(CatalogueCsvReader reader) {
+        List<CatalogueImportRow> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,65 @@
+package com.juubsouza.jsdrugstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class)
+            .withBean(HikariDataSource.class, HikariDataSource::new);
+
+    @Test
+    public void testDisabledLeavesThreadsAndPoolAlone() {
+        contextRunner.withPropertyValues("jsdrugstore.threads.virtual.enabled=false").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertTrue(context.getBeansOfType(VirtualThreadConfig.class).isEmpty());
+            assertTrue(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).isEmpty());
+            assertFalse(context.containsBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME));
+            assertFalse(context.containsBean("virtualThreadHikariPostProcessor"));
+            assertEquals(new HikariDataSource().getMaximumPoolSize(), context.getBean(HikariDataSource.class).getMaximumPoolSize());
+            assertEquals(new HikariDataSource().getConnectionTimeout(), context.getBean(HikariDataSource.class).getConnectionTimeout());
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testEnabledRunsRequestsOnVirtualThreads() {
+        contextRunner.withPropertyValues("jsdrugstore.threads.virtual.enabled=true").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(1, context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).size());
+            assertTrue(context.containsBean("virtualThreadHikariPostProcessor"));
+
+            AsyncTaskExecutor executor = context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class);
+            assertEquals(Boolean.TRUE, executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get());
+
+            HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+            assertEquals(40, dataSource.getMaximumPoolSize());
+            assertEquals(5000, dataSource.getConnectionTimeout());
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    public void testEnabledFailsStartupWithoutVirtualThreads() {
+        contextRunner.withPropertyValues("jsdrugstore.threads.virtual.enabled=true").run(context -> {
+            Throwable failure = context.getStartupFailure();
+            assertNotNull(failure);
+
+            while (failure != null && !(failure instanceof IllegalStateException))
+                failure = failure.getCause();
+
+            assertNotNull(failure);
+            assertEquals("jsdrugstore.threads.virtual.enabled requires a Java 21 or newer runtime.", failure.getMessage());
+            assertInstanceOf(NoSuchMethodException.class, failure.getCause());
+        });
+    }
+}
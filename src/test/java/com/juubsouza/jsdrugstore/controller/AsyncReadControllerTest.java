@@ -0,0 +1,86 @@
+package com.juubsouza.jsdrugstore.controller;
+
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
+import com.juubsouza.jsdrugstore.service.AsyncReadService;
+import com.juubsouza.jsdrugstore.utils.MockDTOs;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AsyncReadController.class)
+public class AsyncReadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AsyncReadService asyncReadService;
+
+    @Test
+    public void testFindProductsPage() throws Exception {
+        PageDTO<ProductDTO> page = new PageDTO<>(List.of(MockDTOs.newMockProductDTO()), "next");
+        when(asyncReadService.findProductsPage(null, 50)).thenReturn(CompletableFuture.completedFuture(page));
+
+        MvcResult result = mockMvc.perform(get("/read/product/page"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    public void testFindSalesPageForCustomer() throws Exception {
+        PageDTO<SaleDTO> page = new PageDTO<>(MockDTOs.newMockSaleDTOs(), null);
+        when(asyncReadService.findSalesPageForCustomer(1L, null, 10)).thenReturn(CompletableFuture.completedFuture(page));
+
+        MvcResult result = mockMvc.perform(get("/read/sale/page").param("customerId", "1").param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(page.getItems().size())));
+    }
+
+    @Test
+    public void testFindCustomersPageInvalidRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/read/customer/page").param("size", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Page size must be between 1 and 500."));
+    }
+
+    @Test
+    public void testFindProductsPageRejected() throws Exception {
+        when(asyncReadService.findProductsPage(null, 50)).thenThrow(new RejectedExecutionException());
+
+        MvcResult result = mockMvc.perform(get("/read/product/page"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Too many pending reads, try again later."));
+    }
+}
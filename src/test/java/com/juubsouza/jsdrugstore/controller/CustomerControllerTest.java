@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTO;
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.service.CustomerService;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
 import com.juubsouza.jsdrugstore.utils.MockDTOs;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -206,6 +208,16 @@ public class CustomerControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testFindCustomersPage() throws Exception {
+        PageDTO<CustomerDTO> page = new PageDTO<>(List.of(MockDTOs.newMockCustomerDTO()), null);
+        when(customerservice.findCustomersPage(CursorPagination.encodeCursor(1L), 10)).thenReturn(page);
+
+        mockMvc.perform(get("/customer/page").param("cursor", CursorPagination.encodeCursor(1L)).param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1));
+    }
+
     private void validateAndExpectBadRequest(String message, CustomerDTO customerDTO) throws Exception {
         MvcResult result = mockMvc.perform(post("/customer/update")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -231,4 +243,5 @@ public class CustomerControllerTest {
 
         assertEquals(message, errorMessage);
     }
+
 }
@@ -0,0 +1,137 @@
+package com.juubsouza.jsdrugstore.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PagedNdjsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AsyncContext asyncContext;
+
+    private HttpServletResponse response;
+
+    private ThrottledOutputStream outputStream;
+
+    private List<String> requestedCursors;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        asyncContext = mock(AsyncContext.class);
+        response = mock(HttpServletResponse.class);
+        outputStream = new ThrottledOutputStream();
+        requestedCursors = new ArrayList<>();
+
+        when(asyncContext.getResponse()).thenReturn(response);
+        when(response.getOutputStream()).thenReturn(outputStream);
+    }
+
+    @Test
+    public void testWritesEveryPageAsLines() throws IOException {
+        PagedNdjsonWriter<String> writer = new PagedNdjsonWriter<>(asyncContext, objectMapper, this::readPage);
+
+        writer.onWritePossible();
+
+        assertEquals("\"a\"\n\"b\"\n\"c\"\n", outputStream.written());
+        assertEquals(List.of("start", "b"), requestedCursors);
+        verify(asyncContext, times(1)).complete();
+    }
+
+    @Test
+    public void testReadsTheNextPageOnlyOnceTheClientHasTakenThePrevious() throws IOException {
+        PagedNdjsonWriter<String> writer = new PagedNdjsonWriter<>(asyncContext, objectMapper, this::readPage);
+        outputStream.ready = false;
+
+        writer.onWritePossible();
+
+        assertEquals("\"a\"\n\"b\"\n", outputStream.written());
+        assertEquals(List.of("start"), requestedCursors);
+        verify(asyncContext, never()).complete();
+
+        outputStream.ready = true;
+        writer.onWritePossible();
+
+        assertEquals("\"a\"\n\"b\"\n\"c\"\n", outputStream.written());
+        assertEquals(List.of("start", "b"), requestedCursors);
+        verify(asyncContext, times(1)).complete();
+    }
+
+    @Test
+    public void testAnswers503WhenTheReadIsRejected() throws IOException {
+        PagedNdjsonWriter<String> writer = new PagedNdjsonWriter<>(asyncContext, objectMapper, cursor -> {
+            throw new RejectedExecutionException();
+        });
+
+        writer.onWritePossible();
+
+        verify(response, times(1)).setStatus(503);
+        assertTrue(outputStream.written().contains("Too many pending reads, try again later."));
+        verify(asyncContext, times(1)).complete();
+    }
+
+    @Test
+    public void testStopsWhenAPageFailsMidway() throws IOException {
+        when(response.isCommitted()).thenReturn(true);
+
+        PagedNdjsonWriter<String> writer = new PagedNdjsonWriter<>(asyncContext, objectMapper, cursor -> cursor == null
+                ? CompletableFuture.completedFuture(new PageDTO<>(List.of("a"), "a"))
+                : CompletableFuture.failedFuture(new IllegalStateException("Connection lost")));
+
+        writer.onWritePossible();
+
+        assertEquals("\"a\"\n", outputStream.written());
+        verify(response, never()).setStatus(anyInt());
+        verify(asyncContext, times(1)).complete();
+    }
+
+    private CompletableFuture<PageDTO<String>> readPage(String cursor) {
+        requestedCursors.add(cursor == null ? "start" : cursor);
+
+        if (cursor == null)
+            return CompletableFuture.completedFuture(new PageDTO<>(List.of("a", "b"), "b"));
+
+        return CompletableFuture.completedFuture(new PageDTO<>(List.of("c"), null));
+    }
+
+    private static class ThrottledOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private boolean ready = true;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        private String written() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
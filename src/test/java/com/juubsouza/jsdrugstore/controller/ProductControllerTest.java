@@ -2,8 +2,13 @@ package com.juubsouza.jsdrugstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
+import com.juubsouza.jsdrugstore.model.dto.CatalogueImportResultDTO;
+import com.juubsouza.jsdrugstore.model.dto.FacetCountDTO;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.ProductFacetsDTO;
+import com.juubsouza.jsdrugstore.service.CatalogueImportService;
 import com.juubsouza.jsdrugstore.service.ProductService;
 import com.juubsouza.jsdrugstore.utils.MockDTOs;
 import org.junit.jupiter.api.Test;
@@ -16,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.hamcrest.Matchers;
 import org.springframework.test.web.servlet.MvcResult;
@@ -23,10 +29,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductController.class)
@@ -39,6 +48,9 @@ public class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private CatalogueImportService catalogueImportService;
+
     @Test
     public void testFindAllProducts() throws Exception {
         List<ProductDTO> products = new ArrayList<>();
@@ -49,6 +61,34 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    public void testExportProducts() throws Exception {
+        ProductDTO second = MockDTOs.newMockProductDTO();
+        second.setId(2L);
+
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(MockDTOs.newMockProductDTO());
+            consumer.accept(second);
+            return null;
+        }).when(productService).exportProducts(any());
+
+        MvcResult result = mockMvc.perform(get("/product/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult exported = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn();
+
+        String[] lines = exported.getResponse().getContentAsString().split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals(1, (Integer) JsonPath.read(lines[0], "$.id"));
+        assertEquals(2, (Integer) JsonPath.read(lines[1], "$.id"));
+    }
+
     @Test
     public void testFindProductById() throws Exception {
         ProductDTO product = MockDTOs.newMockProductDTO();
@@ -224,6 +264,117 @@ public class ProductControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    public void testFindProductsPage() throws Exception {
+        PageDTO<ProductDTO> page = new PageDTO<>(List.of(MockDTOs.newMockProductDTO()), "next");
+        when(productService.findProductsPage(null, 50)).thenReturn(page);
+
+        mockMvc.perform(get("/product/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    public void testFindProductsPageInvalidRequest() throws Exception {
+        mockMvc.perform(get("/product/page").param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Page size must be between 1 and 500."));
+
+        mockMvc.perform(get("/product/page").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor."));
+    }
+
+    @Test
+    public void testSearchProducts() throws Exception {
+        when(productService.searchProducts("test", 20)).thenReturn(List.of(MockDTOs.newMockProductDTO()));
+
+        mockMvc.perform(get("/product/search").param("query", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    public void testSearchProductsInvalidRequest() throws Exception {
+        mockMvc.perform(get("/product/search").param("query", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search query cannot be empty."));
+
+        mockMvc.perform(get("/product/search").param("query", "test").param("limit", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search limit must be between 1 and 100."));
+    }
+
+    @Test
+    public void testFilterProducts() throws Exception {
+        ProductFacetsDTO facets = new ProductFacetsDTO(1, List.of(MockDTOs.newMockProductDTO()),
+                List.of(new FacetCountDTO("Bayer", 1)), List.of(new FacetCountDTO("0-5", 1)), List.of(new FacetCountDTO("IN_STOCK", 1)));
+        when(productService.filterProducts(List.of("Bayer", "GSK"), List.of("0-5"), true, 20)).thenReturn(facets);
+
+        mockMvc.perform(get("/product/filter")
+                        .param("manufacturer", "Bayer", "GSK")
+                        .param("priceBand", "0-5")
+                        .param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.manufacturers[0].value").value("Bayer"))
+                .andExpect(jsonPath("$.priceBands[0].count").value(1));
+    }
+
+    @Test
+    public void testFilterProductsInvalidRequest() throws Exception {
+        mockMvc.perform(get("/product/filter").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Filter limit must be between 1 and 100."));
+
+        when(productService.filterProducts(any(), any(), any(), anyInt())).thenThrow(new IllegalArgumentException("Price band must be one of 0-5, 5+."));
+
+        mockMvc.perform(get("/product/filter").param("priceBand", "1-2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Price band must be one of 0-5, 5+."));
+
+        doThrow(new IllegalStateException("Product filters are not available yet.")).when(productService).filterProducts(any(), any(), any(), anyInt());
+
+        mockMvc.perform(get("/product/filter"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void testImportProducts() throws Exception {
+        CatalogueImportResultDTO result = new CatalogueImportResultDTO();
+        result.setRowsRead(2);
+        result.setProductsAdded(1);
+        result.setProductsUpdated(1);
+        when(catalogueImportService.importCatalogue(any())).thenReturn(result);
+
+        mockMvc.perform(post("/product/import")
+                        .contentType("text/csv")
+                        .content("name,manufacturer,price\nAspirin,Bayer,4.50\nIbuprofen,Pfizer,6.00\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(2))
+                .andExpect(jsonPath("$.productsAdded").value(1));
+    }
+
+    @Test
+    public void testImportProductsInvalidFeed() throws Exception {
+        when(catalogueImportService.importCatalogue(any())).thenThrow(new IllegalArgumentException("Catalogue feed header must have a price column."));
+
+        mockMvc.perform(post("/product/import")
+                        .contentType("text/csv")
+                        .content("name,manufacturer\nAspirin,Bayer\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Catalogue feed header must have a price column."));
+
+        doThrow(new RuntimeException()).when(catalogueImportService).importCatalogue(any());
+
+        mockMvc.perform(post("/product/import")
+                        .contentType("text/csv")
+                        .content("name,manufacturer,price\n"))
+                .andExpect(status().isInternalServerError());
+    }
+
     private void validateAndExpectBadRequest(String message, ProductDTO productDTO) throws Exception {
         MvcResult result = mockMvc.perform(post("/product/update")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -249,4 +400,5 @@ public class ProductControllerTest {
 
         assertEquals(message, errorMessage);
     }
+
 }
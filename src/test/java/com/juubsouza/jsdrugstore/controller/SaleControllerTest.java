@@ -2,6 +2,8 @@ package com.juubsouza.jsdrugstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.model.dto.SaleBatchResultDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTOAdd;
 import com.juubsouza.jsdrugstore.service.SaleService;
@@ -18,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -135,6 +138,68 @@ public class SaleControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    public void testAddSaleInsufficientStock() throws Exception {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+
+        when(saleService.addSale(saleDTOAdd)).thenThrow(new InsufficientStockException(1L));
+
+        mockMvc.perform(post("/sale/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(saleDTOAdd)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Insufficient stock for product 1."));
+    }
+
+    @Test
+    public void testAddSalesOk() throws Exception {
+        SaleDTOAdd invalidSale = MockDTOs.newMockSaleDTOAdd();
+        invalidSale.setSellerId(null);
+
+        List<SaleDTOAdd> saleDTOAdds = List.of(MockDTOs.newMockSaleDTOAdd(), invalidSale);
+        List<SaleBatchResultDTO> addedSales = new ArrayList<>();
+        addedSales.add(new SaleBatchResultDTO(null, true, "Created", MockDTOs.newMockSaleDTO()));
+
+        when(saleService.addSales(any())).thenReturn(addedSales);
+
+        mockMvc.perform(post("/sale/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(saleDTOAdds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].created").value(true))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].created").value(false))
+                .andExpect(jsonPath("$[1].message").value("Sale must have a seller."));
+    }
+
+    @Test
+    public void testAddSalesNullSale() throws Exception {
+        List<SaleBatchResultDTO> addedSales = new ArrayList<>();
+        addedSales.add(new SaleBatchResultDTO(null, true, "Created", MockDTOs.newMockSaleDTO()));
+
+        when(saleService.addSales(any())).thenReturn(addedSales);
+
+        mockMvc.perform(post("/sale/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null, " + new ObjectMapper().writeValueAsString(MockDTOs.newMockSaleDTOAdd()) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].created").value(false))
+                .andExpect(jsonPath("$[0].message").value("Sale cannot be null."))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].created").value(true));
+    }
+
+    @Test
+    public void testAddSalesEmptyBatch() throws Exception {
+        mockMvc.perform(post("/sale/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch must have at least one sale."));
+    }
+
     @Test
     public void testFindAllSalesForCustomer() throws Exception {
         List<SaleDTO> saleDTOList = MockDTOs.newMockSaleDTOs();
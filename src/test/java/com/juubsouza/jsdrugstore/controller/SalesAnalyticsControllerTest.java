@@ -0,0 +1,82 @@
+package com.juubsouza.jsdrugstore.controller;
+
+import com.juubsouza.jsdrugstore.analytics.RollupDimension;
+import com.juubsouza.jsdrugstore.analytics.RollupGranularity;
+import com.juubsouza.jsdrugstore.model.dto.SalesRollupDTO;
+import com.juubsouza.jsdrugstore.service.SalesAnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SalesAnalyticsController.class)
+public class SalesAnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Test
+    public void testFindSalesRollupsOk() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        when(salesAnalyticsService.findRollups(RollupDimension.PAYMENT_METHOD, RollupGranularity.DAY, from, from.plusDays(7), null))
+                .thenReturn(List.of(new SalesRollupDTO(from, "CASH", 3L, new BigDecimal("30.00"), 2L)));
+
+        mockMvc.perform(get("/analytics/sales")
+                        .param("dimension", "PAYMENT_METHOD")
+                        .param("from", "2024-03-01T00:00:00")
+                        .param("to", "2024-03-08T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].key").value("CASH"))
+                .andExpect(jsonPath("$[0].units").value(3))
+                .andExpect(jsonPath("$[0].baskets").value(2));
+    }
+
+    @Test
+    public void testFindSalesRollupsEmptyRange() throws Exception {
+        mockMvc.perform(get("/analytics/sales")
+                        .param("dimension", "SELLER")
+                        .param("from", "2024-03-08T00:00:00")
+                        .param("to", "2024-03-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Range start must be before its end."));
+
+        verify(salesAnalyticsService, never()).findRollups(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testFindSalesRollupsRangeTooLong() throws Exception {
+        mockMvc.perform(get("/analytics/sales")
+                        .param("dimension", "PRODUCT")
+                        .param("granularity", "HOUR")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-03-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Range cannot cover more than 744 buckets of one hour."));
+    }
+
+    @Test
+    public void testFindSalesRollupsUnknownDimension() throws Exception {
+        mockMvc.perform(get("/analytics/sales")
+                        .param("dimension", "CUSTOMER")
+                        .param("from", "2024-03-01T00:00:00")
+                        .param("to", "2024-03-08T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -2,6 +2,7 @@ package com.juubsouza.jsdrugstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTO;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTOAdd;
 import com.juubsouza.jsdrugstore.service.SellerService;
@@ -224,6 +225,16 @@ public class SellerControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testFindSellersPage() throws Exception {
+        PageDTO<SellerDTO> page = new PageDTO<>(List.of(MockDTOs.newMockSellerDTO()), null);
+        when(sellerService.findSellersPage(null, 50)).thenReturn(page);
+
+        mockMvc.perform(get("/seller/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1));
+    }
+
     private void validateAndExpectBadRequest(String message, SellerDTO sellerDTO) throws Exception {
         MvcResult result = mockMvc.perform(post("/seller/update")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -249,4 +260,5 @@ public class SellerControllerTest {
 
         assertEquals(message, errorMessage);
     }
+
 }
@@ -0,0 +1,111 @@
+package com.juubsouza.jsdrugstore.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.StockHoldDTO;
+import com.juubsouza.jsdrugstore.model.dto.StockHoldDTOAdd;
+import com.juubsouza.jsdrugstore.service.StockHoldService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(StockHoldController.class)
+public class StockHoldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockHoldService stockHoldService;
+
+    @Test
+    public void testReserveOk() throws Exception {
+        StockHoldDTOAdd stockHoldDTOAdd = newStockHoldDTOAdd();
+        StockHoldDTO stockHoldDTO = new StockHoldDTO(1L, LocalDateTime.now().plusMinutes(15), stockHoldDTOAdd.getProducts());
+
+        when(stockHoldService.reserve(any())).thenReturn(stockHoldDTO);
+
+        mockMvc.perform(post("/stock-hold/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(stockHoldDTOAdd)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    public void testReserveNullOrEmptyProducts() throws Exception {
+        StockHoldDTOAdd stockHoldDTOAdd = new StockHoldDTOAdd(null);
+
+        validateAndExpectBadRequest("Stock hold must have at least one product.", stockHoldDTOAdd);
+
+        stockHoldDTOAdd.setProducts(new ArrayList<>());
+
+        validateAndExpectBadRequest("Stock hold must have at least one product.", stockHoldDTOAdd);
+    }
+
+    @Test
+    public void testReserveInvalidProducts() throws Exception {
+        validateAndExpectBadRequest("Stock hold product must have an ID.",
+                new StockHoldDTOAdd(List.of(new SaleProductDTOAdd(1, null))));
+
+        validateAndExpectBadRequest("Stock hold product cannot be added more than once.",
+                new StockHoldDTOAdd(List.of(new SaleProductDTOAdd(1, 1L), new SaleProductDTOAdd(2, 1L))));
+
+        validateAndExpectBadRequest("Stock hold product quantity must be greater than 0.",
+                new StockHoldDTOAdd(List.of(new SaleProductDTOAdd(0, 1L))));
+    }
+
+    @Test
+    public void testReserveInsufficientStock() throws Exception {
+        when(stockHoldService.reserve(any())).thenThrow(new InsufficientStockException(1L));
+
+        mockMvc.perform(post("/stock-hold/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(newStockHoldDTOAdd())))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void testReleaseOk() throws Exception {
+        mockMvc.perform(delete("/stock-hold/release=1"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void testReleaseNotFound() throws Exception {
+        doThrow(new EntityNotFoundException("Stock hold not found")).when(stockHoldService).release(1L);
+
+        mockMvc.perform(delete("/stock-hold/release=1"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Stock hold not found"));
+    }
+
+    private StockHoldDTOAdd newStockHoldDTOAdd() {
+        return new StockHoldDTOAdd(List.of(new SaleProductDTOAdd(2, 1L), new SaleProductDTOAdd(1, 2L)));
+    }
+
+    private void validateAndExpectBadRequest(String message, StockHoldDTOAdd stockHoldDTOAdd) throws Exception {
+        mockMvc.perform(post("/stock-hold/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(stockHoldDTOAdd)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(message));
+    }
+}
@@ -0,0 +1,65 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiryWheelTest {
+
+    @Test
+    public void testAdvanceReturnsDueIdsInBulk() {
+        ExpiryWheel wheel = new ExpiryWheel(8, 10, 0);
+
+        for (long id = 1; id <= 100; id++)
+            wheel.schedule(id, 25);
+
+        wheel.schedule(101, 45);
+
+        assertEquals(0, wheel.advance(20).length);
+
+        long[] due = wheel.advance(30);
+        Arrays.sort(due);
+
+        assertEquals(100, due.length);
+        assertEquals(1, due[0]);
+        assertEquals(100, due[99]);
+        assertEquals(1, wheel.size());
+        assertArrayEquals(new long[]{101}, wheel.advance(50));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testKeepsDeadlinesBeyondOneTurn() {
+        ExpiryWheel wheel = new ExpiryWheel(4, 10, 0);
+
+        wheel.schedule(1, 15);
+        wheel.schedule(2, 55);
+
+        assertArrayEquals(new long[]{1}, wheel.advance(20));
+        assertEquals(0, wheel.advance(40).length);
+        assertArrayEquals(new long[]{2}, wheel.advance(60));
+    }
+
+    @Test
+    public void testLongGapExpiresEverythingDue() {
+        ExpiryWheel wheel = new ExpiryWheel(4, 10, 0);
+
+        for (long id = 1; id <= 20; id++)
+            wheel.schedule(id, id * 10);
+
+        assertEquals(20, wheel.advance(10_000).length);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testPastDeadlineIsDueOnNextTick() {
+        ExpiryWheel wheel = new ExpiryWheel(4, 10, 100);
+
+        wheel.schedule(7, 0);
+
+        assertEquals(0, wheel.advance(105).length);
+        assertArrayEquals(new long[]{7}, wheel.advance(110));
+    }
+}
@@ -0,0 +1,175 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    private LongLongMap deltas(long productId, long delta) {
+        LongLongMap deltas = new LongLongMap();
+        deltas.add(productId, delta);
+        return deltas;
+    }
+
+    @Test
+    public void testRecordsAreReadBackAcrossSegments() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.open(10);
+            journal.append(deltas(1L, -2));
+            journal.rotate();
+            journal.append(deltas(2L, -5));
+        }
+
+        List<InventoryJournal.Record> records = new InventoryJournal(directory).readAll();
+
+        assertEquals(2, records.size());
+        assertEquals(11, records.get(0).getSequence());
+        assertEquals(-2, records.get(0).getDeltas().get(1L, 0));
+        assertEquals(12, records.get(1).getSequence());
+        assertEquals(-5, records.get(1).getDeltas().get(2L, 0));
+    }
+
+    @Test
+    public void testTornRecordIsIgnored() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.open(0);
+            journal.append(deltas(1L, -2));
+        }
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+
+        Files.write(segment, new byte[]{0, 0, 0, 1, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        assertEquals(1, new InventoryJournal(directory).readAll().size());
+    }
+
+    @Test
+    public void testClosedSegmentsAreDeleted() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.open(0);
+            journal.append(deltas(1L, -2));
+            assertEquals(1, journal.rotate());
+            journal.append(deltas(1L, -3));
+            journal.deleteClosedSegments();
+        }
+
+        List<InventoryJournal.Record> records = new InventoryJournal(directory).readAll();
+
+        assertEquals(1, records.size());
+        assertEquals(2, records.get(0).getSequence());
+    }
+
+    @Test
+    public void testConcurrentAppendsAreAllDurableInSequenceOrder() throws Exception {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.open(0);
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+
+            for (int i = 0; i < 400; i++) {
+                long productId = i;
+                executor.submit(() -> journal.append(deltas(productId, -1)));
+            }
+
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        List<InventoryJournal.Record> records = new InventoryJournal(directory).readAll();
+
+        assertEquals(400, records.size());
+
+        for (int i = 0; i < records.size(); i++)
+            assertEquals(i + 1, records.get(i).getSequence());
+    }
+
+    @Test
+    public void testQueuedRecordsAreWrittenOnRotate() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.open(0);
+            journal.enqueue(deltas(1L, -2));
+            journal.enqueue(deltas(2L, -3));
+
+            assertEquals(2, journal.rotate());
+        }
+
+        assertEquals(2, new InventoryJournal(directory).readAll().size());
+    }
+
+    @Test
+    public void testSegmentsAreDeletedOnlyOnceCovered() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.open(0);
+            journal.append(deltas(1L, -2));
+            journal.rotate();
+            journal.append(deltas(1L, -3));
+            journal.rotate();
+            journal.deleteSegmentsThrough(1);
+        }
+
+        List<InventoryJournal.Record> records = new InventoryJournal(directory).readAll();
+
+        assertEquals(1, records.size());
+        assertEquals(2, records.get(0).getSequence());
+    }
+
+    @Test
+    public void testFailedWriteStopsTheJournal() throws IOException {
+        FailingJournal journal = new FailingJournal(directory);
+        journal.open(0);
+        journal.append(deltas(1L, -2));
+
+        journal.failing = true;
+
+        assertThrows(IOException.class, () -> journal.append(deltas(1L, -3)));
+        assertNotNull(journal.getFailure());
+
+        journal.failing = false;
+
+        assertThrows(IOException.class, () -> journal.append(deltas(1L, -4)));
+        assertThrows(IOException.class, journal::rotate);
+        journal.close();
+
+        List<InventoryJournal.Record> records = new InventoryJournal(directory).readAll();
+
+        assertEquals(1, records.size());
+        assertEquals(1, records.get(0).getSequence());
+    }
+
+    static class FailingJournal extends InventoryJournal {
+
+        volatile boolean failing;
+
+        FailingJournal(Path directory) {
+            super(directory);
+        }
+
+        @Override
+        void write(FileChannel channel, ByteBuffer[] batch) throws IOException {
+            if (failing)
+                throw new IOException("Disk failure");
+
+            super.write(channel, batch);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.model.InventoryCheckpoint;
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Stock;
+import com.juubsouza.jsdrugstore.repository.InventoryCheckpointRepository;
+import com.juubsouza.jsdrugstore.repository.StockRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class InventoryLedgerTest {
+
+    @TempDir
+    private Path journalDirectory;
+
+    private final Map<Long, Stock> stocks = new HashMap<>();
+
+    private StockRepository stockRepository;
+
+    private InventoryCheckpointRepository checkpointRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    public void setUp() {
+        stockRepository = mock(StockRepository.class);
+        checkpointRepository = mock(InventoryCheckpointRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        addStock(1L, 10);
+        addStock(2L, 5);
+
+        when(stockRepository.findByProductId(any())).thenAnswer(invocation -> Optional.ofNullable(stocks.get((Long) invocation.getArgument(0))));
+        when(stockRepository.findAllByProductIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> productIds = invocation.getArgument(0);
+            return productIds.stream().map(stocks::get).filter(Objects::nonNull).toList();
+        });
+        when(checkpointRepository.findById(any())).thenReturn(Optional.empty());
+    }
+
+    private void addStock(Long productId, int level) {
+        Product product = new Product();
+        product.setId(productId);
+
+        Stock stock = new Stock();
+        stock.setProduct(product);
+        stock.setStock(level);
+
+        stocks.put(productId, stock);
+    }
+
+    private InventoryLedger newLedger() {
+        InventoryLedger ledger = new InventoryLedger(stockRepository, checkpointRepository, eventPublisher,
+                mock(PlatformTransactionManager.class), true, journalDirectory.toString(), 8);
+        ledger.afterSingletonsInstantiated();
+        return ledger;
+    }
+
+    private InventoryLedger newLedger(InventoryJournal journal) {
+        InventoryLedger ledger = new InventoryLedger(stockRepository, checkpointRepository, eventPublisher,
+                mock(PlatformTransactionManager.class), true, journal, 8);
+        ledger.afterSingletonsInstantiated();
+        return ledger;
+    }
+
+    private void inTransaction(Runnable work, Runnable completion) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            completion.run();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void beforeCommit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+    }
+
+    private void afterCompletion(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    @Test
+    public void testReserveIsAllOrNothing() {
+        InventoryLedger ledger = newLedger();
+
+        assertThrows(InsufficientStockException.class, () -> ledger.reserve(new TreeMap<>(Map.of(1L, 3, 2L, 6))));
+
+        assertEquals(10L, ledger.findLevel(1L));
+        assertEquals(5L, ledger.findLevel(2L));
+
+        ledger.reserve(new TreeMap<>(Map.of(1L, 3, 2L, 5)));
+
+        assertEquals(7L, ledger.findLevel(1L));
+        assertEquals(0L, ledger.findLevel(2L));
+        assertNull(ledger.findLevel(3L));
+    }
+
+    @Test
+    public void testFlushWritesAggregatedDeltasAndCheckpoint() {
+        InventoryLedger ledger = newLedger();
+
+        ledger.reserve(Map.of(1L, 2));
+        ledger.reserve(Map.of(1L, 3));
+        ledger.setLevel(2L, 9);
+
+        ledger.flush();
+
+        assertEquals(5, stocks.get(1L).getStock());
+        assertEquals(9, stocks.get(2L).getStock());
+        verify(checkpointRepository, times(1)).save(new InventoryCheckpoint(1L, 3L));
+        verify(eventPublisher, times(1)).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    public void testSetLevelsJournalsOnlyChangedLevels() {
+        InventoryLedger ledger = newLedger();
+
+        ledger.reserve(Map.of(1L, 4));
+
+        assertEquals(1, ledger.setLevels(Map.of(1L, 6, 2L, 8)));
+        assertEquals(0, ledger.setLevels(Map.of(1L, 6, 2L, 8)));
+        assertEquals(1, ledger.setLevels(Map.of(1L, 9, 2L, 8)));
+
+        ledger.flush();
+
+        assertEquals(9, stocks.get(1L).getStock());
+        assertEquals(8, stocks.get(2L).getStock());
+        assertThrows(EntityNotFoundException.class, () -> ledger.setLevels(Map.of(3L, 1)));
+    }
+
+    @Test
+    public void testUnflushedDeltasAreReplayedOnStartup() {
+        InventoryLedger crashed = newLedger();
+
+        crashed.reserve(Map.of(1L, 4));
+        crashed.reserve(Map.of(2L, 1));
+
+        assertEquals(10, stocks.get(1L).getStock());
+
+        newLedger();
+
+        assertEquals(6, stocks.get(1L).getStock());
+        assertEquals(4, stocks.get(2L).getStock());
+        verify(checkpointRepository, times(1)).save(new InventoryCheckpoint(1L, 2L));
+    }
+
+    @Test
+    public void testConcurrentReservationsNeverOversell() throws InterruptedException {
+        addStock(1L, 1_000);
+        InventoryLedger ledger = newLedger();
+
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 1_200; i++) {
+            executor.execute(() -> {
+                try {
+                    ledger.reserve(Map.of(1L, 1));
+                    accepted.incrementAndGet();
+                } catch (InsufficientStockException ignored) {
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1_000, accepted.get());
+        assertEquals(0L, ledger.findLevel(1L));
+
+        ledger.flush();
+
+        assertEquals(0, stocks.get(1L).getStock());
+    }
+
+    @Test
+    public void testLoadedLevelNeverReadsTheStockTable() {
+        InventoryLedger ledger = newLedger();
+
+        assertNull(ledger.findLoadedLevel(1L));
+
+        ledger.reserve(Map.of(1L, 4));
+
+        assertEquals(6L, ledger.findLoadedLevel(1L));
+        verify(stockRepository, times(1)).findAllByProductIdIn(any());
+    }
+
+    @Test
+    public void testMissingLevelsAreReadInOneQuery() {
+        InventoryLedger ledger = newLedger();
+
+        ledger.reserve(new TreeMap<>(Map.of(1L, 1, 2L, 1)));
+        ledger.reserve(new TreeMap<>(Map.of(1L, 1, 2L, 1)));
+
+        verify(stockRepository, times(1)).findAllByProductIdIn(any());
+        verify(stockRepository, never()).findByProductId(any());
+    }
+
+    @Test
+    public void testUncommittedReservationIsNotReplayed() {
+        InventoryLedger crashed = newLedger();
+
+        inTransaction(() -> crashed.reserve(Map.of(1L, 4)), () -> assertEquals(6L, crashed.findLevel(1L)));
+
+        newLedger();
+
+        assertEquals(10, stocks.get(1L).getStock());
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    @Test
+    public void testRollbackGivesReservationBack() {
+        InventoryLedger ledger = newLedger();
+
+        inTransaction(() -> ledger.reserve(Map.of(1L, 4)), () -> afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(10L, ledger.findLevel(1L));
+
+        ledger.flush();
+
+        assertEquals(10, stocks.get(1L).getStock());
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    @Test
+    public void testReservationIsJournaledBeforeCommit() {
+        InventoryLedger crashed = newLedger();
+
+        inTransaction(() -> crashed.reserve(Map.of(1L, 4)), this::beforeCommit);
+
+        newLedger();
+
+        assertEquals(6, stocks.get(1L).getStock());
+    }
+
+    @Test
+    public void testFailedCommitIsCompensated() {
+        InventoryLedger crashed = newLedger();
+
+        inTransaction(() -> crashed.reserve(Map.of(1L, 4)), () -> {
+            beforeCommit();
+            afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        });
+
+        assertEquals(10L, crashed.findLevel(1L));
+
+        newLedger();
+
+        assertEquals(10, stocks.get(1L).getStock());
+        verify(checkpointRepository, times(1)).save(new InventoryCheckpoint(1L, 2L));
+    }
+
+    @Test
+    public void testJournalFailureStopsChangesAndFlushesUntilRestart() {
+        InventoryJournalTest.FailingJournal journal = new InventoryJournalTest.FailingJournal(journalDirectory);
+        InventoryLedger failed = newLedger(journal);
+
+        failed.reserve(Map.of(1L, 2));
+        journal.failing = true;
+
+        assertThrows(UncheckedIOException.class, () -> failed.reserve(Map.of(1L, 3)));
+        assertThrows(UncheckedIOException.class, () -> failed.release(Map.of(1L, 1)));
+        assertEquals(8L, failed.findLevel(1L));
+        assertNotNull(failed.getJournalFailure());
+        assertEquals(Status.DOWN, new InventoryLedgerHealthIndicator(failed).health().getStatus());
+
+        failed.flush();
+
+        assertEquals(10, stocks.get(1L).getStock());
+        verify(checkpointRepository, never()).save(any());
+
+        InventoryLedger restarted = newLedger();
+
+        assertEquals(8, stocks.get(1L).getStock());
+        assertEquals(8L, restarted.findLevel(1L));
+        assertEquals(Status.UP, new InventoryLedgerHealthIndicator(restarted).health().getStatus());
+    }
+
+    @Test
+    public void testFlushForcesTheJournalWithoutHoldingStripeLocks() throws Exception {
+        AtomicBoolean blocking = new AtomicBoolean();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        InventoryJournal journal = new InventoryJournal(journalDirectory) {
+
+            @Override
+            void write(FileChannel channel, ByteBuffer[] batch) throws IOException {
+                if (blocking.get()) {
+                    writing.countDown();
+                    awaitQuietly(proceed);
+                }
+
+                super.write(channel, batch);
+            }
+        };
+        InventoryLedger ledger = newLedger(journal);
+
+        inTransaction(() -> ledger.reserve(Map.of(1L, 2)), this::beforeCommit);
+        journal.enqueue(new LongLongMap());
+        blocking.set(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> flush = executor.submit(ledger::flush);
+
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        Future<Long> reservation = executor.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                ledger.reserve(Map.of(1L, 3));
+                return ledger.findLoadedLevel(1L);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+
+        try {
+            assertEquals(5L, reservation.get(5, TimeUnit.SECONDS));
+        } finally {
+            blocking.set(false);
+            proceed.countDown();
+        }
+
+        flush.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(8, stocks.get(1L).getStock());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
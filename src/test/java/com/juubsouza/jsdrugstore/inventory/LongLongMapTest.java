@@ -0,0 +1,55 @@
+package com.juubsouza.jsdrugstore.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongLongMapTest {
+
+    @Test
+    public void testMatchesHashMapUnderRandomOperations() {
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000);
+
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    map.put(key, i);
+                    expected.put(key, (long) i);
+                }
+                case 1 -> {
+                    map.add(key, 3);
+                    expected.merge(key, 3L, Long::sum);
+                }
+                default -> {
+                    map.remove(key);
+                    expected.remove(key);
+                }
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+
+        for (Map.Entry<Long, Long> entry : expected.entrySet())
+            assertEquals(entry.getValue(), map.get(entry.getKey(), -1));
+
+        Map<Long, Long> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testReservedKeyIsRejected() {
+        LongLongMap map = new LongLongMap();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+        assertFalse(map.containsKey(Long.MIN_VALUE));
+    }
+}
@@ -0,0 +1,39 @@
+package com.juubsouza.jsdrugstore.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testPrometheusEndpointExposesLayerMetrics() throws Exception {
+        mockMvc.perform(get("/product/all")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "jsdrugstore_service_invocations_seconds_count{entity=\"Product\",exception=\"none\",operation=\"findAllProducts\",outcome=\"SUCCESS\",service=\"ProductService\",}")))
+                .andExpect(content().string(containsString("jsdrugstore_repository_invocations_seconds_count{entity=\"Product\"")))
+                .andExpect(content().string(containsString("jsdrugstore_sql_statements_total{type=\"select\",}")))
+                .andExpect(content().string(containsString(
+                        "jsdrugstore_http_sql_statements_count{method=\"GET\",status=\"200\",uri=\"/product/all\",}")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total")))
+                .andExpect(content().string(containsString("region=\"seller\"")));
+    }
+}
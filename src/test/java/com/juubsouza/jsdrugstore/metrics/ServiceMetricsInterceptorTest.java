@@ -0,0 +1,94 @@
+package com.juubsouza.jsdrugstore.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServiceMetricsInterceptorTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ProductService productService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+
+        ProxyFactory proxyFactory = new ProxyFactory(new ProductService());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new ServiceMetricsInterceptor(beanFactory.getBeanProvider(MeterRegistry.class)));
+        productService = (ProductService) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void testTimesSuccessfulCalls() {
+        productService.findProduct(1L);
+        productService.findProduct(2L);
+
+        Timer timer = timer("findProduct", MetricTags.SUCCESS);
+
+        assertEquals(2, timer.count());
+        assertEquals("Product", timer.getId().getTag("entity"));
+        assertEquals(MetricTags.NONE, timer.getId().getTag("exception"));
+    }
+
+    @Test
+    public void testTimesFailedCalls() {
+        assertThrows(EntityNotFoundException.class, () -> productService.findProduct(0L));
+
+        Timer timer = timer("findProduct", MetricTags.ERROR);
+
+        assertEquals(1, timer.count());
+        assertEquals("EntityNotFoundException", timer.getId().getTag("exception"));
+    }
+
+    @Test
+    public void testTimesCompletionStagesUntilTheyComplete() {
+        CompletableFuture<String> read = new CompletableFuture<>();
+        productService.readProduct(read);
+
+        assertNull(meterRegistry.find(ServiceMetricsInterceptor.METRIC_NAME).timer());
+
+        read.completeExceptionally(new EntityNotFoundException());
+
+        Timer timer = timer("readProduct", MetricTags.ERROR);
+
+        assertEquals(1, timer.count());
+        assertEquals("EntityNotFoundException", timer.getId().getTag("exception"));
+    }
+
+    private Timer timer(String operation, String outcome) {
+        Timer timer = meterRegistry.find(ServiceMetricsInterceptor.METRIC_NAME)
+                .tags("service", "ProductService", "operation", operation, "outcome", outcome)
+                .timer();
+
+        assertNotNull(timer);
+        return timer;
+    }
+
+    static class ProductService {
+
+        public String findProduct(Long id) {
+            if (id == 0)
+                throw new EntityNotFoundException("Product not found");
+
+            return "Product " + id;
+        }
+
+        public CompletableFuture<String> readProduct(CompletableFuture<String> read) {
+            return read;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.juubsouza.jsdrugstore.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementCounterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        sqlStatementCounter = new SqlStatementCounter(meterRegistry);
+    }
+
+    @Test
+    public void testCountsStatementsByType() {
+        sqlStatementCounter.inspect("select p.id from product p");
+        sqlStatementCounter.inspect("  SELECT 1");
+        sqlStatementCounter.inspect("insert into sale (id) values (?)");
+        sqlStatementCounter.inspect("update stock set quantity=? where id=?");
+        sqlStatementCounter.inspect("delete from stock_hold where id=?");
+        sqlStatementCounter.inspect("with totals as (select 1) select * from totals");
+
+        assertEquals(2, count("select"));
+        assertEquals(1, count("insert"));
+        assertEquals(1, count("update"));
+        assertEquals(1, count("delete"));
+        assertEquals(1, count("other"));
+    }
+
+    @Test
+    public void testCountsStatementsInScope() {
+        sqlStatementCounter.inspect("select 1");
+
+        SqlStatementCounter.begin();
+        sqlStatementCounter.inspect("select 1");
+        sqlStatementCounter.inspect("select 2");
+
+        assertEquals(2, SqlStatementCounter.end());
+        assertEquals(0, SqlStatementCounter.end());
+    }
+
+    @Test
+    public void testFilterRecordsStatementsPerRequest() throws Exception {
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/product/by-id=1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/product/by-id={id}");
+                sqlStatementCounter.inspect("select p.id from product p where p.id=?");
+                sqlStatementCounter.inspect("select s.quantity from stock s where s.product_id=?");
+            }
+        }));
+
+        DistributionSummary summary = meterRegistry.find(SqlStatementMetricsFilter.METRIC_NAME)
+                .tags("method", "GET", "uri", "/product/by-id={id}", "status", "200")
+                .summary();
+
+        assertNotNull(summary);
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    private double count(String type) {
+        return meterRegistry.get(SqlStatementCounter.METRIC_NAME).tag("type", type).counter().count();
+    }
+}
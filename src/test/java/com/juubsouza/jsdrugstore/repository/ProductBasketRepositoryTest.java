@@ -0,0 +1,100 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.config.DefaultPropertiesConfig;
+import com.juubsouza.jsdrugstore.config.SecondLevelCacheConfig;
+import com.juubsouza.jsdrugstore.model.Price;
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Stock;
+import com.juubsouza.jsdrugstore.model.dto.BasketProductDTO;
+import com.microsoft.sqlserver.jdbc.SQLServerDataTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({DefaultPropertiesConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductBasketRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testFindBasketReturnsPriceStockAndQuantity() {
+        Long aspirinId = newProduct("Aspirin", "4.50", 10);
+        Long bandageId = newProduct("Bandage", "2.00", null);
+
+        List<BasketProductDTO> basket = productRepository.findBasket(Map.of(aspirinId, 3, bandageId, 1, -1L, 1));
+        basket.sort(Comparator.comparing(BasketProductDTO::getId));
+
+        assertEquals(2, basket.size());
+        assertEquals(new BasketProductDTO(aspirinId, "Aspirin", new BigDecimal("4.50"), 10, 3), withScale(basket.get(0)));
+        assertEquals(new BasketProductDTO(bandageId, "Bandage", new BigDecimal("2.00"), null, 1), withScale(basket.get(1)));
+    }
+
+    @Test
+    public void testFindBasketLargerThanInListLimit() {
+        Long aspirinId = newProduct("Aspirin", "4.50", 10);
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+
+        for (long id = 1; id <= 2500; id++)
+            quantities.put(-id, 1);
+
+        quantities.put(aspirinId, 2);
+
+        List<BasketProductDTO> basket = productRepository.findBasket(quantities);
+
+        assertEquals(1, basket.size());
+        assertEquals(2, basket.get(0).getQuantity());
+        assertTrue(productRepository.findBasket(Map.of()).isEmpty());
+    }
+
+    @Test
+    public void testBasketTableValuedParameterHasOneRowPerProduct() throws Exception {
+        SQLServerDataTable table = ProductBasketRepositoryImpl.toDataTable(Map.of(1L, 3, 2L, 1));
+
+        Map<Long, Integer> rows = new HashMap<>();
+        table.getIterator().forEachRemaining(row -> rows.put((Long) row.getValue()[0], (Integer) row.getValue()[1]));
+
+        assertEquals(Types.BIGINT, table.getColumnMetadata().get(0).getColumnType());
+        assertEquals(Types.INTEGER, table.getColumnMetadata().get(1).getColumnType());
+        assertEquals(Map.of(1L, 3, 2L, 1), rows);
+    }
+
+    private Long newProduct(String name, String price, Integer units) {
+        Product product = new Product();
+        product.setName(name);
+        product.setManufacturer("Test Manufacturer");
+        product.setPrice(new Price(null, new BigDecimal(price), product));
+
+        if (units != null)
+            product.setStock(new Stock(null, units, product));
+
+        return productRepository.save(product).getId();
+    }
+
+    private static BasketProductDTO withScale(BasketProductDTO product) {
+        product.setPrice(product.getPrice().setScale(2));
+        return product;
+    }
+}
@@ -0,0 +1,85 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.config.DefaultPropertiesConfig;
+import com.juubsouza.jsdrugstore.config.SecondLevelCacheConfig;
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Sale;
+import com.juubsouza.jsdrugstore.model.SaleProduct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({DefaultPropertiesConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SaleProductRepositoryTest {
+
+    @Autowired
+    private SaleProductRepository saleProductRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testSaveAllBatchesInserts() {
+        Product product = new Product();
+        product.setName("Test Product");
+        product.setManufacturer("Test Manufacturer");
+        productRepository.save(product);
+
+        Sale sale = saleRepository.save(new Sale());
+
+        List<SaleProduct> saleProducts = new ArrayList<>();
+
+        for (int i = 0; i < 120; i++) {
+            SaleProduct saleProduct = new SaleProduct();
+            saleProduct.setQuantity(1);
+            saleProduct.setProduct(product);
+            saleProduct.setSale(sale);
+            saleProducts.add(saleProduct);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        saleProductRepository.saveAll(saleProducts);
+
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 6, "Prepared " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    public void testIdsAreAllocatedInBlocks() {
+        List<Product> products = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName("Test Product " + i);
+            product.setManufacturer("Test Manufacturer");
+            products.add(product);
+        }
+
+        List<Product> savedProducts = productRepository.saveAll(products);
+
+        assertEquals(savedProducts.get(0).getId() + 1, savedProducts.get(1).getId());
+        assertEquals(savedProducts.get(0).getId() + 2, savedProducts.get(2).getId());
+    }
+}
@@ -0,0 +1,77 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.analytics.RollupDimension;
+import com.juubsouza.jsdrugstore.analytics.RollupGranularity;
+import com.juubsouza.jsdrugstore.config.DefaultPropertiesConfig;
+import com.juubsouza.jsdrugstore.config.SecondLevelCacheConfig;
+import com.juubsouza.jsdrugstore.model.SalesRollup;
+import com.juubsouza.jsdrugstore.model.dto.SalesRollupDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({DefaultPropertiesConfig.class, SecondLevelCacheConfig.class})
+public class SalesRollupRepositoryTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Test
+    public void testAddToRollupUpdatesOnlyExistingRows() {
+        salesRollupRepository.saveAndFlush(newRollup(RollupDimension.PRODUCT, DAY, "1"));
+
+        assertEquals(1, salesRollupRepository.addToRollup(RollupDimension.PRODUCT, RollupGranularity.DAY, DAY, "1",
+                3, new BigDecimal("30.00"), 2));
+        assertEquals(0, salesRollupRepository.addToRollup(RollupDimension.PRODUCT, RollupGranularity.DAY, DAY, "2",
+                3, new BigDecimal("30.00"), 2));
+
+        List<SalesRollupDTO> rollups = salesRollupRepository.findDTOsInRange(RollupDimension.PRODUCT, RollupGranularity.DAY, DAY, DAY.plusDays(1));
+
+        assertEquals(1, rollups.size());
+        assertEquals(5, rollups.get(0).getUnits());
+        assertEquals(0, new BigDecimal("50.00").compareTo(rollups.get(0).getRevenue()));
+        assertEquals(3, rollups.get(0).getBaskets());
+    }
+
+    @Test
+    public void testFindsRollupsInRange() {
+        salesRollupRepository.saveAll(List.of(
+                newRollup(RollupDimension.SELLER, DAY.minusDays(1), "1"),
+                newRollup(RollupDimension.SELLER, DAY, "2"),
+                newRollup(RollupDimension.SELLER, DAY, "1"),
+                newRollup(RollupDimension.SELLER, DAY.plusDays(1), "1"),
+                newRollup(RollupDimension.PRODUCT, DAY, "1")));
+
+        List<SalesRollupDTO> rollups = salesRollupRepository.findDTOsInRange(RollupDimension.SELLER, RollupGranularity.DAY, DAY, DAY.plusDays(2));
+
+        assertEquals(List.of("1", "2", "1"), rollups.stream().map(SalesRollupDTO::getKey).toList());
+        assertEquals(DAY.plusDays(1), rollups.get(2).getBucketStart());
+
+        List<SalesRollupDTO> seller = salesRollupRepository.findDTOsInRangeByKey(RollupDimension.SELLER, RollupGranularity.DAY, DAY, DAY.plusDays(1), "1");
+
+        assertEquals(1, seller.size());
+        assertEquals(DAY, seller.get(0).getBucketStart());
+    }
+
+    @Test
+    public void testRejectsDuplicateBuckets() {
+        salesRollupRepository.saveAndFlush(newRollup(RollupDimension.PRODUCT, DAY, "1"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> salesRollupRepository.saveAndFlush(newRollup(RollupDimension.PRODUCT, DAY, "1")));
+    }
+
+    private static SalesRollup newRollup(RollupDimension dimension, LocalDateTime bucketStart, String key) {
+        return new SalesRollup(null, dimension, RollupGranularity.DAY, bucketStart, key, 2L, new BigDecimal("20.00"), 1L);
+    }
+}
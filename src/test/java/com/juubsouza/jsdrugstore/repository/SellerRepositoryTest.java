@@ -0,0 +1,103 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.config.DefaultPropertiesConfig;
+import com.juubsouza.jsdrugstore.config.SecondLevelCacheConfig;
+import com.juubsouza.jsdrugstore.model.Seller;
+import com.juubsouza.jsdrugstore.model.dto.SellerDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({DefaultPropertiesConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SellerRepositoryTest {
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        sellerRepository.deleteAll();
+    }
+
+    @Test
+    public void testFindByIdIsServedFromSecondLevelCache() {
+        Seller seller = sellerRepository.save(newSeller("John"));
+        statistics.clear();
+
+        assertEquals("John", sellerRepository.findById(seller.getId()).orElseThrow().getFirstName());
+        assertEquals("John", sellerRepository.findById(seller.getId()).orElseThrow().getFirstName());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics("seller").getHitCount());
+    }
+
+    @Test
+    public void testWritesReplaceCachedSellers() {
+        Seller seller = sellerRepository.save(newSeller("John"));
+        sellerRepository.findById(seller.getId());
+
+        seller.setFirstName("Jack");
+        sellerRepository.save(seller);
+        statistics.clear();
+
+        assertEquals("Jack", sellerRepository.findById(seller.getId()).orElseThrow().getFirstName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        sellerRepository.deleteById(seller.getId());
+
+        assertTrue(sellerRepository.findById(seller.getId()).isEmpty());
+    }
+
+    @Test
+    public void testSellerQueriesAreCachedUntilSellersChange() {
+        sellerRepository.save(newSeller("John"));
+
+        assertEquals(1, sellerRepository.findAllDTOs().size());
+        statistics.clear();
+
+        assertEquals(1, sellerRepository.findAllDTOs().size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        Seller jack = sellerRepository.save(newSeller("Jack"));
+
+        List<SellerDTO> sellers = sellerRepository.findAllDTOs();
+
+        assertEquals(2, sellers.size());
+        assertEquals("Jack", sellerRepository.findDTOById(jack.getId()).orElseThrow().getFirstName());
+    }
+
+    private static Seller newSeller(String firstName) {
+        Seller seller = new Seller();
+        seller.setFirstName(firstName);
+        seller.setLastName("Doe");
+        seller.setAdmissionDate(new Date());
+        return seller;
+    }
+}
@@ -0,0 +1,109 @@
+package com.juubsouza.jsdrugstore.repository;
+
+import com.juubsouza.jsdrugstore.config.DefaultPropertiesConfig;
+import com.juubsouza.jsdrugstore.config.SecondLevelCacheConfig;
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Stock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({DefaultPropertiesConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockRepositoryTest {
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testDecrementStockRejectsWhenShort() {
+        Long productId = newProductWithStock(5);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Integer firstUpdate = transactionTemplate.execute(status -> stockRepository.decrementStock(productId, 3));
+        Integer secondUpdate = transactionTemplate.execute(status -> stockRepository.decrementStock(productId, 3));
+
+        assertEquals(1, firstUpdate);
+        assertEquals(0, secondUpdate);
+        assertEquals(2, stockRepository.findByProductId(productId).orElseThrow().getStock());
+    }
+
+    @Test
+    public void testConcurrentDecrementsNeverOversell() throws Exception {
+        int initialStock = 300;
+        int threads = 8;
+        int attemptsPerThread = 50;
+
+        Long productId = newProductWithStock(initialStock);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    Integer updatedRows = transactionTemplate.execute(status -> stockRepository.decrementStock(productId, 1));
+
+                    if (updatedRows != null && updatedRows == 1)
+                        accepted.incrementAndGet();
+                    else
+                        rejected.incrementAndGet();
+                }
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<?> future : futures)
+            future.get(60, TimeUnit.SECONDS);
+
+        executor.shutdown();
+
+        assertEquals(initialStock, accepted.get());
+        assertEquals(threads * attemptsPerThread - initialStock, rejected.get());
+        assertEquals(0, stockRepository.findByProductId(productId).orElseThrow().getStock());
+    }
+
+    private Long newProductWithStock(int quantity) {
+        Product product = new Product();
+        product.setName("Test Product");
+        product.setManufacturer("Test Manufacturer");
+
+        Product savedProduct = productRepository.save(product);
+
+        Stock stock = new Stock();
+        stock.setStock(quantity);
+        stock.setProduct(savedProduct);
+
+        stockRepository.save(stock);
+
+        return savedProduct.getId();
+    }
+}
@@ -0,0 +1,49 @@
+package com.juubsouza.jsdrugstore.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testAddedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++)
+            filter.put("customer" + i + "@email.com");
+
+        for (int i = 0; i < 10_000; i++)
+            assertTrue(filter.mightContain("customer" + i + "@email.com"));
+
+        assertTrue(filter.approximateValueCount() > 9_900);
+    }
+
+    @Test
+    public void testFalsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++)
+            filter.put("Product " + i);
+
+        int falsePositives = 0;
+
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("Other product " + i))
+                falsePositives++;
+        }
+
+        assertTrue(falsePositives < 2_000);
+        assertTrue(filter.expectedFalsePositiveRate() > 0.005 && filter.expectedFalsePositiveRate() < 0.02);
+        assertEquals(11_984, filter.sizeInBytes());
+    }
+
+    @Test
+    public void testEmptyFilterFindsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("Aspirin"));
+        assertFalse(filter.mightContain(""));
+        assertEquals(0, filter.expectedFalsePositiveRate());
+    }
+}
@@ -0,0 +1,121 @@
+package com.juubsouza.jsdrugstore.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedBitmapTest {
+
+    @Test
+    public void testMatchesTreeSetUnderRandomOperations() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextBoolean() ? random.nextInt(20_000) : random.nextInt(1_000_000);
+
+            if (random.nextInt(4) == 0) {
+                bitmap.remove(value);
+                expected.remove(value);
+            } else {
+                bitmap.add(value);
+                expected.add(value);
+            }
+        }
+
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertEquals(new ArrayList<>(expected), toList(bitmap));
+
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(1_000_000);
+            assertEquals(expected.contains(value), bitmap.contains(value));
+        }
+    }
+
+    @Test
+    public void testDenseContainersShrinkBackToArrays() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        for (int i = 0; i < 60_000; i++)
+            bitmap.add(i);
+
+        long denseSize = bitmap.sizeInBytes();
+
+        for (int i = 100; i < 60_000; i++)
+            bitmap.remove(i);
+
+        assertEquals(100, bitmap.cardinality());
+        assertTrue(bitmap.sizeInBytes() < denseSize);
+        assertTrue(bitmap.contains(99));
+        assertFalse(bitmap.contains(100));
+
+        for (int i = 0; i < 100; i++)
+            bitmap.remove(i);
+
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    public void testSetOperationsMatchTreeSet() {
+        Random random = new Random(7);
+
+        for (int round = 0; round < 20; round++) {
+            CompressedBitmap first = new CompressedBitmap();
+            CompressedBitmap second = new CompressedBitmap();
+            TreeSet<Integer> firstSet = new TreeSet<>();
+            TreeSet<Integer> secondSet = new TreeSet<>();
+            int range = round % 2 == 0 ? 100_000 : 300_000;
+
+            for (int i = 0; i < 30_000; i++) {
+                int a = random.nextInt(range);
+                int b = random.nextInt(range / 2);
+                first.add(a);
+                firstSet.add(a);
+                second.add(b);
+                secondSet.add(b);
+            }
+
+            TreeSet<Integer> intersection = new TreeSet<>(firstSet);
+            intersection.retainAll(secondSet);
+
+            TreeSet<Integer> union = new TreeSet<>(firstSet);
+            union.addAll(secondSet);
+
+            assertEquals(new ArrayList<>(intersection), toList(first.and(second)));
+            assertEquals(intersection.size(), first.andCardinality(second));
+            assertEquals(new ArrayList<>(union), toList(first.or(second)));
+            assertEquals(firstSet.size(), first.cardinality());
+        }
+    }
+
+    @Test
+    public void testForEachStopsWhenConsumerReturnsFalse() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        for (int value : new int[]{70_000, 5, 3, 200_000, 65_536})
+            bitmap.add(value);
+
+        List<Integer> firstThree = new ArrayList<>();
+        bitmap.forEach(value -> {
+            firstThree.add(value);
+            return firstThree.size() < 3;
+        });
+
+        assertEquals(List.of(3, 5, 65_536), firstThree);
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+
+    private static List<Integer> toList(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+
+        bitmap.forEach(value -> {
+            values.add(value);
+            return true;
+        });
+
+        return values;
+    }
+}
@@ -0,0 +1,70 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.CustomerChangedEvent;
+import com.juubsouza.jsdrugstore.model.dto.CustomerDTO;
+import com.juubsouza.jsdrugstore.repository.CustomerRepository;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PersonNameIndexTest {
+
+    private CustomerRepository customerRepository;
+
+    private CustomerNameIndex customerNameIndex;
+
+    @BeforeEach
+    public void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        customerNameIndex = new CustomerNameIndex(customerRepository, mock(PlatformTransactionManager.class));
+
+        when(customerRepository.streamAllDTOs()).thenReturn(Stream.of(
+                new CustomerDTO(1L, "João", "Silva", "joao@email.com"),
+                new CustomerDTO(2L, "Maria", "Souza", "maria@email.com"),
+                new CustomerDTO(3L, "Ana", "Silveira", "ana@email.com")));
+
+        customerNameIndex.rebuild();
+    }
+
+    @Test
+    public void testFindIdsByFirstOrLastName() {
+        assertTrue(customerNameIndex.isReady());
+        assertEquals(List.of(1L, 3L), customerNameIndex.findIdsByName("silv"));
+        assertEquals(List.of(1L), customerNameIndex.findIdsByName("joao"));
+        assertEquals(List.of(2L), customerNameIndex.findIdsByName("ria"));
+    }
+
+    @Test
+    public void testChangedCustomersAreReloaded() {
+        when(customerRepository.findDTOsByIdIn(any())).thenReturn(List.of(new CustomerDTO(2L, "Maria", "Oliveira", "maria@email.com")));
+
+        customerNameIndex.onCustomerChanged(new CustomerChangedEvent(List.of(2L, 3L)));
+
+        assertEquals(List.of(2L), customerNameIndex.findIdsByName("oliveira"));
+        assertTrue(customerNameIndex.findIdsByName("souza").isEmpty());
+        assertEquals(List.of(1L), customerNameIndex.findIdsByName("silv"));
+        assertEquals(2, customerNameIndex.size());
+    }
+
+    @Test
+    public void testCustomersAddedElsewhereAreIndexed() {
+        when(customerRepository.findDTOsAfterId(3L, PageRequest.of(0, QueryChunks.MAX_IN_PARAMETERS)))
+                .thenReturn(List.of(new CustomerDTO(7L, "Pedro", "Costa", "pedro@email.com")));
+
+        customerNameIndex.indexNewRows();
+        customerNameIndex.indexNewRows();
+
+        assertEquals(List.of(7L), customerNameIndex.findIdsByName("costa"));
+        assertEquals(4, customerNameIndex.size());
+        verify(customerRepository, times(1)).findDTOsAfterId(7L, PageRequest.of(0, QueryChunks.MAX_IN_PARAMETERS));
+    }
+}
@@ -0,0 +1,149 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.ProductChangedEvent;
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
+import com.juubsouza.jsdrugstore.model.dto.FacetCountDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import com.juubsouza.jsdrugstore.utils.QueryChunks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProductFacetIndexTest {
+
+    private ProductRepository productRepository;
+
+    private InventoryLedger inventoryLedger;
+
+    private ProductFacetIndex productFacetIndex;
+
+    @BeforeEach
+    public void setUp() {
+        productRepository = mock(ProductRepository.class);
+        inventoryLedger = mock(InventoryLedger.class);
+        productFacetIndex = new ProductFacetIndex(productRepository, inventoryLedger, mock(PlatformTransactionManager.class), "5,10");
+
+        when(productRepository.streamAllDTOs()).thenReturn(Stream.of(
+                newProduct(1L, "Bayer", "4.50", 10),
+                newProduct(2L, "Bayer", "7.00", 0),
+                newProduct(3L, "Pfizer", "7.50", 3),
+                newProduct(4L, "Pfizer", "12.00", 1),
+                newProduct(5L, "GSK", "5.00", 0)));
+
+        productFacetIndex.rebuild();
+    }
+
+    @Test
+    public void testFilterWithoutSelectionCountsEveryProduct() {
+        ProductFacetIndex.Result result = productFacetIndex.filter(null, null, null, 3);
+
+        assertTrue(productFacetIndex.isReady());
+        assertEquals(List.of("0-5", "5-10", "10+"), productFacetIndex.getPriceBands());
+        assertEquals(5, result.getTotal());
+        assertEquals(List.of(1L, 2L, 3L), result.getProductIds());
+        assertEquals(List.of(count("Bayer", 2), count("Pfizer", 2), count("GSK", 1)), result.getManufacturers());
+        assertEquals(List.of(count("0-5", 1), count("5-10", 3), count("10+", 1)), result.getPriceBands());
+        assertEquals(List.of(count(ProductFacetIndex.IN_STOCK, 3), count(ProductFacetIndex.OUT_OF_STOCK, 2)), result.getStock());
+    }
+
+    @Test
+    public void testEachFacetIsCountedWithTheOtherFilters() {
+        ProductFacetIndex.Result result = productFacetIndex.filter(List.of("Bayer", "GSK"), List.of("5-10"), true, 10);
+
+        assertEquals(0, result.getTotal());
+        assertTrue(result.getProductIds().isEmpty());
+        assertEquals(List.of(count("Pfizer", 1), count("Bayer", 0), count("GSK", 0)), result.getManufacturers());
+        assertEquals(List.of(count("0-5", 1), count("5-10", 0), count("10+", 0)), result.getPriceBands());
+        assertEquals(List.of(count(ProductFacetIndex.IN_STOCK, 0), count(ProductFacetIndex.OUT_OF_STOCK, 2)), result.getStock());
+
+        ProductFacetIndex.Result pfizer = productFacetIndex.filter(List.of("Pfizer"), List.of("5-10", "10+"), true, 10);
+
+        assertEquals(2, pfizer.getTotal());
+        assertEquals(List.of(3L, 4L), pfizer.getProductIds());
+    }
+
+    @Test
+    public void testChangedProductsAndStockAreReindexed() {
+        when(productRepository.findDTOsByIdIn(any())).thenReturn(List.of(newProduct(2L, "Bayer", "7.00", 5)));
+
+        productFacetIndex.onStockChanged(new StockChangedEvent(List.of(2L)));
+
+        assertEquals(List.of(1L, 2L), productFacetIndex.filter(List.of("Bayer"), null, true, 10).getProductIds());
+
+        when(productRepository.findDTOsByIdIn(any())).thenReturn(List.of(newProduct(6L, "Novartis", "20.00", 2)));
+
+        productFacetIndex.onProductChanged(new ProductChangedEvent(List.of(5L, 6L)));
+
+        ProductFacetIndex.Result result = productFacetIndex.filter(null, List.of("10+"), null, 10);
+
+        assertEquals(List.of(4L, 6L), result.getProductIds());
+        assertTrue(result.getManufacturers().stream().noneMatch(manufacturer -> manufacturer.getValue().equals("GSK")));
+        assertEquals(5, productFacetIndex.size());
+    }
+
+    @Test
+    public void testProductsAddedElsewhereAreIndexed() {
+        when(productRepository.findDTOsAfterId(5L, PageRequest.of(0, QueryChunks.MAX_IN_PARAMETERS)))
+                .thenReturn(List.of(newProduct(9L, "Novartis", "3.00", 4)));
+
+        productFacetIndex.indexNewProducts();
+
+        assertEquals(List.of(1L, 9L), productFacetIndex.filter(null, List.of("0-5"), true, 10).getProductIds());
+        assertEquals(6, productFacetIndex.size());
+    }
+
+    @Test
+    public void testLedgerLevelsReplaceStoredStock() {
+        when(inventoryLedger.isEnabled()).thenReturn(true);
+        when(inventoryLedger.findLevel(1L)).thenReturn(0L);
+        when(productRepository.findDTOsByIdIn(any())).thenReturn(List.of(newProduct(1L, "Bayer", "4.50", 10)));
+
+        productFacetIndex.onStockChanged(new StockChangedEvent(List.of(1L)));
+
+        assertEquals(List.of(1L, 2L), productFacetIndex.filter(List.of("Bayer"), null, false, 10).getProductIds());
+    }
+
+    @Test
+    public void testRebuildUsesLedgerLevels() {
+        when(inventoryLedger.isEnabled()).thenReturn(true);
+        when(inventoryLedger.findLoadedLevel(1L)).thenReturn(0L);
+        when(inventoryLedger.findLoadedLevel(2L)).thenReturn(4L);
+        when(inventoryLedger.findLoadedLevel(3L)).thenReturn(null);
+        when(productRepository.streamAllDTOs()).thenReturn(Stream.of(
+                newProduct(1L, "Bayer", "4.50", 10),
+                newProduct(2L, "Bayer", "7.00", 0),
+                newProduct(3L, "Pfizer", "7.50", 3)));
+
+        productFacetIndex.rebuild();
+
+        assertEquals(List.of(1L), productFacetIndex.filter(null, null, false, 10).getProductIds());
+        assertEquals(List.of(2L, 3L), productFacetIndex.filter(null, null, true, 10).getProductIds());
+    }
+
+    @Test
+    public void testUnknownPriceBandIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> productFacetIndex.filter(null, List.of("10-20"), null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ProductFacetIndex(productRepository, inventoryLedger, mock(PlatformTransactionManager.class), "10,5"));
+    }
+
+    private static ProductDTO newProduct(Long id, String manufacturer, String price, int stock) {
+        return new ProductDTO(id, "Product " + id, manufacturer, new BigDecimal(price), stock);
+    }
+
+    private static FacetCountDTO count(String value, long count) {
+        return new FacetCountDTO(value, count);
+    }
+}
@@ -0,0 +1,78 @@
+package com.juubsouza.jsdrugstore.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex newIndex() {
+        return TrigramIndex.builder()
+                .add(1L, "Paracetamol 500mg")
+                .add(2L, "Ibuprofeno 400mg")
+                .add(3L, "Dipirona Sódica")
+                .build();
+    }
+
+    @Test
+    public void testFindContaining() {
+        TrigramIndex index = newIndex();
+
+        assertEquals(List.of(1L), index.findContaining("cetamol"));
+        assertEquals(List.of(1L, 2L), index.findContaining("mg"));
+        assertEquals(List.of(3L), index.findContaining("SODICA"));
+        assertTrue(index.findContaining("aspirina").isEmpty());
+    }
+
+    @Test
+    public void testSearchToleratesTypos() {
+        TrigramIndex index = newIndex();
+
+        List<TrigramIndex.Match> matches = index.search("paracetmol", 0.4);
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).getId());
+        assertFalse(matches.get(0).isContains());
+    }
+
+    @Test
+    public void testSearchScoresPrefixAboveContains() {
+        TrigramIndex index = TrigramIndex.builder()
+                .add(1L, "Vitamina C")
+                .add(2L, "Complexo Vitamina B")
+                .build();
+
+        List<TrigramIndex.Match> matches = index.search("vitamina", 0.5);
+
+        TrigramIndex.Match prefix = matches.stream().filter(match -> match.getId() == 1L).findFirst().orElseThrow();
+        TrigramIndex.Match contains = matches.stream().filter(match -> match.getId() == 2L).findFirst().orElseThrow();
+
+        assertTrue(prefix.getScore() > contains.getScore());
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveDeletes() {
+        TrigramIndex index = newIndex();
+
+        index.put(1L, "Dorflex");
+        assertTrue(index.findContaining("paracetamol").isEmpty());
+        assertEquals(List.of(1L), index.findContaining("dorflex"));
+
+        index.remove(1L);
+        assertTrue(index.findContaining("dorflex").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testPutKeepsPostingsSortedForOutOfOrderIds() {
+        TrigramIndex index = new TrigramIndex();
+
+        for (long id : new long[]{10L, 2L, 7L, 1L, 12L, 5L})
+            index.put(id, "Amoxicilina " + id);
+
+        assertEquals(List.of(1L, 2L, 5L, 7L, 10L, 12L), index.findContaining("amoxi"));
+        assertEquals(List.of(12L), index.findContaining("amoxicilina 12"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.juubsouza.jsdrugstore.search;
+
+import com.juubsouza.jsdrugstore.event.CustomerChangedEvent;
+import com.juubsouza.jsdrugstore.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UniqueValueFilterTest {
+
+    private CustomerRepository customerRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(customerRepository.count()).thenReturn(2L);
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.of("joao@email.com", "Maria@Email.com"));
+    }
+
+    @Test
+    public void testOnlyPossibleMatchesReachTheDatabase() {
+        CustomerEmailFilter filter = newFilter(true);
+
+        assertTrue(filter.mightContain("ana@email.com"));
+
+        filter.rebuild();
+
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightContain("joao@email.com"));
+        assertTrue(filter.mightContain(" maria@email.com"));
+        assertFalse(filter.mightContain("ana@email.com"));
+        assertTrue(filter.mightContain(null));
+
+        filter.recordFalsePositive();
+
+        assertEquals(1, meterRegistry.get(UniqueValueFilter.METRIC_PREFIX + ".checks").tag("result", "absent").counter().count());
+        assertEquals(2, meterRegistry.get(UniqueValueFilter.METRIC_PREFIX + ".checks").tag("result", "possible").counter().count());
+        assertEquals(1, meterRegistry.get(UniqueValueFilter.METRIC_PREFIX + ".false.positives").counter().count());
+        assertEquals(2, meterRegistry.get(UniqueValueFilter.METRIC_PREFIX + ".values").tag("filter", "customer_email").gauge().value());
+        assertTrue(meterRegistry.get(UniqueValueFilter.METRIC_PREFIX + ".size").gauge().value() > 0);
+        assertTrue(meterRegistry.get(UniqueValueFilter.METRIC_PREFIX + ".false.positive.rate").gauge().value() < 0.01);
+    }
+
+    @Test
+    public void testChangedCustomersAreAdded() {
+        CustomerEmailFilter filter = newFilter(true);
+        filter.rebuild();
+
+        when(customerRepository.findEmailsByIdIn(any())).thenReturn(List.of("ana@email.com"));
+
+        filter.onCustomerChanged(new CustomerChangedEvent(List.of(3L, 4L)));
+
+        assertTrue(filter.mightContain("ana@email.com"));
+        assertTrue(filter.mightContain("joao@email.com"));
+    }
+
+    @Test
+    public void testDisabledFilterPassesEveryCheckToTheDatabase() {
+        CustomerEmailFilter filter = newFilter(false);
+        filter.rebuild();
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("ana@email.com"));
+    }
+
+    private CustomerEmailFilter newFilter(boolean enabled) {
+        return new CustomerEmailFilter(customerRepository, mock(PlatformTransactionManager.class), meterRegistry, enabled, 0.01, 100);
+    }
+}
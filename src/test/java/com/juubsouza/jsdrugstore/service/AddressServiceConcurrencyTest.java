@@ -0,0 +1,146 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.config.DefaultPropertiesConfig;
+import com.juubsouza.jsdrugstore.config.SecondLevelCacheConfig;
+import com.juubsouza.jsdrugstore.model.Address;
+import com.juubsouza.jsdrugstore.model.Customer;
+import com.juubsouza.jsdrugstore.model.CustomerAddress;
+import com.juubsouza.jsdrugstore.model.dto.AddressDTOAdd;
+import com.juubsouza.jsdrugstore.repository.AddressRepository;
+import com.juubsouza.jsdrugstore.repository.CustomerAddressRepository;
+import com.juubsouza.jsdrugstore.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({AddressService.class, DefaultPropertiesConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AddressServiceConcurrencyTest {
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private CustomerAddressRepository customerAddressRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    public void cleanup() {
+        customerAddressRepository.deleteAll();
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    public void testSwitchingShippingAddressDoesNotDependOnAddressCount() {
+        Customer customer = newCustomer();
+        List<Long> addressIds = newAddresses(customer, 200);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        addressService.setAddressAsShippingTrue(addressIds.get(150));
+
+        assertTrue(statistics.getPrepareStatementCount() <= 4);
+        assertEquals(0, statistics.getEntityStatistics(CustomerAddress.class.getName()).getUpdateCount());
+        assertEquals(List.of(addressIds.get(150)), shippingAddressIds(customer));
+    }
+
+    @Test
+    public void testConcurrentSwitchesLeaveOneShippingAddress() throws Exception {
+        int threads = 8;
+        int switchesPerThread = 25;
+
+        Customer customer = newCustomer();
+        List<Long> addressIds = newAddresses(customer, 20);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+
+            futures.add(executor.submit(() -> {
+                start.await();
+
+                for (int attempt = 0; attempt < switchesPerThread; attempt++) {
+                    if (thread % 4 == 0 && attempt % 5 == 0)
+                        addressService.addAddress(new AddressDTOAdd("Street " + thread + "-" + attempt, "City", "State", "Country", true, customer.getId()));
+                    else
+                        addressService.setAddressAsShippingTrue(addressIds.get(ThreadLocalRandom.current().nextInt(addressIds.size())));
+                }
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<?> future : futures)
+            future.get(60, TimeUnit.SECONDS);
+
+        executor.shutdown();
+
+        assertEquals(1, shippingAddressIds(customer).size());
+    }
+
+    private Customer newCustomer() {
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@email.com");
+        return customerRepository.save(customer);
+    }
+
+    private List<Long> newAddresses(Customer customer, int count) {
+        List<Address> addresses = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+            addresses.add(new Address(null, "Street " + i, "City", "State", "Country"));
+
+        List<Address> savedAddresses = addressRepository.saveAll(addresses);
+        List<CustomerAddress> customerAddresses = new ArrayList<>();
+
+        for (Address address : savedAddresses)
+            customerAddresses.add(new CustomerAddress(null, customerAddresses.isEmpty(), address, customer));
+
+        customerAddressRepository.saveAll(customerAddresses);
+
+        return savedAddresses.stream().map(Address::getId).toList();
+    }
+
+    private List<Long> shippingAddressIds(Customer customer) {
+        return customerAddressRepository.findAllByCustomerId(customer.getId()).stream()
+                .filter(CustomerAddress::getIsShipping)
+                .map(customerAddress -> customerAddress.getAddress().getId())
+                .toList();
+    }
+}
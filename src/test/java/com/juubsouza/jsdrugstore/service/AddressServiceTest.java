@@ -7,6 +7,7 @@ import com.juubsouza.jsdrugstore.model.dto.AddressDTO;
 import com.juubsouza.jsdrugstore.model.dto.AddressDTOAdd;
 import com.juubsouza.jsdrugstore.repository.AddressRepository;
 import com.juubsouza.jsdrugstore.repository.CustomerAddressRepository;
+import com.juubsouza.jsdrugstore.repository.CustomerRepository;
 import com.juubsouza.jsdrugstore.utils.MockDTOs;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
@@ -14,8 +15,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -33,6 +32,9 @@ public class AddressServiceTest {
     @Mock
     private CustomerAddressRepository customerAddressRepository;
 
+    @Mock
+    private CustomerRepository customerRepository;
+
     private final Long ADDRESS_ID = 1L;
 
     @Test
@@ -40,11 +42,25 @@ public class AddressServiceTest {
         AddressDTOAdd addressDTOAdd = MockDTOs.newMockAddressDTOAdd();
 
         when(addressRepository.save(any())).thenReturn(newMockAddress());
+        when(customerRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(newMockCustomer()));
 
         addressService.addAddress(addressDTOAdd);
 
         verify(addressRepository, times(1)).save(any());
         verify(customerAddressRepository, times(1)).save(any());
+        verify(customerAddressRepository, times(1)).setShippingAddress(1L, ADDRESS_ID);
+    }
+
+    @Test
+    public void testAddAddressExceptionCustomer() {
+        AddressDTOAdd addressDTOAdd = MockDTOs.newMockAddressDTOAdd();
+
+        when(addressRepository.save(any())).thenReturn(newMockAddress());
+        when(customerRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> addressService.addAddress(addressDTOAdd));
+
+        verify(customerAddressRepository, never()).setShippingAddress(any(), any());
     }
 
     @Test
@@ -58,6 +74,7 @@ public class AddressServiceTest {
 
         verify(addressRepository, times(1)).save(any());
         verify(customerAddressRepository, times(1)).save(any());
+        verify(customerAddressRepository, never()).setShippingAddress(any(), any());
     }
 
     @Test
@@ -110,16 +127,16 @@ public class AddressServiceTest {
         CustomerAddress customerAddress = new CustomerAddress();
         customerAddress.setCustomer(customer);
 
-        List<CustomerAddress> customerAddressList = new ArrayList<>();
-        customerAddressList.add(customerAddress);
-
         when(addressRepository.findById(ADDRESS_ID)).thenReturn(Optional.of(new Address()));
         when(customerAddressRepository.findByAddressId(ADDRESS_ID)).thenReturn(Optional.of(customerAddress));
-        when(customerAddressRepository.findAllByCustomerId(1L)).thenReturn(customerAddressList);
+        when(customerRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(customer));
 
         addressService.setAddressAsShippingTrue(ADDRESS_ID);
 
-        verify(customerAddressRepository, times(1)).save(customerAddress);
+        verify(customerRepository, times(1)).findByIdForUpdate(1L);
+        verify(customerAddressRepository, times(1)).setShippingAddress(1L, ADDRESS_ID);
+        verify(customerAddressRepository, never()).findAllByCustomerId(any());
+        verify(customerAddressRepository, never()).save(any());
     }
 
     @Test
@@ -135,11 +152,13 @@ public class AddressServiceTest {
 
         when(addressRepository.findById(ADDRESS_ID)).thenReturn(Optional.of(newMockAddress()));
         when(customerAddressRepository.findByAddressId(ADDRESS_ID)).thenReturn(Optional.of(newMockCustomerAddress()));
+        when(customerRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(newMockCustomer()));
 
         addressService.updateAddress(addressDTO);
 
         verify(addressRepository, times(1)).save(any());
-        verify(customerAddressRepository, times(1)).save(any());
+        verify(customerAddressRepository, times(1)).setShippingAddress(1L, ADDRESS_ID);
+        verify(customerAddressRepository, never()).save(any());
     }
 
     @Test
@@ -173,6 +192,7 @@ public class AddressServiceTest {
 
         verify(addressRepository, times(1)).save(any());
         verify(customerAddressRepository, times(1)).save(any());
+        verify(customerAddressRepository, never()).setShippingAddress(any(), any());
     }
 
     private Address newMockAddress() {
@@ -0,0 +1,199 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.config.DefaultPropertiesConfig;
+import com.juubsouza.jsdrugstore.config.SecondLevelCacheConfig;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
+import com.juubsouza.jsdrugstore.model.Price;
+import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.model.Stock;
+import com.juubsouza.jsdrugstore.model.dto.CatalogueImportResultDTO;
+import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
+import com.juubsouza.jsdrugstore.repository.CatalogueImportRowRepository;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({CatalogueImportService.class, DefaultPropertiesConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogueImportServiceTest {
+
+    @Autowired
+    private CatalogueImportService catalogueImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogueImportRowRepository catalogueImportRowRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private InventoryLedger inventoryLedger;
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM stock");
+        jdbcTemplate.update("DELETE FROM price");
+        jdbcTemplate.update("DELETE FROM product");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void testImportAddsAndUpdatesProductsPricesAndStock() throws IOException {
+        Long aspirinId = newProduct("Aspirin", "Bayer", "4.50", 10);
+        Long bandageId = newProduct("Bandage", "Acme", "2.00", 5);
+
+        String feed = "name,manufacturer,price,stock\n" +
+                "Aspirin,Bayer,4.75,10\n" +
+                "Bandage,Acme Health,2.00,\n" +
+                "Ibuprofen,Pfizer,6.00,3\n" +
+                "Ibuprofen,Pfizer,6.50,4\n" +
+                "Codeine,Pfizer,-1,4\n" +
+                "Paracetamol,GSK,3.00,\n";
+
+        CatalogueImportResultDTO result = catalogueImportService.importCatalogue(new StringReader(feed));
+
+        assertEquals(6, result.getRowsRead());
+        assertEquals(1, result.getRowsRejected());
+        assertEquals(1, result.getRowsDuplicated());
+        assertEquals(2, result.getProductsAdded());
+        assertEquals(1, result.getProductsUpdated());
+        assertEquals(3, result.getPricesChanged());
+        assertEquals(2, result.getStocksChanged());
+        assertEquals(1, result.getErrors().size());
+
+        Map<String, ProductDTO> products = productRepository.findAllDTOs().stream()
+                .collect(Collectors.toMap(ProductDTO::getName, Function.identity()));
+
+        assertEquals(4, products.size());
+        assertProduct(products.get("Aspirin"), aspirinId, "Bayer", "4.75", 10);
+        assertProduct(products.get("Bandage"), bandageId, "Acme Health", "2.00", 5);
+        assertProduct(products.get("Ibuprofen"), null, "Pfizer", "6.50", 4);
+        assertProduct(products.get("Paracetamol"), null, "GSK", "3.00", 0);
+
+        assertEquals(0, catalogueImportRowRepository.count());
+    }
+
+    @Test
+    public void testImportSetsExistingStockThroughTheLedger() throws IOException {
+        Long aspirinId = newProduct("Aspirin", "Bayer", "4.50", 10);
+        newProduct("Bandage", "Acme", "2.00", 5);
+        when(inventoryLedger.isEnabled()).thenReturn(true);
+        when(inventoryLedger.setLevels(Map.of(aspirinId, 99))).thenReturn(1);
+
+        CatalogueImportResultDTO result = catalogueImportService.importCatalogue(new StringReader(
+                "name,manufacturer,price,stock\nAspirin,Bayer,4.50,99\nBandage,Acme,2.00,\nIbuprofen,Pfizer,6.00,3\n"));
+
+        assertEquals(1, result.getPricesChanged());
+        assertEquals(2, result.getStocksChanged());
+        verify(inventoryLedger, times(1)).setLevels(Map.of(aspirinId, 99));
+        assertEquals(10, productRepository.findDTOById(aspirinId).orElseThrow().getStock());
+        assertEquals(3, productRepository.findDTOsByName("Ibuprofen").get(0).getStock());
+    }
+
+    @Test
+    public void testImportStagesLargeFeedsInBatches() throws IOException {
+        int rows = 2000;
+        StringBuilder feed = new StringBuilder("name,manufacturer,price,stock\n");
+
+        for (int i = 0; i < rows; i++)
+            feed.append("Product ").append(i).append(",Manufacturer,").append(i % 100 + 1).append(".99,").append(i).append('\n');
+
+        CatalogueImportResultDTO result = catalogueImportService.importCatalogue(new StringReader(feed.toString()));
+
+        assertEquals(rows, result.getRowsRead());
+        assertEquals(rows, result.getProductsAdded());
+        assertEquals(rows, productRepository.count());
+        assertTrue(result.getRowsPerSecond() > 0);
+
+        CatalogueImportResultDTO reimport = catalogueImportService.importCatalogue(new StringReader(feed.toString()));
+
+        assertEquals(0, reimport.getProductsAdded());
+        assertEquals(0, reimport.getProductsUpdated());
+        assertEquals(0, reimport.getPricesChanged());
+        assertEquals(0, reimport.getStocksChanged());
+        assertEquals(rows, productRepository.count());
+    }
+
+    @Test
+    public void testNewIdsUseOneSequenceValuePerBlock() throws IOException {
+        int rows = 120;
+        StringBuilder feed = new StringBuilder("name,manufacturer,price,stock\n");
+
+        for (int i = 0; i < rows; i++)
+            feed.append("Product ").append(i).append(",Manufacturer,1.99,").append(i).append('\n');
+
+        long[] before = nextSequenceValues();
+
+        catalogueImportService.importCatalogue(new StringReader(feed.toString()));
+
+        long[] after = nextSequenceValues();
+        int blocks = (rows + CatalogueImportRowRepository.ID_BLOCK_SIZE - 1) / CatalogueImportRowRepository.ID_BLOCK_SIZE;
+
+        for (int i = 0; i < before.length; i++)
+            assertEquals(before[i] + (long) (blocks + 1) * CatalogueImportRowRepository.ID_BLOCK_SIZE, after[i]);
+
+        String[] tables = {"product", "price", "stock"};
+
+        for (int i = 0; i < tables.length; i++) {
+            Map<String, Object> ids = jdbcTemplate.queryForMap("SELECT COUNT(DISTINCT id) AS ids, MIN(id) AS first_id, MAX(id) AS last_id FROM " + tables[i]);
+
+            assertEquals(rows, ((Number) ids.get("ids")).intValue());
+            assertTrue(((Number) ids.get("first_id")).longValue() > before[i]);
+            assertTrue(((Number) ids.get("last_id")).longValue() < after[i]);
+        }
+
+        assertNotNull(newProduct("Aspirin", "Bayer", "4.50", 10));
+        assertEquals(rows + 1, productRepository.count());
+    }
+
+    private long[] nextSequenceValues() {
+        return new long[]{
+                jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR product_seq", Long.class),
+                jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR price_seq", Long.class),
+                jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR stock_seq", Long.class)};
+    }
+
+    private Long newProduct(String name, String manufacturer, String price, int units) {
+        Product product = new Product();
+        product.setName(name);
+        product.setManufacturer(manufacturer);
+        product.setPrice(new Price(null, new BigDecimal(price), product));
+        product.setStock(new Stock(null, units, product));
+
+        return productRepository.save(product).getId();
+    }
+
+    private static void assertProduct(ProductDTO product, Long id, String manufacturer, String price, int stock) {
+        if (id != null)
+            assertEquals(id, product.getId());
+
+        assertEquals(manufacturer, product.getManufacturer());
+        assertEquals(0, new BigDecimal(price).compareTo(product.getPrice()));
+        assertEquals(stock, product.getStock());
+    }
+}
@@ -1,18 +1,24 @@
 package com.juubsouza.jsdrugstore.service;
 
+import com.juubsouza.jsdrugstore.event.CustomerChangedEvent;
 import com.juubsouza.jsdrugstore.model.Customer;
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTO;
 import com.juubsouza.jsdrugstore.model.dto.CustomerDTOAdd;
 import com.juubsouza.jsdrugstore.repository.CustomerRepository;
+import com.juubsouza.jsdrugstore.search.CustomerEmailFilter;
+import com.juubsouza.jsdrugstore.search.CustomerNameIndex;
 import com.juubsouza.jsdrugstore.utils.MockDTOs;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -26,15 +32,31 @@ public class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private CustomerNameIndex customerNameIndex;
+
+    @Mock
+    private CustomerEmailFilter customerEmailFilter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private final Long CUSTOMER_ID = 1L;
 
     @Test
     public void testAddCustomerOk() {
         CustomerDTOAdd customerDTOAdd = MockDTOs.newMockCustomerDTOAdd();
 
+        when(customerRepository.save(any())).thenAnswer(invocation -> {
+            Customer saved = invocation.getArgument(0);
+            saved.setId(CUSTOMER_ID);
+            return saved;
+        });
+
         customerService.addCustomer(customerDTOAdd);
 
         verify(customerRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(CustomerChangedEvent.class));
     }
 
     @Test
@@ -65,9 +87,21 @@ public class CustomerServiceTest {
 
     @Test
     public void testEmailAlreadyRegistered() {
+        when(customerEmailFilter.mightContain("any@email.com")).thenReturn(true);
+
         customerService.emailAlreadyRegistered("any@email.com");
 
         verify(customerRepository, times(1)).existsByEmail(any());
+        verify(customerEmailFilter, times(1)).recordFalsePositive();
+    }
+
+    @Test
+    public void testEmailAlreadyRegisteredSkipsQueryWhenFilterRulesItOut() {
+        when(customerEmailFilter.mightContain("any@email.com")).thenReturn(false);
+
+        assertFalse(customerService.emailAlreadyRegistered("any@email.com"));
+
+        verify(customerRepository, never()).existsByEmail(any());
     }
 
     @Test
@@ -84,6 +118,17 @@ public class CustomerServiceTest {
         verify(customerRepository, times(1)).findDTOsByFirstOrLastName("John");
     }
 
+    @Test
+    public void testFindCustomersByFirstOrLastNameUsesNameIndex() {
+        when(customerNameIndex.isReady()).thenReturn(true);
+        when(customerNameIndex.findIdsByName("John")).thenReturn(List.of(CUSTOMER_ID));
+
+        customerService.findCustomersByFirstOrLastName("John");
+
+        verify(customerRepository, times(1)).findDTOsByIdIn(List.of(CUSTOMER_ID));
+        verify(customerRepository, never()).findDTOsByFirstOrLastName(any());
+    }
+
     @Test
     public void testFindCustomerByIdOk() {
         customerService.findCustomerById(CUSTOMER_ID);
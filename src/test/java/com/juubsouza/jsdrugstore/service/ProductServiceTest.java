@@ -1,21 +1,36 @@
 package com.juubsouza.jsdrugstore.service;
 
+import com.juubsouza.jsdrugstore.event.ProductChangedEvent;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
 import com.juubsouza.jsdrugstore.model.Price;
 import com.juubsouza.jsdrugstore.model.Product;
 import com.juubsouza.jsdrugstore.model.Stock;
+import com.juubsouza.jsdrugstore.model.dto.FacetCountDTO;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTO;
 import com.juubsouza.jsdrugstore.model.dto.ProductDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.ProductFacetsDTO;
 import com.juubsouza.jsdrugstore.repository.PriceRepository;
 import com.juubsouza.jsdrugstore.repository.ProductRepository;
 import com.juubsouza.jsdrugstore.repository.StockRepository;
+import com.juubsouza.jsdrugstore.search.ProductFacetIndex;
+import com.juubsouza.jsdrugstore.search.ProductNameFilter;
+import com.juubsouza.jsdrugstore.search.ProductSearchIndex;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
 import com.juubsouza.jsdrugstore.utils.MockDTOs;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,13 +50,28 @@ public class ProductServiceTest {
     @Mock
     private StockRepository stockRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductNameFilter productNameFilter;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private InventoryLedger inventoryLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private final Long PRODUCT_ID = 1L;
 
     @Test
     public void testAddProduct() {
         ProductDTOAdd productDTOAdd = MockDTOs.newMockProductDTOAdd();
 
-        Product product = new Product();
+        Product product = newMockProduct();
 
         Price price = new Price();
 
@@ -59,6 +89,7 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).save(any());
         verify(priceRepository, times(1)).save(any());
         verify(stockRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -69,6 +100,7 @@ public class ProductServiceTest {
 
         verify(productRepository, times(1)).findById(PRODUCT_ID);
         verify(productRepository, times(1)).deleteById(PRODUCT_ID);
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -92,11 +124,76 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).findDTOsByName("Test Product");
     }
 
+    @Test
+    public void testFindProductByNameUsesSearchIndex() {
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.findIdsByName("Test Product")).thenReturn(List.of(PRODUCT_ID));
+        when(productRepository.findDTOsByIdIn(List.of(PRODUCT_ID))).thenReturn(List.of(MockDTOs.newMockProductDTO()));
+
+        List<ProductDTO> products = productService.findProductsByName("Test Product");
+
+        assertEquals(1, products.size());
+        verify(productRepository, never()).findDTOsByName(anyString());
+    }
+
+    @Test
+    public void testSearchProductsKeepsRanking() {
+        ProductDTO first = MockDTOs.newMockProductDTO();
+        first.setId(2L);
+        ProductDTO second = MockDTOs.newMockProductDTO();
+
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.search("test", 10)).thenReturn(List.of(2L, PRODUCT_ID));
+        when(productRepository.findDTOsByIdIn(List.of(2L, PRODUCT_ID))).thenReturn(List.of(second, first));
+
+        List<ProductDTO> products = productService.searchProducts("test", 10);
+
+        assertEquals(List.of(2L, PRODUCT_ID), products.stream().map(ProductDTO::getId).toList());
+    }
+
     @Test
     public void testProductExists() {
+        when(productNameFilter.mightContain("Test Product")).thenReturn(true);
         when(productRepository.existsByName("Test Product")).thenReturn(true);
 
         assertTrue(productService.productExists("Test Product"));
+        verify(productNameFilter, never()).recordFalsePositive();
+    }
+
+    @Test
+    public void testFilterProducts() {
+        ProductDTO first = MockDTOs.newMockProductDTO();
+        ProductDTO second = MockDTOs.newMockProductDTO();
+        second.setId(2L);
+
+        List<FacetCountDTO> manufacturers = List.of(new FacetCountDTO("Test Manufacturer", 2));
+
+        when(productFacetIndex.isReady()).thenReturn(true);
+        when(productFacetIndex.filter(List.of("Test Manufacturer"), null, true, 10))
+                .thenReturn(new ProductFacetIndex.Result(2, List.of(2L, PRODUCT_ID), manufacturers, List.of(), List.of()));
+        when(productRepository.findDTOsByIdIn(List.of(2L, PRODUCT_ID))).thenReturn(List.of(first, second));
+
+        ProductFacetsDTO facets = productService.filterProducts(List.of("Test Manufacturer"), null, true, 10);
+
+        assertEquals(2, facets.getTotal());
+        assertEquals(List.of(2L, PRODUCT_ID), facets.getProducts().stream().map(ProductDTO::getId).toList());
+        assertEquals(manufacturers, facets.getManufacturers());
+    }
+
+    @Test
+    public void testFilterProductsBeforeIndexIsReady() {
+        when(productFacetIndex.isReady()).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> productService.filterProducts(null, null, null, 10));
+        verify(productRepository, never()).findDTOsByIdIn(any());
+    }
+
+    @Test
+    public void testProductExistsSkipsQueryWhenFilterRulesItOut() {
+        when(productNameFilter.mightContain("Test Product")).thenReturn(false);
+
+        assertFalse(productService.productExists("Test Product"));
+        verify(productRepository, never()).existsByName(any());
     }
 
     @Test
@@ -142,6 +239,7 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).save(any());
         verify(priceRepository, times(1)).save(any());
         verify(stockRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     private Product newMockProduct() {
@@ -150,4 +248,43 @@ public class ProductServiceTest {
 
         return product;
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindProductsPageHasNextCursor() {
+        ProductDTO first = MockDTOs.newMockProductDTO();
+        ProductDTO second = MockDTOs.newMockProductDTO();
+        second.setId(2L);
+
+        when(productRepository.findDTOsAfterId(0L, PageRequest.of(0, 2))).thenReturn(new ArrayList<>(List.of(first, second)));
+
+        PageDTO<ProductDTO> page = productService.findProductsPage(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(CursorPagination.encodeCursor(1L), page.getNextCursor());
+    }
+
+    @Test
+    public void testFindProductsPageLastPage() {
+        when(productRepository.findDTOsAfterId(1L, PageRequest.of(0, 2))).thenReturn(new ArrayList<>(List.of(MockDTOs.newMockProductDTO())));
+
+        PageDTO<ProductDTO> page = productService.findProductsPage(CursorPagination.encodeCursor(1L), 1);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testExportProductsClosesStream() {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Stream<ProductDTO> products = Stream.of(MockDTOs.newMockProductDTO(), MockDTOs.newMockProductDTO())
+                .onClose(() -> closed.set(true));
+
+        when(productRepository.streamAllDTOs()).thenReturn(products);
+
+        List<ProductDTO> exported = new ArrayList<>();
+        productService.exportProducts(exported::add);
+
+        assertEquals(2, exported.size());
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,144 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.config.DefaultPropertiesConfig;
+import com.juubsouza.jsdrugstore.config.SecondLevelCacheConfig;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
+import com.juubsouza.jsdrugstore.model.*;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import com.juubsouza.jsdrugstore.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({SaleService.class, DefaultPropertiesConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SaleServiceStatementCountTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleProductRepository saleProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private InventoryLedger inventoryLedger;
+
+    @MockBean
+    private StockHoldService stockHoldService;
+
+    @AfterEach
+    public void cleanup() {
+        saleProductRepository.deleteAll();
+        saleRepository.deleteAll();
+        productRepository.deleteAll();
+        sellerRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    public void testCheckoutReadsDoNotDependOnBasketSize() {
+        List<Long> productIds = newProducts(30);
+        Long customerId = newCustomer();
+        Long sellerId = newSeller();
+
+        saleService.addSale(newSale(customerId, sellerId, productIds.subList(0, 1)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        SaleDTO smallSale = saleService.addSale(newSale(customerId, sellerId, productIds.subList(0, 5)));
+        long smallSaleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        SaleDTO largeSale = saleService.addSale(newSale(customerId, sellerId, productIds));
+        long largeSaleStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(5, smallSale.getSaleProducts().size());
+        assertEquals(30, largeSale.getSaleProducts().size());
+        assertTrue(smallSaleStatements <= 5 + 5);
+        assertEquals(smallSaleStatements + 25, largeSaleStatements);
+        assertEquals(0, statistics.getEntityStatistics(Product.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(SaleProduct.class.getName()).getLoadCount());
+    }
+
+    private List<Long> newProducts(int count) {
+        List<Product> products = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setManufacturer("Test Manufacturer");
+            product.setPrice(new Price(null, new BigDecimal("2.50"), product));
+            product.setStock(new Stock(null, 100, product));
+            products.add(product);
+        }
+
+        return productRepository.saveAll(products).stream().map(Product::getId).toList();
+    }
+
+    private Long newCustomer() {
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@email.com");
+        return customerRepository.save(customer).getId();
+    }
+
+    private Long newSeller() {
+        Seller seller = new Seller();
+        seller.setFirstName("Jane");
+        seller.setLastName("Doe");
+        seller.setShift("DAY");
+        seller.setAdmissionDate(new Date());
+        return sellerRepository.save(seller).getId();
+    }
+
+    private static SaleDTOAdd newSale(Long customerId, Long sellerId, List<Long> productIds) {
+        SaleDTOAdd saleDTOAdd = new SaleDTOAdd();
+        saleDTOAdd.setPaymentMethod("CASH");
+        saleDTOAdd.setCustomerId(customerId);
+        saleDTOAdd.setSellerId(sellerId);
+
+        List<SaleProductDTOAdd> saleProducts = new ArrayList<>();
+
+        for (Long productId : productIds)
+            saleProducts.add(new SaleProductDTOAdd(1, productId));
+
+        saleDTOAdd.setSaleProducts(saleProducts);
+
+        return saleDTOAdd;
+    }
+}
@@ -1,21 +1,37 @@
 package com.juubsouza.jsdrugstore.service;
 
-import com.juubsouza.jsdrugstore.model.Product;
+import com.juubsouza.jsdrugstore.event.SaleRecordedEvent;
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.exception.InvalidStockHoldException;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
+import com.juubsouza.jsdrugstore.model.dto.BasketProductDTO;
+import com.juubsouza.jsdrugstore.model.dto.PageDTO;
+import com.juubsouza.jsdrugstore.model.dto.SaleBatchResultDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTO;
 import com.juubsouza.jsdrugstore.model.dto.SaleDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTO;
 import com.juubsouza.jsdrugstore.repository.*;
+import com.juubsouza.jsdrugstore.utils.CursorPagination;
 import com.juubsouza.jsdrugstore.utils.MockDTOs;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -43,9 +59,16 @@ public class SaleServiceTest {
     @Mock
     private StockRepository stockRepository;
 
-    private final Long MOCK_ID = 1L;
+    @Mock
+    private InventoryLedger inventoryLedger;
 
-    private final Long MOCK_ID_TWO = 2L;
+    @Mock
+    private StockHoldService stockHoldService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Long MOCK_ID = 1L;
 
     @Test
     public void testAddSaleOk() {
@@ -53,17 +76,96 @@ public class SaleServiceTest {
 
         when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
         when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
-        when(productRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockProduct()));
-        when(productRepository.findById(MOCK_ID_TWO)).thenReturn(Optional.of(MockDTOs.newMockProduct(MOCK_ID_TWO)));
-        when(productRepository.findByIdIn(any())).thenReturn(MockDTOs.newMockProducts());
-        when(stockRepository.findByProductId(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockStock()));
-        when(stockRepository.findByProductId(MOCK_ID_TWO)).thenReturn(Optional.of(MockDTOs.newMockStock(MOCK_ID_TWO)));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
 
-        saleService.addSale(saleDTOAdd);
+        SaleDTO saleDTO = saleService.addSale(saleDTOAdd);
+
+        assertEquals(0, BigDecimal.valueOf(20.0).compareTo(saleDTO.getTotal()));
+        assertEquals(2, saleDTO.getSaleProducts().size());
 
         verify(saleRepository, times(1)).save(any());
         verify(saleProductRepository, times(1)).saveAll(any());
-        verify(stockRepository, times(1)).saveAll(any());
+        verify(stockRepository, times(2)).decrementStock(any(), any());
+        verify(eventPublisher, times(1)).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    public void testAddSalePublishesSaleRecorded() {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+
+        when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+
+        saleService.addSale(saleDTOAdd);
+
+        ArgumentCaptor<SaleRecordedEvent> eventCaptor = ArgumentCaptor.forClass(SaleRecordedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+
+        SaleRecordedEvent event = eventCaptor.getValue();
+
+        assertEquals(MOCK_ID, event.getSellerId());
+        assertEquals("CASH", event.getPaymentMethod());
+        assertEquals(0, BigDecimal.valueOf(20.0).compareTo(event.getTotal()));
+        assertEquals(Map.of(1L, 1, 2L, 1), event.getProductUnits());
+        assertEquals(0, BigDecimal.valueOf(10.0).compareTo(event.getProductRevenue().get(2L)));
+    }
+
+    @Test
+    public void testAddSaleLoadsBasketInSingleQuery() {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+
+        when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+
+        saleService.addSale(saleDTOAdd);
+
+        verify(customerRepository, times(1)).findById(any());
+        verify(sellerRepository, times(1)).findById(any());
+        verify(productRepository, times(1)).findBasket(any());
+        verify(productRepository, never()).findById(any());
+        verify(stockRepository, never()).findByProductId(any());
+        verify(stockRepository, never()).saveAll(any());
+        verify(saleProductRepository, never()).findAllDTOsBySaleId(any());
+    }
+
+    @Test
+    public void testAddSaleConfirmsStockHold() {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+        saleDTOAdd.setHoldId(MOCK_ID);
+
+        when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockHoldService.confirm(MOCK_ID)).thenReturn(Map.of(1L, 1, 2L, 1));
+
+        SaleDTO saleDTO = saleService.addSale(saleDTOAdd);
+
+        assertEquals(2, saleDTO.getSaleProducts().size());
+
+        verify(stockHoldService, times(1)).confirm(MOCK_ID);
+        verify(stockRepository, never()).decrementStock(any(), any());
+        verify(inventoryLedger, never()).reserve(any());
+        verify(saleRepository, times(1)).save(any());
+    }
+
+    @Test
+    public void testAddSaleStockHoldMismatch() {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+        saleDTOAdd.setHoldId(MOCK_ID);
+
+        when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockHoldService.confirm(MOCK_ID)).thenReturn(Map.of(1L, 1));
+
+        assertThrows(InvalidStockHoldException.class, () -> saleService.addSale(saleDTOAdd));
+
+        verify(saleRepository, never()).save(any());
     }
 
     @Test
@@ -92,8 +194,7 @@ public class SaleServiceTest {
 
         when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
         when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
-        when(productRepository.findById(MOCK_ID)).thenReturn(Optional.empty());
-        when(productRepository.findByIdIn(any())).thenReturn(MockDTOs.newMockProducts());
+        when(productRepository.findBasket(any())).thenReturn(List.of(MockDTOs.newMockBasketProduct(MOCK_ID)));
 
         assertThrows(EntityNotFoundException.class, () -> saleService.addSale(saleDTOAdd));
     }
@@ -101,45 +202,257 @@ public class SaleServiceTest {
     @Test
     public void testAddSaleStockNotFound() {
         SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+        List<BasketProductDTO> products = MockDTOs.newMockBasketProducts();
+        products.get(0).setStock(null);
 
         when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
         when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
-        when(productRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockProduct()));
-        when(productRepository.findById(MOCK_ID_TWO)).thenReturn(Optional.of(MockDTOs.newMockProduct(MOCK_ID_TWO)));
-        when(productRepository.findByIdIn(any())).thenReturn(MockDTOs.newMockProducts());
-        when(stockRepository.findByProductId(MOCK_ID)).thenReturn(Optional.empty());
+        when(productRepository.findBasket(any())).thenReturn(products);
 
         assertThrows(EntityNotFoundException.class, () -> saleService.addSale(saleDTOAdd));
     }
 
     @Test
-    public void testAddSaleProductNotFoundWhenUpdatingStock() {
+    public void testAddSaleInsufficientStock() {
         SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
-        List<Product> products = MockDTOs.newMockProducts();
+        saleDTOAdd.getSaleProducts().get(0).setQuantity(101);
 
         when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
         when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
-        when(productRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockProduct()));
-        when(productRepository.findById(MOCK_ID_TWO)).thenReturn(Optional.empty());
-        when(productRepository.findByIdIn(any())).thenReturn(products);
-        when(stockRepository.findByProductId(MOCK_ID)).thenReturn(Optional.empty());
-        when(stockRepository.findByProductId(MOCK_ID_TWO)).thenReturn(Optional.empty());
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
 
-        List<Product> emptyProducts = Collections.emptyList();
-        when(productRepository.findByIdIn(any())).thenReturn(emptyProducts);
+        assertThrows(InsufficientStockException.class, () -> saleService.addSale(saleDTOAdd));
+
+        verify(stockRepository, never()).decrementStock(any(), any());
+        verify(saleRepository, never()).save(any());
+    }
+
+    @Test
+    public void testAddSaleStockDecrementRejected() {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+
+        when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(any(), any())).thenReturn(0);
+
+        assertThrows(InsufficientStockException.class, () -> saleService.addSale(saleDTOAdd));
+
+        verify(saleRepository, never()).save(any());
+    }
+
+    @Test
+    public void testAddSaleReservesThroughInventoryLedger() {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+
+        when(inventoryLedger.isEnabled()).thenReturn(true);
+        when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+
+        saleService.addSale(saleDTOAdd);
+
+        verify(inventoryLedger, times(1)).reserve(any());
+        verify(stockRepository, never()).decrementStock(any(), any());
+        verify(saleRepository, times(1)).save(any());
+    }
+
+    @Test
+    public void testAddSaleInventoryLedgerRejects() {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+
+        when(inventoryLedger.isEnabled()).thenReturn(true);
+        when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        doThrow(new InsufficientStockException(MOCK_ID)).when(inventoryLedger).reserve(any());
+
+        assertThrows(InsufficientStockException.class, () -> saleService.addSale(saleDTOAdd));
+
+        verify(saleRepository, never()).save(any());
+    }
+
+    @Test
+    public void testAddSaleNoProductsFound() {
+        SaleDTOAdd saleDTOAdd = MockDTOs.newMockSaleDTOAdd();
+        List<BasketProductDTO> emptyProducts = Collections.emptyList();
+
+        when(customerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findById(MOCK_ID)).thenReturn(Optional.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(emptyProducts);
 
         assertThrows(EntityNotFoundException.class, () -> saleService.addSale(saleDTOAdd));
     }
 
+    @Test
+    public void testAddSalesOk() {
+        List<SaleDTOAdd> saleDTOAdds = List.of(MockDTOs.newMockSaleDTOAdd(), MockDTOs.newMockSaleDTOAdd());
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+
+        List<SaleBatchResultDTO> results = saleService.addSales(saleDTOAdds);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isCreated());
+        assertTrue(results.get(1).isCreated());
+
+        verify(productRepository, times(1)).findBasket(Map.of(MOCK_ID, 2, 2L, 2));
+        verify(saleRepository, times(1)).saveAll(any());
+        verify(saleProductRepository, times(1)).saveAll(any());
+        verify(stockRepository, times(1)).decrementStock(MOCK_ID, 2);
+        verify(stockRepository, times(1)).decrementStock(2L, 2);
+    }
+
+    @Test
+    public void testAddSalesRejectsUnknownCustomer() {
+        SaleDTOAdd unknownCustomerSale = MockDTOs.newMockSaleDTOAdd();
+        unknownCustomerSale.setCustomerId(99L);
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+
+        List<SaleBatchResultDTO> results = saleService.addSales(List.of(MockDTOs.newMockSaleDTOAdd(), unknownCustomerSale));
+
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertEquals("Customer not found.", results.get(1).getMessage());
+
+        verify(stockRepository, times(1)).decrementStock(MOCK_ID, 1);
+    }
+
+    @Test
+    public void testAddSalesRejectsWhenBatchExhaustsStock() {
+        SaleDTOAdd firstSale = MockDTOs.newMockSaleDTOAdd();
+        firstSale.getSaleProducts().get(0).setQuantity(60);
+
+        SaleDTOAdd secondSale = MockDTOs.newMockSaleDTOAdd();
+        secondSale.getSaleProducts().get(0).setQuantity(60);
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+
+        List<SaleBatchResultDTO> results = saleService.addSales(List.of(firstSale, secondSale));
+
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertEquals("Insufficient stock for product 1.", results.get(1).getMessage());
+
+        verify(stockRepository, times(1)).decrementStock(MOCK_ID, 60);
+    }
+
+    @Test
+    public void testAddSalesRejectsSaleWhoseDuplicateLinesExceedStock() {
+        SaleDTOAdd duplicateLineSale = MockDTOs.newMockSaleDTOAdd();
+        duplicateLineSale.getSaleProducts().get(0).setQuantity(60);
+        duplicateLineSale.getSaleProducts().get(1).setProductId(MOCK_ID);
+        duplicateLineSale.getSaleProducts().get(1).setQuantity(60);
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+
+        List<SaleBatchResultDTO> results = saleService.addSales(List.of(duplicateLineSale, MockDTOs.newMockSaleDTOAdd()));
+
+        assertFalse(results.get(0).isCreated());
+        assertEquals("Insufficient stock for product 1.", results.get(0).getMessage());
+        assertTrue(results.get(1).isCreated());
+
+        verify(stockRepository, times(1)).decrementStock(MOCK_ID, 1);
+        verify(stockRepository, times(1)).decrementStock(2L, 1);
+        verify(stockRepository, times(2)).decrementStock(any(), any());
+    }
+
+    @Test
+    public void testAddSalesDropsOnlySalesOutrunByConcurrentCheckouts() {
+        when(customerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        when(stockRepository.decrementStock(MOCK_ID, 2)).thenReturn(1);
+        when(stockRepository.decrementStock(2L, 2)).thenReturn(0);
+        when(stockRepository.decrementStock(2L, 1)).thenReturn(1);
+
+        List<SaleBatchResultDTO> results = saleService.addSales(List.of(MockDTOs.newMockSaleDTOAdd(), MockDTOs.newMockSaleDTOAdd()));
+
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertEquals("Insufficient stock for product 2.", results.get(1).getMessage());
+
+        verify(stockRepository, times(1)).incrementStock(MOCK_ID, 1);
+        verify(saleRepository, times(1)).saveAll(argThat(sales -> ((Collection<?>) sales).size() == 1));
+    }
+
+    @Test
+    public void testAddSalesRetriesLedgerReservationWithoutOutrunSales() {
+        when(inventoryLedger.isEnabled()).thenReturn(true);
+        when(inventoryLedger.findLevel(any())).thenReturn(100L);
+        when(customerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockCustomer()));
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(MockDTOs.newMockSeller()));
+        when(productRepository.findBasket(any())).thenReturn(MockDTOs.newMockBasketProducts());
+        doThrow(new InsufficientStockException(MOCK_ID)).doNothing().when(inventoryLedger).reserve(any());
+
+        List<SaleBatchResultDTO> results = saleService.addSales(List.of(MockDTOs.newMockSaleDTOAdd(), MockDTOs.newMockSaleDTOAdd()));
+
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertEquals("Insufficient stock for product 1.", results.get(1).getMessage());
+
+        verify(inventoryLedger, times(2)).reserve(any());
+        verify(stockRepository, never()).decrementStock(any(), any());
+    }
+
     @Test
     public void testFindAllSalesForCustomerOk() {
         List<SaleDTO> saleDTOs = MockDTOs.newMockSaleDTOs();
+        List<SaleProductDTO> saleProductDTOs = MockDTOs.newMockSaleProductDTOs();
+        saleProductDTOs.get(0).setSaleId(saleDTOs.get(0).getId());
+        saleProductDTOs.get(1).setSaleId(saleDTOs.get(0).getId());
+
         when(saleRepository.findAllDTOsByCustomerId(MOCK_ID)).thenReturn(saleDTOs);
-        when(saleProductRepository.findAllDTOsBySaleId(any())).thenReturn(MockDTOs.newMockSaleProductDTOs());
+        when(saleProductRepository.findAllDTOsByCustomerId(MOCK_ID)).thenReturn(saleProductDTOs);
 
-        saleService.findAllSalesForCustomer(MOCK_ID);
+        List<SaleDTO> foundSales = saleService.findAllSalesForCustomer(MOCK_ID);
+
+        assertEquals(2, foundSales.get(0).getSaleProducts().size());
+        assertTrue(foundSales.get(1).getSaleProducts().isEmpty());
 
         verify(saleRepository, times(1)).findAllDTOsByCustomerId(any());
-        verify(saleProductRepository, times(saleDTOs.size())).findAllDTOsBySaleId(any());
+        verify(saleProductRepository, times(1)).findAllDTOsByCustomerId(any());
+        verify(saleProductRepository, never()).findAllDTOsBySaleId(any());
+    }
+
+    @Test
+    public void testFindAllSalesForCustomerWithoutSales() {
+        when(saleRepository.findAllDTOsByCustomerId(MOCK_ID)).thenReturn(new ArrayList<>());
+
+        List<SaleDTO> foundSales = saleService.findAllSalesForCustomer(MOCK_ID);
+
+        assertTrue(foundSales.isEmpty());
+
+        verify(saleProductRepository, never()).findAllDTOsByCustomerId(any());
+    }
+
+    @Test
+    public void testFindSalesPageForCustomerOk() {
+        List<SaleDTO> saleDTOs = MockDTOs.newMockSaleDTOs();
+        List<SaleProductDTO> saleProductDTOs = MockDTOs.newMockSaleProductDTOs();
+        saleProductDTOs.get(0).setSaleId(saleDTOs.get(0).getId());
+        saleProductDTOs.get(1).setSaleId(saleDTOs.get(0).getId());
+
+        when(saleRepository.findDTOsByCustomerIdAfterId(MOCK_ID, 0L, PageRequest.of(0, 2))).thenReturn(saleDTOs);
+        when(saleProductRepository.findAllDTOsBySaleIdIn(List.of(saleDTOs.get(0).getId()))).thenReturn(saleProductDTOs);
+
+        PageDTO<SaleDTO> page = saleService.findSalesPageForCustomer(MOCK_ID, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(2, page.getItems().get(0).getSaleProducts().size());
+        assertEquals(CursorPagination.encodeCursor(saleDTOs.get(0).getId()), page.getNextCursor());
     }
 }
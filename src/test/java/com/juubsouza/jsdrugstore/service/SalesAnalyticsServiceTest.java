@@ -0,0 +1,143 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.analytics.RollupDimension;
+import com.juubsouza.jsdrugstore.analytics.RollupGranularity;
+import com.juubsouza.jsdrugstore.event.SaleRecordedEvent;
+import com.juubsouza.jsdrugstore.model.SalesRollup;
+import com.juubsouza.jsdrugstore.model.dto.SalesRollupDTO;
+import com.juubsouza.jsdrugstore.repository.SalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class SalesAnalyticsServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        salesAnalyticsService = new SalesAnalyticsService(salesRollupRepository, transactionManager);
+    }
+
+    @Test
+    public void testRecordedSalesAreRolledUpPerBucket() {
+        salesAnalyticsService.onSaleRecorded(newSaleRecordedEvent(DAY.plusHours(9).plusMinutes(15), 1L, "CASH", Map.of(1L, 2, 2L, 1)));
+        salesAnalyticsService.onSaleRecorded(newSaleRecordedEvent(DAY.plusHours(9).plusMinutes(45), 2L, "CASH", Map.of(1L, 1)));
+        salesAnalyticsService.onSaleRecorded(newSaleRecordedEvent(DAY.plusHours(14), 1L, "CARD", Map.of(2L, 3)));
+
+        List<SalesRollupDTO> products = salesAnalyticsService.findRollups(RollupDimension.PRODUCT, RollupGranularity.DAY, DAY, DAY.plusDays(1), null);
+
+        assertEquals(2, products.size());
+        assertRollup(products.get(0), DAY, "1", 3, "30.00", 2);
+        assertRollup(products.get(1), DAY, "2", 4, "40.00", 2);
+
+        List<SalesRollupDTO> hours = salesAnalyticsService.findRollups(RollupDimension.PAYMENT_METHOD, RollupGranularity.HOUR, DAY, DAY.plusDays(1), null);
+
+        assertEquals(2, hours.size());
+        assertRollup(hours.get(0), DAY.plusHours(9), "CASH", 4, "40.00", 2);
+        assertRollup(hours.get(1), DAY.plusHours(14), "CARD", 3, "30.00", 1);
+
+        List<SalesRollupDTO> seller = salesAnalyticsService.findRollups(RollupDimension.SELLER, RollupGranularity.DAY, DAY, DAY.plusDays(1), "1");
+
+        assertEquals(1, seller.size());
+        assertRollup(seller.get(0), DAY, "1", 6, "60.00", 2);
+
+        assertTrue(salesAnalyticsService.findRollups(RollupDimension.PRODUCT, RollupGranularity.DAY, DAY.plusDays(1), DAY.plusDays(2), null).isEmpty());
+    }
+
+    @Test
+    public void testQueriesAddUnflushedSalesToStoredRollups() {
+        when(salesRollupRepository.findDTOsInRange(RollupDimension.SELLER, RollupGranularity.DAY, DAY, DAY.plusDays(1)))
+                .thenReturn(List.of(new SalesRollupDTO(DAY, "1", 10L, new BigDecimal("100.00"), 4L)));
+
+        salesAnalyticsService.onSaleRecorded(newSaleRecordedEvent(DAY.plusHours(9), 1L, "CASH", Map.of(1L, 1)));
+
+        List<SalesRollupDTO> sellers = salesAnalyticsService.findRollups(RollupDimension.SELLER, RollupGranularity.DAY, DAY.plusHours(3), DAY.plusDays(1), null);
+
+        assertEquals(1, sellers.size());
+        assertRollup(sellers.get(0), DAY, "1", 11, "110.00", 5);
+    }
+
+    @Test
+    public void testFlushAddsToExistingRowsAndInsertsNewOnes() {
+        when(salesRollupRepository.addToRollup(eq(RollupDimension.PRODUCT), any(), any(), eq("1"), anyLong(), any(), anyLong())).thenReturn(1);
+
+        salesAnalyticsService.onSaleRecorded(newSaleRecordedEvent(DAY.plusHours(9), 1L, "CASH", Map.of(1L, 2)));
+        salesAnalyticsService.flush();
+
+        verify(salesRollupRepository, times(6)).addToRollup(any(), any(), any(), any(), anyLong(), any(), anyLong());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SalesRollup>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository).saveAll(inserted.capture());
+
+        assertEquals(4, inserted.getValue().size());
+        assertTrue(inserted.getValue().stream().noneMatch(rollup -> rollup.getDimension() == RollupDimension.PRODUCT));
+
+        assertTrue(salesAnalyticsService.findRollups(RollupDimension.PRODUCT, RollupGranularity.DAY, DAY, DAY.plusDays(1), null).isEmpty());
+
+        salesAnalyticsService.flush();
+
+        verify(salesRollupRepository, times(6)).addToRollup(any(), any(), any(), any(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    public void testFailedFlushKeepsDeltas() {
+        when(salesRollupRepository.addToRollup(any(), any(), any(), any(), anyLong(), any(), anyLong())).thenThrow(new RuntimeException("Connection reset"));
+
+        salesAnalyticsService.onSaleRecorded(newSaleRecordedEvent(DAY.plusHours(9), 1L, "CASH", Map.of(1L, 2)));
+        salesAnalyticsService.flush();
+        salesAnalyticsService.onSaleRecorded(newSaleRecordedEvent(DAY.plusHours(10), 1L, "CASH", Map.of(1L, 1)));
+
+        List<SalesRollupDTO> products = salesAnalyticsService.findRollups(RollupDimension.PRODUCT, RollupGranularity.DAY, DAY, DAY.plusDays(1), null);
+
+        assertEquals(1, products.size());
+        assertRollup(products.get(0), DAY, "1", 3, "30.00", 2);
+    }
+
+    private static SaleRecordedEvent newSaleRecordedEvent(LocalDateTime soldAt, Long sellerId, String paymentMethod, Map<Long, Integer> productUnits) {
+        BigDecimal price = new BigDecimal("10.00");
+        BigDecimal total = BigDecimal.ZERO;
+        Map<Long, BigDecimal> productRevenue = new HashMap<>();
+
+        for (Map.Entry<Long, Integer> units : productUnits.entrySet()) {
+            BigDecimal revenue = price.multiply(BigDecimal.valueOf(units.getValue()));
+            productRevenue.put(units.getKey(), revenue);
+            total = total.add(revenue);
+        }
+
+        return new SaleRecordedEvent(soldAt, sellerId, paymentMethod, total, productUnits, productRevenue);
+    }
+
+    private static void assertRollup(SalesRollupDTO rollup, LocalDateTime bucketStart, String key, long units, String revenue, long baskets) {
+        assertEquals(bucketStart, rollup.getBucketStart());
+        assertEquals(key, rollup.getKey());
+        assertEquals(units, rollup.getUnits());
+        assertEquals(0, new BigDecimal(revenue).compareTo(rollup.getRevenue()));
+        assertEquals(baskets, rollup.getBaskets());
+    }
+}
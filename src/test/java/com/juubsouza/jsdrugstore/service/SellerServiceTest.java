@@ -1,16 +1,20 @@
 package com.juubsouza.jsdrugstore.service;
 
+import com.juubsouza.jsdrugstore.event.SellerChangedEvent;
 import com.juubsouza.jsdrugstore.model.Seller;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTO;
 import com.juubsouza.jsdrugstore.model.dto.SellerDTOAdd;
 import com.juubsouza.jsdrugstore.repository.SellerRepository;
+import com.juubsouza.jsdrugstore.search.SellerNameIndex;
 import com.juubsouza.jsdrugstore.utils.MockDTOs;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -26,15 +30,28 @@ public class SellerServiceTest {
     @Mock
     private SellerRepository sellerRepository;
 
+    @Mock
+    private SellerNameIndex sellerNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private final Long SELLER_ID = 1L;
 
     @Test
     public void testAddSellerOk() {
         SellerDTOAdd sellerDTOAdd = MockDTOs.newMockSellerDTOAdd();
 
+        when(sellerRepository.save(any())).thenAnswer(invocation -> {
+            Seller saved = invocation.getArgument(0);
+            saved.setId(SELLER_ID);
+            return saved;
+        });
+
         sellerService.addSeller(sellerDTOAdd);
 
         verify(sellerRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(SellerChangedEvent.class));
     }
 
     @Test
@@ -77,6 +94,17 @@ public class SellerServiceTest {
         verify(sellerRepository, times(1)).findDTOsByFirstOrLastName("John");
     }
 
+    @Test
+    public void testFindSellersByFirstOrLastNameUsesNameIndex() {
+        when(sellerNameIndex.isReady()).thenReturn(true);
+        when(sellerNameIndex.findIdsByName("John")).thenReturn(List.of(SELLER_ID));
+
+        sellerService.findSellersByFirstOrLastName("John");
+
+        verify(sellerRepository, times(1)).findDTOsByIdIn(List.of(SELLER_ID));
+        verify(sellerRepository, never()).findDTOsByFirstOrLastName(any());
+    }
+
     @Test
     public void testFindSellerByIdOk() {
         sellerService.findSellerById(SELLER_ID);
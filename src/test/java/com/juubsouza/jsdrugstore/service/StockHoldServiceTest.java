@@ -0,0 +1,217 @@
+package com.juubsouza.jsdrugstore.service;
+
+import com.juubsouza.jsdrugstore.event.StockChangedEvent;
+import com.juubsouza.jsdrugstore.exception.InsufficientStockException;
+import com.juubsouza.jsdrugstore.exception.InvalidStockHoldException;
+import com.juubsouza.jsdrugstore.inventory.InventoryLedger;
+import com.juubsouza.jsdrugstore.model.StockHold;
+import com.juubsouza.jsdrugstore.model.dto.SaleProductDTOAdd;
+import com.juubsouza.jsdrugstore.model.dto.StockHoldDTO;
+import com.juubsouza.jsdrugstore.repository.ProductRepository;
+import com.juubsouza.jsdrugstore.repository.StockHoldLineRepository;
+import com.juubsouza.jsdrugstore.repository.StockHoldRepository;
+import com.juubsouza.jsdrugstore.repository.StockRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class StockHoldServiceTest {
+
+    private StockHoldService stockHoldService;
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private StockHoldLineRepository stockHoldLineRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private InventoryLedger inventoryLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Long MOCK_ID = 1L;
+
+    @BeforeEach
+    public void setUp() {
+        stockHoldService = newStockHoldService(900);
+    }
+
+    @Test
+    public void testReserveOk() {
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+        when(stockHoldRepository.save(any())).thenAnswer(invocation -> {
+            StockHold hold = invocation.getArgument(0);
+            hold.setId(MOCK_ID);
+            return hold;
+        });
+
+        StockHoldDTO stockHold = stockHoldService.reserve(List.of(new SaleProductDTOAdd(2, 1L), new SaleProductDTOAdd(1, 2L)));
+
+        assertEquals(MOCK_ID, stockHold.getId());
+        assertEquals(2, stockHold.getProducts().size());
+        assertTrue(stockHold.getExpiresAt().isAfter(LocalDateTime.now()));
+        assertEquals(1, stockHoldService.openHoldCount());
+
+        verify(stockRepository, times(1)).decrementStock(1L, 2);
+        verify(stockRepository, times(1)).decrementStock(2L, 1);
+        verify(stockHoldLineRepository, times(1)).saveAll(any());
+        verify(eventPublisher, times(1)).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    public void testReserveInsufficientStock() {
+        when(stockRepository.decrementStock(any(), any())).thenReturn(0);
+
+        assertThrows(InsufficientStockException.class, () -> stockHoldService.reserve(List.of(new SaleProductDTOAdd(5, 1L))));
+
+        verify(stockHoldRepository, never()).save(any());
+        assertEquals(0, stockHoldService.openHoldCount());
+    }
+
+    @Test
+    public void testConfirmOk() {
+        when(stockHoldRepository.findByIdForUpdate(MOCK_ID)).thenReturn(Optional.of(newHold(LocalDateTime.now().plusMinutes(5))));
+        when(stockHoldLineRepository.findQuantitiesByHoldIdIn(List.of(MOCK_ID))).thenReturn(List.of(new SaleProductDTOAdd(2, 1L)));
+
+        Map<Long, Integer> quantities = stockHoldService.confirm(MOCK_ID);
+
+        assertEquals(Map.of(1L, 2), quantities);
+
+        verify(stockHoldRepository, times(1)).deleteByIdIn(List.of(MOCK_ID));
+        verify(stockRepository, never()).incrementStock(any(), any());
+    }
+
+    @Test
+    public void testConfirmExpired() {
+        when(stockHoldRepository.findByIdForUpdate(MOCK_ID)).thenReturn(Optional.of(newHold(LocalDateTime.now().minusSeconds(1))));
+
+        assertThrows(InvalidStockHoldException.class, () -> stockHoldService.confirm(MOCK_ID));
+
+        verify(stockHoldRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    public void testReleaseOk() {
+        when(stockHoldRepository.findByIdForUpdate(MOCK_ID)).thenReturn(Optional.of(newHold(LocalDateTime.now().plusMinutes(5))));
+        when(stockHoldLineRepository.findQuantitiesByHoldIdIn(List.of(MOCK_ID))).thenReturn(List.of(new SaleProductDTOAdd(2, 1L)));
+
+        stockHoldService.release(MOCK_ID);
+
+        verify(stockRepository, times(1)).incrementStock(1L, 2);
+        verify(stockHoldRepository, times(1)).deleteByIdIn(List.of(MOCK_ID));
+        verify(eventPublisher, times(1)).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    public void testReleaseNotFound() {
+        when(stockHoldRepository.findByIdForUpdate(MOCK_ID)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> stockHoldService.release(MOCK_ID));
+    }
+
+    @Test
+    public void testReleaseExpiredHolds() throws InterruptedException {
+        stockHoldService = newStockHoldService(0);
+
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+        when(stockHoldRepository.save(any())).thenAnswer(invocation -> {
+            StockHold hold = invocation.getArgument(0);
+            hold.setId(MOCK_ID);
+            return hold;
+        });
+        when(stockHoldRepository.findExpiredByIdInForUpdate(eq(List.of(MOCK_ID)), any())).thenReturn(List.of(newHold(LocalDateTime.now())));
+        when(stockHoldLineRepository.findQuantitiesByHoldIdIn(List.of(MOCK_ID))).thenReturn(List.of(new SaleProductDTOAdd(3, 1L)));
+
+        stockHoldService.reserve(List.of(new SaleProductDTOAdd(3, 1L)));
+
+        Thread.sleep(5);
+        stockHoldService.releaseExpiredHolds();
+
+        verify(stockRepository, times(1)).incrementStock(1L, 3);
+        verify(stockHoldRepository, times(1)).deleteByIdIn(List.of(MOCK_ID));
+        assertEquals(0, stockHoldService.openHoldCount());
+    }
+
+    @Test
+    public void testReleaseExpiredHoldsRetriesFailedChunks() throws InterruptedException {
+        stockHoldService = newStockHoldService(0);
+
+        when(stockRepository.decrementStock(any(), any())).thenReturn(1);
+        when(stockHoldRepository.save(any())).thenAnswer(invocation -> {
+            StockHold hold = invocation.getArgument(0);
+            hold.setId(MOCK_ID);
+            return hold;
+        });
+        when(stockHoldRepository.findExpiredByIdInForUpdate(eq(List.of(MOCK_ID)), any()))
+                .thenThrow(new QueryTimeoutException("Lock wait timeout"))
+                .thenReturn(List.of(newHold(LocalDateTime.now())));
+        when(stockHoldLineRepository.findQuantitiesByHoldIdIn(List.of(MOCK_ID))).thenReturn(List.of(new SaleProductDTOAdd(3, 1L)));
+
+        stockHoldService.reserve(List.of(new SaleProductDTOAdd(3, 1L)));
+
+        Thread.sleep(5);
+        stockHoldService.releaseExpiredHolds();
+
+        verify(stockRepository, never()).incrementStock(any(), any());
+        assertEquals(1, stockHoldService.openHoldCount());
+
+        Thread.sleep(5);
+        stockHoldService.releaseExpiredHolds();
+
+        verify(stockRepository, times(1)).incrementStock(1L, 3);
+        verify(stockHoldRepository, times(1)).deleteByIdIn(List.of(MOCK_ID));
+        assertEquals(0, stockHoldService.openHoldCount());
+    }
+
+    @Test
+    public void testSweepExpiredHoldsReleasesHoldsMissingFromTheWheel() {
+        stockHoldService = newStockHoldService(900);
+
+        when(stockHoldRepository.findExpiredIds(any(), any())).thenReturn(List.of(MOCK_ID), List.of());
+        when(stockHoldRepository.findExpiredByIdInForUpdate(eq(List.of(MOCK_ID)), any())).thenReturn(List.of(newHold(LocalDateTime.now())));
+        when(stockHoldLineRepository.findQuantitiesByHoldIdIn(List.of(MOCK_ID))).thenReturn(List.of(new SaleProductDTOAdd(3, 1L)));
+
+        stockHoldService.sweepExpiredHolds();
+
+        verify(stockRepository, times(1)).incrementStock(1L, 3);
+        verify(stockHoldRepository, times(1)).deleteByIdIn(List.of(MOCK_ID));
+    }
+
+    private StockHoldService newStockHoldService(long ttlSeconds) {
+        return new StockHoldService(stockHoldRepository, stockHoldLineRepository, productRepository, stockRepository,
+                inventoryLedger, eventPublisher, transactionManager, ttlSeconds, 1, 0);
+    }
+
+    private StockHold newHold(LocalDateTime expiresAt) {
+        StockHold hold = new StockHold();
+        hold.setId(MOCK_ID);
+        hold.setExpiresAt(expiresAt);
+        return hold;
+    }
+}
@@ -0,0 +1,47 @@
+package com.juubsouza.jsdrugstore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void testMatchesHashMapUnderRandomOperations() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000);
+
+            if (random.nextInt(3) < 2)
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+            else
+                assertEquals(expected.remove(key), map.remove(key));
+        }
+
+        assertEquals(expected.size(), map.size());
+
+        for (Map.Entry<Long, String> entry : expected.entrySet())
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+
+        Map<Long, String> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testReservedKeyAndNullValueAreRejected() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, "value"));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+        assertNull(map.get(Long.MIN_VALUE));
+        assertEquals(0, map.size());
+    }
+}
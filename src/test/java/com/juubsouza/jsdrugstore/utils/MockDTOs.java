@@ -128,6 +128,26 @@ public class MockDTOs {
         return products;
     }
 
+    public static BasketProductDTO newMockBasketProduct(Long id) {
+        BasketProductDTO product = new BasketProductDTO();
+        product.setId(id);
+        product.setName("Test Product");
+        product.setPrice(BigDecimal.valueOf(10.0));
+        product.setStock(100);
+        product.setQuantity(1);
+
+        return product;
+    }
+
+    public static List<BasketProductDTO> newMockBasketProducts() {
+        List<BasketProductDTO> products = new ArrayList<>();
+
+        products.add(newMockBasketProduct(1L));
+        products.add(newMockBasketProduct(2L));
+
+        return products;
+    }
+
     public static SellerDTO newMockSellerDTO() {
         SellerDTO sellerDTO = new SellerDTO();
         sellerDTO.setId(1L);